@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmarks format() and convert() on the path corpus in src/jmh/resources/corpus.
+ * Each invocation processes all paths of one corpus file:
+ * icons    : short icon paths with packed numbers
+ * maps     : long map outlines (the samples of Main.init())
+ * relative : relative heavy paths with many subpaths
+ * arcs     : arc heavy paths
+ * Run with: gradlew jmh (reports throughput and the gc profiler allocation rate)
+ * The rotation of single points is benchmarked in RotationBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class SVGPathConverterBenchmark {
+    @Param({ "icons", "maps", "relative", "arcs" })
+    private String       corpus;
+    private List<String> paths;
+    private List<String> formattedPaths;
+
+
+    @Setup public void setup() {
+        paths          = loadCorpus(corpus);
+        formattedPaths = paths.stream().map(SVGPathConverter.INSTANCE::format).toList();
+    }
+
+
+    @Benchmark public void format(final Blackhole blackhole) {
+        for (String path : paths) { blackhole.consume(SVGPathConverter.INSTANCE.format(path)); }
+    }
+
+    @Benchmark public void convert(final Blackhole blackhole) {
+        for (String path : formattedPaths) { blackhole.consume(SVGPathConverter.INSTANCE.convert(path)); }
+    }
+
+    @Benchmark public void convertRaw(final Blackhole blackhole) {
+        for (String path : paths) { blackhole.consume(SVGPathConverter.INSTANCE.convert(path)); }
+    }
+
+    @Benchmark public void formatAndConvert(final Blackhole blackhole) {
+        for (String path : paths) { blackhole.consume(SVGPathConverter.INSTANCE.convert(SVGPathConverter.INSTANCE.format(path))); }
+    }
+
+
+    static List<String> loadCorpus(final String name) {
+        try (InputStream inputStream = SVGPathConverterBenchmark.class.getResourceAsStream("/corpus/" + name + ".txt")) {
+            if (null == inputStream) { throw new IllegalArgumentException("Corpus " + name + " not found"); }
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+                return reader.lines().filter(line -> !line.isBlank()).toList();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
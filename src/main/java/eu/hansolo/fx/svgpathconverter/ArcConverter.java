@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+
+/**
+ * Approximates svg elliptical arcs with cubic bezier curves for outputs that don't support arcs.
+ * The arc is converted from endpoint to center parameterization (SVG spec F.6.5) and split into
+ * segments of at most 90 degrees, each segment is approximated by one cubic curve.
+ */
+final class ArcConverter {
+    private static final double MAX_SEGMENT_ANGLE = Math.PI / 2;
+
+
+    // ******************** Constructors **************************************
+    private ArcConverter() {}
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Converts an svg arc from endpoint to center parameterization (SVG spec F.6.5), radii that are
+     * too small to reach the end point are scaled up (F.6.6).
+     * @param center receives centerX, centerY, radiusX, radiusY, rotation (rad), start angle (rad) and sweep angle (rad)
+     * @return false if the arc is omitted (identical end points) or a line (zero radius)
+     */
+    static boolean toCenter(final double fromX, final double fromY, final double radiusX, final double radiusY, final double xAxisRotation,
+                            final boolean largeArcFlag, final boolean sweepFlag, final double x, final double y, final double[] center) {
+        if (fromX == x && fromY == y) { return false; }
+        double rx = Math.abs(radiusX);
+        double ry = Math.abs(radiusY);
+        if (rx == 0 || ry == 0) { return false; }
+        final double phi = Math.toRadians(xAxisRotation % 360);
+        final double sin = Math.sin(phi);
+        final double cos = Math.cos(phi);
+
+        // Step 1: transformed start point
+        final double dx2 = (fromX - x) / 2;
+        final double dy2 = (fromY - y) / 2;
+        final double x1  = cos * dx2 + sin * dy2;
+        final double y1  = -sin * dx2 + cos * dy2;
+
+        // Scale up radii that are too small
+        final double lambda = (x1 * x1) / (rx * rx) + (y1 * y1) / (ry * ry);
+        if (lambda > 1) {
+            final double scale = Math.sqrt(lambda);
+            rx *= scale;
+            ry *= scale;
+        }
+
+        // Step 2: transformed center
+        final double rxSq      = rx * rx;
+        final double rySq      = ry * ry;
+        final double numerator = rxSq * rySq - rxSq * y1 * y1 - rySq * x1 * x1;
+        final double root      = numerator <= 0 ? 0 : Math.sqrt(numerator / (rxSq * y1 * y1 + rySq * x1 * x1));
+        final double sign      = largeArcFlag == sweepFlag ? -1 : 1;
+        final double cx1       = sign * root * rx * y1 / ry;
+        final double cy1       = sign * root * -ry * x1 / rx;
+
+        // Step 3: center, step 4: start angle and sweep angle
+        final double startAngle = Math.atan2((y1 - cy1) / ry, (x1 - cx1) / rx);
+        double       sweep      = Math.atan2((-y1 - cy1) / ry, (-x1 - cx1) / rx) - startAngle;
+        if (sweepFlag && sweep < 0) {
+            sweep += 2 * Math.PI;
+        } else if (!sweepFlag && sweep > 0) {
+            sweep -= 2 * Math.PI;
+        }
+        center[0] = cos * cx1 - sin * cy1 + (fromX + x) / 2;
+        center[1] = sin * cx1 + cos * cy1 + (fromY + y) / 2;
+        center[2] = rx;
+        center[3] = ry;
+        center[4] = phi;
+        center[5] = startAngle;
+        center[6] = sweep;
+        return true;
+    }
+
+    /**
+     * Pushes the cubic curves that approximate the given arc to the handler.
+     * An arc with identical end points is omitted, an arc with a zero radius is a line (SVG spec F.6.2).
+     */
+    static void toCubics(final double fromX, final double fromY, final double radiusX, final double radiusY, final double xAxisRotation,
+                         final boolean largeArcFlag, final boolean sweepFlag, final double x, final double y, final PathHandler handler) {
+        final double[] center = new double[7];
+        if (!toCenter(fromX, fromY, radiusX, radiusY, xAxisRotation, largeArcFlag, sweepFlag, x, y, center)) {
+            if (fromX != x || fromY != y) { handler.lineTo(x, y); }
+            return;
+        }
+        final double cx         = center[0];
+        final double cy         = center[1];
+        final double rx         = center[2];
+        final double ry         = center[3];
+        final double sin        = Math.sin(center[4]);
+        final double cos        = Math.cos(center[4]);
+        final double startAngle = center[5];
+        final double sweep      = center[6];
+
+        final int    segments = Math.max(1, (int) Math.ceil(Math.abs(sweep) / MAX_SEGMENT_ANGLE - 1e-7));
+        final double delta    = sweep / segments;
+        final double k        = 4.0 / 3.0 * Math.tan(delta / 4);
+        double angle = startAngle;
+        double px    = fromX;
+        double py    = fromY;
+        for (int i = 0 ; i < segments ; i++) {
+            final double sin1 = Math.sin(angle);
+            final double cos1 = Math.cos(angle);
+            angle += delta;
+            final double sin2 = Math.sin(angle);
+            final double cos2 = Math.cos(angle);
+
+            // Control points on the unit circle, scaled by the radii and rotated by phi
+            final double e1x = rx * (cos1 - k * sin1);
+            final double e1y = ry * (sin1 + k * cos1);
+            final double e2x = rx * (cos2 + k * sin2);
+            final double e2y = ry * (sin2 - k * cos2);
+            final double c1x = px + cos * (e1x - rx * cos1) - sin * (e1y - ry * sin1);
+            final double c1y = py + sin * (e1x - rx * cos1) + cos * (e1y - ry * sin1);
+            // Use the exact end point for the last segment to avoid gaps
+            final double ex  = i == segments - 1 ? x : cx + cos * rx * cos2 - sin * ry * sin2;
+            final double ey  = i == segments - 1 ? y : cy + sin * rx * cos2 + cos * ry * sin2;
+            final double c2x = cx + cos * e2x - sin * e2y;
+            final double c2y = cy + sin * e2x + cos * e2y;
+            handler.cubicTo(c1x, c1y, c2x, c2y, ex, ey);
+            px = ex;
+            py = ey;
+        }
+    }
+}
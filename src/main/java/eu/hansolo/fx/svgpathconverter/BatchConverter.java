@@ -0,0 +1,383 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+
+
+/**
+ * Headless command line mode that converts svg paths without starting the JavaFX toolkit.
+ * Usage: --batch [options] files/directories
+ * .svg files and all .svg files in directories are scanned for path elements, every other
+ * file is read as text with one svg path string per line.
+ * All paths are converted in parallel, the output is written to stdout or to the given file
+ * and a summary is printed to stderr.
+ */
+public final class BatchConverter {
+    public  static final String BATCH_OPTION = "--batch";
+    private static final String USAGE        = """
+        Usage: --batch [options] <files or directories>
+          -f, --format <svg|fxml|java|bundle>  output format (default: svg)
+          -o, --output <file>                  output file (default: stdout, required for bundle)
+          -t, --threads <n>                    number of worker threads (default: number of cores)
+              --float                          store float coordinates in the bundle
+          -h, --help                           print this help
+        .svg files and directories are scanned for <path d="..."> elements,
+        all other files are read with one svg path string per line.
+        """;
+    private static final String FXML_HEADER  = """
+        <?xml version="1.0" encoding="UTF-8"?>
+
+        <?import javafx.scene.Group?>
+        <?import javafx.scene.shape.*?>
+
+        <Group xmlns:fx="http://javafx.com/fxml">
+            <children>
+        """;
+    private static final String FXML_FOOTER  = """
+            </children>
+        </Group>
+        """;
+
+    enum Format { SVG, FXML, JAVA, BUNDLE }
+
+
+    // ******************** Constructors **************************************
+    private BatchConverter() {}
+
+
+    // ******************** Methods *******************************************
+    public static void main(final String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * @param args command line arguments without the --batch option
+     * @param out stream for the converted paths
+     * @param err stream for the summary and the errors
+     * @return exit code, 0 = success, 1 = some paths could not be converted, 2 = invalid arguments or io error
+     */
+    static int run(final String[] args, final PrintStream out, final PrintStream err) {
+        Format             format    = Format.SVG;
+        Path               output    = null;
+        int                threads   = Runtime.getRuntime().availableProcessors();
+        PathData.Precision precision = PathData.Precision.DOUBLE;
+        final List<Path>   inputs    = new ArrayList<>();
+        try {
+            for (int i = 0 ; i < args.length ; i++) {
+                switch (args[i]) {
+                    case "-f", "--format"  -> format    = format(value(args, ++i));
+                    case "-o", "--output"  -> output    = Path.of(value(args, ++i));
+                    case "-t", "--threads" -> threads   = Integer.parseInt(value(args, ++i));
+                    case "--float"         -> precision = PathData.Precision.FLOAT;
+                    case "-h", "--help"    -> {
+                        err.print(USAGE);
+                        return 0;
+                    }
+                    default                -> inputs.add(Path.of(args[i]));
+                }
+            }
+            if (inputs.isEmpty())                          { throw new IllegalArgumentException("No input files given"); }
+            if (threads < 1)                               { throw new IllegalArgumentException("Number of threads must be > 0"); }
+            if (Format.BUNDLE == format && null == output) { throw new IllegalArgumentException("The bundle format requires an output file"); }
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.print(USAGE);
+            return 2;
+        }
+
+        final long                   start  = System.nanoTime();
+        final Map<String, PathData>  paths  = new LinkedHashMap<>();
+        final Map<String, Exception> errors = new LinkedHashMap<>();
+        long bytes = 0;
+        final ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            final List<Path> svgInputs  = new ArrayList<>();
+            final List<Path> textInputs = new ArrayList<>();
+            for (Path input : inputs) {
+                if (Files.isDirectory(input)) {
+                    try (Stream<Path> stream = Files.walk(input)) {
+                        for (Path file : stream.filter(Files::isRegularFile).filter(BatchConverter::isSvgFile).sorted().toList()) {
+                            svgInputs.add(file);
+                            bytes += Files.size(file);
+                        }
+                    }
+                } else if (isSvgFile(input)) {
+                    svgInputs.add(input);
+                    bytes += Files.exists(input) ? Files.size(input) : 0;
+                } else {
+                    textInputs.add(input);
+                    bytes += Files.exists(input) ? Files.size(input) : 0;
+                }
+            }
+            final SVGFileScanner.Result svgResult = SVGFileScanner.scan(svgInputs, pool);
+            paths.putAll(svgResult.paths());
+            errors.putAll(svgResult.errors());
+            for (Path textInput : textInputs) {
+                convertTextFile(textInput, pool, paths, errors);
+            }
+        } catch (IOException e) {
+            err.println("Error reading input: " + e.getMessage());
+            return 2;
+        } finally {
+            pool.shutdown();
+        }
+        final long convertedNanos = System.nanoTime() - start;
+
+        try {
+            write(format, precision, paths, output, out);
+        } catch (IOException | UncheckedIOException e) {
+            err.println("Error writing output: " + e.getMessage());
+            return 2;
+        }
+
+        final long   elements = paths.values().stream().mapToLong(PathData::size).sum();
+        final double seconds  = Math.max(convertedNanos, 1) / 1e9;
+        errors.forEach((key, exception) -> err.println("ERROR " + key + ": " + exception));
+        err.printf(Locale.ROOT, "Converted %d paths (%d elements) from %d bytes in %.1f ms on %d threads, %.0f paths/s, %.2f MB/s, %d errors%n",
+                   paths.size(), elements, bytes, convertedNanos / 1e6, threads, paths.size() / seconds, bytes / seconds / 1e6, errors.size());
+        return errors.isEmpty() ? 0 : 1;
+    }
+
+    private static Format format(final String value) {
+        for (Format format : Format.values()) {
+            if (format.name().equalsIgnoreCase(value)) { return format; }
+        }
+        throw new IllegalArgumentException("Unknown format " + value + ", valid formats are svg, fxml, java and bundle");
+    }
+
+    private static String value(final String[] args, final int index) {
+        if (index >= args.length) { throw new IllegalArgumentException("Missing value for " + args[index - 1]); }
+        return args[index];
+    }
+
+    private static boolean isSvgFile(final Path file) { return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".svg"); }
+
+    private static void convertTextFile(final Path file, final ForkJoinPool pool, final Map<String, PathData> paths, final Map<String, Exception> errors) {
+        final List<String> lines;
+        try {
+            lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            errors.put(file.toString(), e);
+            return;
+        }
+        final LineResult[] results = new LineResult[lines.size()];
+        pool.invoke(new LineTask(lines, results, 0, results.length));
+        for (int i = 0 ; i < results.length ; i++) {
+            final String     key    = file + "#" + (i + 1);
+            final LineResult result = results[i];
+            if (null != result.pathData()) {
+                paths.put(key, result.pathData());
+            } else if (null != result.exception()) {
+                errors.put(key, result.exception());
+            }
+        }
+    }
+
+    private static void write(final Format format, final PathData.Precision precision, final Map<String, PathData> paths, final Path output, final PrintStream out) throws IOException {
+        if (Format.BUNDLE == format) {
+            final PathBundleWriter bundleWriter = new PathBundleWriter(precision);
+            paths.forEach(bundleWriter::add);
+            bundleWriter.write(output);
+            return;
+        }
+        final Writer writer = null == output ? new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)) : Files.newBufferedWriter(output);
+        try {
+            // All paths go into one Group, so the output is a loadable FXML document with unique fx:ids
+            final Set<String> ids = new HashSet<>();
+            if (Format.FXML == format) { writer.append(FXML_HEADER); }
+            for (Map.Entry<String, PathData> entry : paths.entrySet()) {
+                switch (format) {
+                    case SVG  -> writer.append(entry.getKey()).append('\t').append(entry.getValue().toSVGString()).append('\n');
+                    case FXML -> writer.append(toFXML(entry.getKey(), PathCodeGenerator.uniqueName(PathCodeGenerator.toIdentifier(entry.getKey()), ids), entry.getValue()));
+                    case JAVA -> writer.append(toJava(entry.getKey(), entry.getValue()));
+                }
+            }
+            if (Format.FXML == format) { writer.append(FXML_FOOTER); }
+            writer.flush();
+        } finally {
+            // Don't close stdout
+            if (null != output) { writer.close(); }
+        }
+    }
+
+    /**
+     * @param name name of the path, written as comment
+     * @param id fx:id of the path (a valid Java identifier)
+     * @return Path element for the children of the Group between FXML_HEADER and FXML_FOOTER
+     */
+    static String toFXML(final String name, final String id, final PathData pathData) {
+        // Comments must not contain "--"
+        String comment = name;
+        while (comment.contains("--")) { comment = comment.replace("--", "- -"); }
+        final FXMLHandler handler = new FXMLHandler();
+        handler.builder.append("        <!-- ").append(comment).append(" -->\n        <Path fx:id=\"").append(id).append("\">\n            <elements>\n");
+        pathData.replay(handler);
+        return handler.builder.append("            </elements>\n        </Path>\n").toString();
+    }
+
+    static String toJava(final String name, final PathData pathData) {
+        final JavaHandler handler = new JavaHandler();
+        handler.builder.append("// ").append(name.replace('\n', ' ')).append("\nnew Path(");
+        pathData.replay(handler);
+        return handler.builder.append(");\n").toString();
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private record LineResult(PathData pathData, RuntimeException exception) { }
+
+    /**
+     * Converts the lines from (inclusive) to (exclusive) by splitting the range in halves,
+     * any failure of one line is stored in its result instead of aborting the batch
+     */
+    private static final class LineTask extends RecursiveAction {
+        private final List<String> lines;
+        private final LineResult[] results;
+        private final int          from;
+        private final int          to;
+
+
+        LineTask(final List<String> lines, final LineResult[] results, final int from, final int to) {
+            this.lines   = lines;
+            this.results = results;
+            this.from    = from;
+            this.to      = to;
+        }
+
+
+        @Override protected void compute() {
+            if (to - from <= 1) {
+                if (from < to) { results[from] = convert(lines.get(from)); }
+                return;
+            }
+            final int middle = (from + to) >>> 1;
+            invokeAll(new LineTask(lines, results, from, middle), new LineTask(lines, results, middle, to));
+        }
+
+        private static LineResult convert(final String line) {
+            if (line.isBlank()) { return new LineResult(null, null); }
+            try {
+                return new LineResult(SVGPathConverter.INSTANCE.convertToPathData(line), null);
+            } catch (RuntimeException e) {
+                return new LineResult(null, e);
+            }
+        }
+    }
+
+    /**
+     * Writes each segment as FXML element of a javafx.scene.shape.Path
+     */
+    private static class FXMLHandler implements PathHandler {
+        private final StringBuilder builder = new StringBuilder();
+
+        @Override public void moveTo(final double x, final double y) { element("MoveTo").attribute("x", x).attribute("y", y).end(); }
+
+        @Override public void lineTo(final double x, final double y) { element("LineTo").attribute("x", x).attribute("y", y).end(); }
+
+        @Override public void quadTo(final double controlX, final double controlY, final double x, final double y) {
+            element("QuadCurveTo").attribute("controlX", controlX).attribute("controlY", controlY).attribute("x", x).attribute("y", y).end();
+        }
+
+        @Override public void cubicTo(final double controlX1, final double controlY1, final double controlX2, final double controlY2, final double x, final double y) {
+            element("CubicCurveTo").attribute("controlX1", controlX1).attribute("controlY1", controlY1)
+                                   .attribute("controlX2", controlX2).attribute("controlY2", controlY2)
+                                   .attribute("x", x).attribute("y", y).end();
+        }
+
+        @Override public void arcTo(final double radiusX, final double radiusY, final double xAxisRotation, final boolean largeArcFlag, final boolean sweepFlag, final double x, final double y) {
+            element("ArcTo").attribute("radiusX", radiusX).attribute("radiusY", radiusY).attribute("XAxisRotation", xAxisRotation)
+                            .attribute("x", x).attribute("y", y);
+            builder.append(" largeArcFlag=\"").append(largeArcFlag).append("\" sweepFlag=\"").append(sweepFlag).append('"');
+            end();
+        }
+
+        @Override public void closePath() { element("ClosePath").end(); }
+
+        private FXMLHandler element(final String name) {
+            builder.append("                <").append(name);
+            return this;
+        }
+
+        private FXMLHandler attribute(final String name, final double value) {
+            SVGPathConverter.appendNumber(builder.append(' ').append(name).append("=\""), value).append('"');
+            return this;
+        }
+
+        private void end() { builder.append("/>\n"); }
+    }
+
+    /**
+     * Writes each segment as constructor call of the JavaFX PathElement
+     */
+    private static class JavaHandler implements PathHandler {
+        private final StringBuilder builder = new StringBuilder();
+        private       boolean       first   = true;
+
+        @Override public void moveTo(final double x, final double y) { element("MoveTo", x, y).append(')'); }
+
+        @Override public void lineTo(final double x, final double y) { element("LineTo", x, y).append(')'); }
+
+        @Override public void quadTo(final double controlX, final double controlY, final double x, final double y) { element("QuadCurveTo", controlX, controlY, x, y).append(')'); }
+
+        @Override public void cubicTo(final double controlX1, final double controlY1, final double controlX2, final double controlY2, final double x, final double y) {
+            element("CubicCurveTo", controlX1, controlY1, controlX2, controlY2, x, y).append(')');
+        }
+
+        @Override public void arcTo(final double radiusX, final double radiusY, final double xAxisRotation, final boolean largeArcFlag, final boolean sweepFlag, final double x, final double y) {
+            element("ArcTo", radiusX, radiusY, xAxisRotation, x, y).append(", ").append(largeArcFlag).append(", ").append(sweepFlag).append(')');
+        }
+
+        @Override public void closePath() { element("ClosePath").append(')'); }
+
+        private StringBuilder element(final String name, final double... values) {
+            builder.append(first ? "" : ",\n         ").append("new ").append(name).append('(');
+            for (int i = 0 ; i < values.length ; i++) {
+                if (i > 0) { builder.append(", "); }
+                appendDouble(builder, values[i]);
+            }
+            first = false;
+            return builder;
+        }
+
+        /**
+         * Always writes a double literal (e.g. 1000.0 or 3.0E9), int literals would not compile for large values
+         */
+        private static void appendDouble(final StringBuilder builder, final double value) {
+            if (!Double.isFinite(value)) { throw new IllegalArgumentException("Number out of range: " + value); }
+            builder.append(value);
+        }
+    }
+}
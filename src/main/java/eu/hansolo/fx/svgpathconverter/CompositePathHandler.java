@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+import java.util.List;
+
+
+/**
+ * PathHandler that forwards every segment to all given handlers, so that several
+ * outputs (e.g. JavaFX PathElements and a Path2D) can be produced from a single parse.
+ */
+public class CompositePathHandler implements PathHandler {
+    private final PathHandler[] handlers;
+
+
+    // ******************** Constructors **************************************
+    public CompositePathHandler(final PathHandler... handlers) {
+        this.handlers = handlers.clone();
+    }
+
+    public CompositePathHandler(final List<? extends PathHandler> handlers) {
+        this.handlers = handlers.toArray(new PathHandler[0]);
+    }
+
+
+    // ******************** Methods *******************************************
+    @Override public void moveTo(final double x, final double y) {
+        for (PathHandler handler : handlers) { handler.moveTo(x, y); }
+    }
+
+    @Override public void lineTo(final double x, final double y) {
+        for (PathHandler handler : handlers) { handler.lineTo(x, y); }
+    }
+
+    @Override public void quadTo(final double controlX, final double controlY, final double x, final double y) {
+        for (PathHandler handler : handlers) { handler.quadTo(controlX, controlY, x, y); }
+    }
+
+    @Override public void cubicTo(final double controlX1, final double controlY1, final double controlX2, final double controlY2, final double x, final double y) {
+        for (PathHandler handler : handlers) { handler.cubicTo(controlX1, controlY1, controlX2, controlY2, x, y); }
+    }
+
+    @Override public void arcTo(final double radiusX, final double radiusY, final double xAxisRotation, final boolean largeArcFlag, final boolean sweepFlag, final double x, final double y) {
+        for (PathHandler handler : handlers) { handler.arcTo(radiusX, radiusY, xAxisRotation, largeArcFlag, sweepFlag, x, y); }
+    }
+
+    @Override public void closePath() {
+        for (PathHandler handler : handlers) { handler.closePath(); }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * JDK Flight Recorder event that is committed for every call of format() and the convert methods
+ * of the SVGPathConverter while a recording with this event enabled is running.
+ * If no recording is running the event is not even timed.
+ */
+@Name("eu.hansolo.fx.svgpathconverter.Conversion")
+@Label("SVG Path Conversion")
+@Category("SVGPathConverter")
+@Description("Conversion of one svg path string")
+final class ConversionEvent extends jdk.jfr.Event {
+    @Label("Operation")
+    @Description("Name of the called method")
+    String operation;
+
+    @Label("Path Length")
+    @DataAmount
+    long length;
+
+    @Label("Segments")
+    @Description("Number of segments, -1 if unknown")
+    long segments;
+
+    @Label("Elements")
+    long elements;
+
+    @Label("Success")
+    boolean success;
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Counters of the SVGPathConverter, collected only while the instrumentation is enabled
+ * (see SVGPathConverter.setInstrumentationEnabled()). The counters are LongAdders, each
+ * conversion counts its commands locally and adds them once at the end, so the overhead is
+ * a few increments per conversion. All methods are thread safe.
+ */
+public final class ConversionStatistics {
+    /**
+     * All command letters in the order of getCommandCounts()
+     */
+    public static final String COMMANDS = "MmLlHhVvCcSsQqTtAaBbZz";
+
+    public enum Phase { FORMAT, CONVERT }
+
+    private final LongAdder[] commandCounts;
+    private final LongAdder[] conversionCounts;
+    private final LongAdder[] nanos;
+    private final LongAdder   bytesProcessed;
+    private final LongAdder   elementsProduced;
+    private final LongAdder   errorCount;
+
+
+    // ******************** Constructors **************************************
+    ConversionStatistics() {
+        commandCounts    = createAdders(COMMANDS.length());
+        conversionCounts = createAdders(Phase.values().length);
+        nanos            = createAdders(Phase.values().length);
+        bytesProcessed   = new LongAdder();
+        elementsProduced = new LongAdder();
+        errorCount       = new LongAdder();
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * @param command command letter
+     * @return index of the command in COMMANDS, -1 if it is not a command
+     */
+    static int index(final char command) { return COMMANDS.indexOf(command); }
+
+    /**
+     * @param command command letter (e.g. 'M' or 'm')
+     * @return number of segments with the given command (implicit repeated commands are counted as their command, e.g. 'L' after 'M')
+     */
+    public long getCommandCount(final char command) {
+        final int index = index(command);
+        if (index < 0) { throw new IllegalArgumentException("Unknown command " + command); }
+        return commandCounts[index].sum();
+    }
+
+    /**
+     * @return number of segments per command letter in the order of COMMANDS
+     */
+    public Map<Character, Long> getCommandCounts() {
+        final Map<Character, Long> counts = new LinkedHashMap<>();
+        for (int i = 0 ; i < COMMANDS.length() ; i++) { counts.put(COMMANDS.charAt(i), commandCounts[i].sum()); }
+        return counts;
+    }
+
+    /**
+     * @return number of segments with an absolute command (upper case letter)
+     */
+    public long getAbsoluteCommandCount() { return sumCommands(true); }
+
+    /**
+     * @return number of segments with a relative command (lower case letter)
+     */
+    public long getRelativeCommandCount() { return sumCommands(false); }
+
+    /**
+     * @return number of chars of all processed svg path strings (path data is ASCII, so one byte per char)
+     */
+    public long getBytesProcessed() { return bytesProcessed.sum(); }
+
+    /**
+     * @return number of path elements (or handler calls) produced by all conversions
+     */
+    public long getElementsProduced() { return elementsProduced.sum(); }
+
+    /**
+     * @return number of calls that failed because of malformed path data
+     */
+    public long getErrorCount() { return errorCount.sum(); }
+
+    public long getConversionCount(final Phase phase) { return conversionCounts[phase.ordinal()].sum(); }
+
+    /**
+     * @param phase FORMAT (format()) or CONVERT (parsing and creating the output of all convert methods)
+     * @param unit unit of the returned time
+     * @return total time spent in the given phase
+     */
+    public long getTime(final Phase phase, final TimeUnit unit) { return unit.convert(nanos[phase.ordinal()].sum(), TimeUnit.NANOSECONDS); }
+
+    public void reset() {
+        for (LongAdder adder : commandCounts) { adder.reset(); }
+        for (LongAdder adder : conversionCounts) { adder.reset(); }
+        for (LongAdder adder : nanos) { adder.reset(); }
+        bytesProcessed.reset();
+        elementsProduced.reset();
+        errorCount.reset();
+    }
+
+    /**
+     * @param phase phase of the call
+     * @param length length of the processed svg path string
+     * @param counts segments per command in the order of COMMANDS, null if they are unknown
+     * @param elements number of produced elements
+     * @param time duration of the call in nanoseconds
+     * @param success false if the call failed
+     */
+    void record(final Phase phase, final int length, final int[] counts, final long elements, final long time, final boolean success) {
+        conversionCounts[phase.ordinal()].increment();
+        nanos[phase.ordinal()].add(time);
+        bytesProcessed.add(length);
+        elementsProduced.add(elements);
+        if (!success) { errorCount.increment(); }
+        if (null == counts) { return; }
+        for (int i = 0 ; i < counts.length ; i++) {
+            if (counts[i] != 0) { commandCounts[i].add(counts[i]); }
+        }
+    }
+
+    /**
+     * @return number of elements created for the given command counts (bearings don't create elements)
+     */
+    static long elementCount(final int[] counts) {
+        long elements = 0;
+        for (int i = 0 ; i < counts.length ; i++) {
+            if (COMMANDS.charAt(i) != 'B' && COMMANDS.charAt(i) != 'b') { elements += counts[i]; }
+        }
+        return elements;
+    }
+
+    private long sumCommands(final boolean absolute) {
+        long sum = 0;
+        for (int i = 0 ; i < COMMANDS.length() ; i++) {
+            if (Character.isUpperCase(COMMANDS.charAt(i)) == absolute) { sum += commandCounts[i].sum(); }
+        }
+        return sum;
+    }
+
+    private static LongAdder[] createAdders(final int count) {
+        final LongAdder[] adders = new LongAdder[count];
+        for (int i = 0 ; i < count ; i++) { adders[i] = new LongAdder(); }
+        return adders;
+    }
+
+    @Override public String toString() {
+        return "ConversionStatistics[format: " + getConversionCount(Phase.FORMAT) + " calls in " + getTime(Phase.FORMAT, TimeUnit.MICROSECONDS) + " us" +
+               ", convert: " + getConversionCount(Phase.CONVERT) + " calls in " + getTime(Phase.CONVERT, TimeUnit.MICROSECONDS) + " us" +
+               ", bytes: " + getBytesProcessed() + ", elements: " + getElementsProduced() + ", errors: " + getErrorCount() +
+               ", commands: " + getCommandCounts() + "]";
+    }
+}
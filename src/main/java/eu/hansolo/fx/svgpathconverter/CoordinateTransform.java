@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+import java.util.Optional;
+
+
+/**
+ * Applies an affine transform to packed coordinate arrays (x0, y0, x1, y1, ...), e.g. to re-project
+ * all paths of a map layer on zoom. The matrix has the same layout as javafx.scene.transform.Affine.
+ * If the library was built with -PvectorApi and the jdk.incubator.vector module is available
+ * (--add-modules jdk.incubator.vector) large arrays are transformed with the Vector API,
+ * otherwise a scalar loop is used. Both produce the same results.
+ */
+public final class CoordinateTransform {
+    private static final int    VECTOR_THRESHOLD = 64;
+    private static final Kernel VECTOR_KERNEL    = loadVectorKernel();
+
+    /**
+     * Implemented by the optional VectorizedCoordinateTransform
+     */
+    interface Kernel {
+        boolean isSupported();
+
+        /**
+         * @return number of points that have been transformed, the caller transforms the remaining points
+         */
+        int transform(double[] src, int srcOffset, double[] dst, int dstOffset, int noOfPoints, double mxx, double mxy, double tx, double myx, double myy, double ty);
+    }
+
+
+    // ******************** Constructors **************************************
+    private CoordinateTransform() {}
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Transforms the given number of points in place
+     * @param xy packed coordinates (x0, y0, x1, y1, ...)
+     * @param offset index of the x coordinate of the first point
+     * @param noOfPoints number of points to transform
+     */
+    public static void transform(final double[] xy, final int offset, final int noOfPoints,
+                                 final double mxx, final double mxy, final double tx, final double myx, final double myy, final double ty) {
+        transform(xy, offset, xy, offset, noOfPoints, mxx, mxy, tx, myx, myy, ty);
+    }
+
+    /**
+     * Transforms the given number of points from src into dst (src and dst can be the same array if the offsets are equal)
+     * @param src packed source coordinates (x0, y0, x1, y1, ...)
+     * @param srcOffset index of the x coordinate of the first source point
+     * @param dst packed destination coordinates
+     * @param dstOffset index of the x coordinate of the first destination point
+     * @param noOfPoints number of points to transform
+     */
+    public static void transform(final double[] src, final int srcOffset, final double[] dst, final int dstOffset, final int noOfPoints,
+                                 final double mxx, final double mxy, final double tx, final double myx, final double myy, final double ty) {
+        if (noOfPoints < 0 || srcOffset < 0 || dstOffset < 0 || srcOffset + 2L * noOfPoints > src.length || dstOffset + 2L * noOfPoints > dst.length) {
+            throw new IndexOutOfBoundsException("Range of " + noOfPoints + " points out of bounds");
+        }
+        int done = 0;
+        if (null != VECTOR_KERNEL && noOfPoints * 2 >= VECTOR_THRESHOLD) {
+            done = VECTOR_KERNEL.transform(src, srcOffset, dst, dstOffset, noOfPoints, mxx, mxy, tx, myx, myy, ty);
+        }
+        for (int i = done ; i < noOfPoints ; i++) {
+            final double x = src[srcOffset + 2 * i];
+            final double y = src[srcOffset + 2 * i + 1];
+            dst[dstOffset + 2 * i]     = mxx * x + mxy * y + tx;
+            dst[dstOffset + 2 * i + 1] = myx * x + myy * y + ty;
+        }
+    }
+
+    /**
+     * @return true if large arrays are transformed with the Vector API
+     */
+    public static boolean isVectorized() { return null != VECTOR_KERNEL; }
+
+    private static Kernel loadVectorKernel() {
+        final Optional<Module> vectorModule = ModuleLayer.boot().findModule("jdk.incubator.vector");
+        if (vectorModule.isEmpty()) { return null; }
+        try {
+            // The incubator module is not in the module descriptor (every compile would print a warning), so read it at runtime
+            CoordinateTransform.class.getModule().addReads(vectorModule.get());
+            final Kernel kernel = (Kernel) Class.forName(CoordinateTransform.class.getPackageName() + ".VectorizedCoordinateTransform").getDeclaredConstructor().newInstance();
+            return kernel.isSupported() ? kernel : null;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Built without -PvectorApi
+            return null;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+import javafx.collections.ObservableList;
+import javafx.scene.shape.ArcTo;
+import javafx.scene.shape.CubicCurveTo;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.PathElement;
+import javafx.scene.shape.QuadCurveTo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Keeps the PathElements of an ObservableList (e.g. Path.getElements()) in sync with an svg path string
+ * that is edited in small steps, like in a path editor.
+ * For every segment the end offset in the text and the parser state before the segment (current point,
+ * last control point, subpath start, bearing) are stored. After an edit only the segments from the edit
+ * position on are tokenized and resolved again until a segment boundary behind the edit is reached with
+ * the same parser state as before, all following segments are reused. The element list is only changed
+ * in the range of elements that really differ.
+ * Not thread safe, the element list should only be modified on the JavaFX application thread.
+ */
+public class IncrementalPathConverter {
+    private final ObservableList<PathElement> elements;
+    private       String                      text;
+    private       int                         segmentCount;
+    private       int[]                       segmentEnds;
+    private       int[]                       elementIndices;
+    private       PathState[]                 states;
+
+    /**
+     * Minimal change that has been applied to the element list
+     * @param from index of the first changed element
+     * @param removedCount number of elements that have been removed at from
+     * @param added elements that have been inserted at from
+     * @param resolvedSegments number of segments that have been tokenized and resolved again
+     */
+    public record Change(int from, int removedCount, List<PathElement> added, int resolvedSegments) {
+        public boolean isEmpty() { return removedCount == 0 && added.isEmpty(); }
+    }
+
+
+    // ******************** Constructors **************************************
+    /**
+     * @param elements the list that will be kept in sync with the text (e.g. the elements of a Path)
+     */
+    public IncrementalPathConverter(final ObservableList<PathElement> elements) {
+        this.elements       = elements;
+        this.text           = "";
+        this.segmentEnds    = new int[0];
+        this.elementIndices = new int[0];
+        this.states         = new PathState[0];
+        elements.clear();
+    }
+
+
+    // ******************** Methods *******************************************
+    public String getText() { return text; }
+
+    public ObservableList<PathElement> getElements() { return elements; }
+
+    /**
+     * Converts the whole text and replaces all elements
+     * @param svgPathString svg path string (raw or formatted)
+     * @throws IllegalArgumentException if the svg path string is malformed, nothing is changed in that case
+     */
+    public void setText(final String svgPathString) {
+        final Resolution resolution = resolve(svgPathString, 0, new PathState(), Integer.MAX_VALUE, 0);
+        text           = svgPathString;
+        segmentCount   = resolution.count;
+        segmentEnds    = Arrays.copyOf(resolution.ends, segmentCount);
+        states         = Arrays.copyOf(resolution.states, segmentCount);
+        elementIndices = new int[segmentCount];
+        for (int i = 0, index = 0 ; i < segmentCount ; i++) {
+            elementIndices[i] = index;
+            if (isElement(resolution.commands[i])) { index++; }
+        }
+        elements.setAll(resolution.elements);
+    }
+
+    /**
+     * Replaces the text between start and end with the replacement and updates the elements
+     * @param start index of the first replaced char
+     * @param end index after the last replaced char
+     * @param replacement the new text (empty for a deletion)
+     * @return the change that has been applied to the element list
+     * @throws IllegalArgumentException if the resulting svg path string is malformed, nothing is changed in that case
+     */
+    public Change replace(final int start, final int end, final String replacement) {
+        if (start < 0 || end < start || end > text.length()) { throw new IndexOutOfBoundsException("Invalid range " + start + " - " + end); }
+        final String newText = text.substring(0, start) + replacement + text.substring(end);
+        final int    delta   = replacement.length() - (end - start);
+
+        // First segment that contains the edit or ends directly at it (e.g. when digits are appended to its last number)
+        int first = 0;
+        while (first < segmentCount && segmentEnds[first] < start) { first++; }
+        final int       resumeAt = first == 0 ? 0 : segmentEnds[first - 1];
+        final PathState state    = first < segmentCount ? new PathState(states[first]) : stateAfterLastSegment();
+
+        final Resolution resolution = resolve(newText, resumeAt, state, start + replacement.length(), delta);
+        final int        reuseFrom  = resolution.reuseFrom < 0 ? segmentCount : resolution.reuseFrom;
+
+        // Splice the segment tables: [0, first) + resolved + [reuseFrom, segmentCount) shifted by delta
+        final int         tail           = segmentCount - reuseFrom;
+        final int         newCount       = first + resolution.count + tail;
+        final int[]       newEnds        = new int[newCount];
+        final PathState[] newStates      = new PathState[newCount];
+        final int[]       newIndices     = new int[newCount];
+        final int         firstElement   = first < segmentCount ? elementIndices[first] : elements.size();
+        final int         oldElementsEnd = reuseFrom < segmentCount ? elementIndices[reuseFrom] : elements.size();
+        System.arraycopy(segmentEnds, 0, newEnds, 0, first);
+        System.arraycopy(states, 0, newStates, 0, first);
+        System.arraycopy(elementIndices, 0, newIndices, 0, first);
+        int elementIndex = firstElement;
+        for (int i = 0 ; i < resolution.count ; i++) {
+            newEnds[first + i]    = resolution.ends[i];
+            newStates[first + i]  = resolution.states[i];
+            newIndices[first + i] = elementIndex;
+            if (isElement(resolution.commands[i])) { elementIndex++; }
+        }
+        final int elementDelta = elementIndex - oldElementsEnd;
+        for (int i = 0 ; i < tail ; i++) {
+            newEnds[first + resolution.count + i]    = segmentEnds[reuseFrom + i] + delta;
+            newStates[first + resolution.count + i]  = states[reuseFrom + i];
+            newIndices[first + resolution.count + i] = elementIndices[reuseFrom + i] + elementDelta;
+        }
+        text           = newText;
+        segmentCount   = newCount;
+        segmentEnds    = newEnds;
+        states         = newStates;
+        elementIndices = newIndices;
+
+        return applyDiff(firstElement, oldElementsEnd, resolution.elements, resolution.count);
+    }
+
+    /**
+     * Tokenizes and resolves the text from the given index until the end or until a segment ends behind
+     * minEnd at a position where an old segment ended (shifted by delta) with the same parser state.
+     */
+    private Resolution resolve(final String source, final int from, final PathState state, final int minEnd, final int delta) {
+        final Resolution         resolution = new Resolution();
+        final PathElementHandler handler    = new PathElementHandler(resolution.elements);
+        final PathTokenizer      tokenizer  = new PathTokenizer(source, from, state.lastCommand);
+        while (tokenizer.next()) {
+            resolution.add(tokenizer.command(), (int) tokenizer.offset(), new PathState(state));
+            state.apply(tokenizer, handler);
+            final int segmentEnd = (int) tokenizer.offset();
+            if (segmentEnd >= minEnd) {
+                final int oldSegment = Arrays.binarySearch(segmentEnds, 0, segmentCount, segmentEnd - delta);
+                if (oldSegment >= 0 && oldSegment + 1 < segmentCount && states[oldSegment + 1].equals(state)) {
+                    resolution.reuseFrom = oldSegment + 1;
+                    return resolution;
+                }
+            }
+        }
+        return resolution;
+    }
+
+    /**
+     * Replaces the elements in [from, to) by the new elements, keeping equal elements at the start and the end
+     */
+    private Change applyDiff(final int from, final int to, final List<PathElement> newElements, final int resolvedSegments) {
+        int prefix = 0;
+        while (prefix < newElements.size() && from + prefix < to && isEqual(elements.get(from + prefix), newElements.get(prefix))) { prefix++; }
+        int suffix = 0;
+        while (suffix < newElements.size() - prefix && to - suffix > from + prefix && isEqual(elements.get(to - suffix - 1), newElements.get(newElements.size() - suffix - 1))) { suffix++; }
+
+        final int               changeFrom = from + prefix;
+        final int               changeTo   = to - suffix;
+        final List<PathElement> added      = new ArrayList<>(newElements.subList(prefix, newElements.size() - suffix));
+        if (changeTo - changeFrom == 1 && added.size() == 1) {
+            elements.set(changeFrom, added.get(0));
+        } else {
+            if (changeTo > changeFrom) { elements.remove(changeFrom, changeTo); }
+            if (!added.isEmpty()) { elements.addAll(changeFrom, added); }
+        }
+        return new Change(changeFrom, changeTo - changeFrom, List.copyOf(added), resolvedSegments);
+    }
+
+    private PathState stateAfterLastSegment() {
+        final PathState state = new PathState();
+        if (segmentCount > 0) {
+            // Resolve the last segment again to get the state after it
+            final PathTokenizer tokenizer = new PathTokenizer(text, segmentCount == 1 ? 0 : segmentEnds[segmentCount - 2], states[segmentCount - 1].lastCommand);
+            final PathState     last      = new PathState(states[segmentCount - 1]);
+            tokenizer.next();
+            last.apply(tokenizer, new PathElementHandler(new ArrayList<>()));
+            return last;
+        }
+        return state;
+    }
+
+    private static boolean isElement(final char command) { return command != 'B' && command != 'b'; }
+
+    private static boolean isEqual(final PathElement a, final PathElement b) {
+        if (a.getClass() != b.getClass() || a.isAbsolute() != b.isAbsolute()) { return false; }
+        if (a instanceof MoveTo m) {
+            final MoveTo o = (MoveTo) b;
+            return m.getX() == o.getX() && m.getY() == o.getY();
+        } else if (a instanceof LineTo l) {
+            final LineTo o = (LineTo) b;
+            return l.getX() == o.getX() && l.getY() == o.getY();
+        } else if (a instanceof QuadCurveTo q) {
+            final QuadCurveTo o = (QuadCurveTo) b;
+            return q.getControlX() == o.getControlX() && q.getControlY() == o.getControlY() && q.getX() == o.getX() && q.getY() == o.getY();
+        } else if (a instanceof CubicCurveTo c) {
+            final CubicCurveTo o = (CubicCurveTo) b;
+            return c.getControlX1() == o.getControlX1() && c.getControlY1() == o.getControlY1() && c.getControlX2() == o.getControlX2() &&
+                   c.getControlY2() == o.getControlY2() && c.getX() == o.getX() && c.getY() == o.getY();
+        } else if (a instanceof ArcTo r) {
+            final ArcTo o = (ArcTo) b;
+            return r.getRadiusX() == o.getRadiusX() && r.getRadiusY() == o.getRadiusY() && r.getXAxisRotation() == o.getXAxisRotation() &&
+                   r.isLargeArcFlag() == o.isLargeArcFlag() && r.isSweepFlag() == o.isSweepFlag() && r.getX() == o.getX() && r.getY() == o.getY();
+        }
+        // ClosePath has no properties
+        return true;
+    }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * Segments and elements that have been resolved again
+     */
+    private static final class Resolution {
+        private final List<PathElement> elements  = new ArrayList<>();
+        private       char[]            commands  = new char[16];
+        private       int[]             ends      = new int[16];
+        private       PathState[]       states    = new PathState[16];
+        private       int               count;
+        private       int               reuseFrom = -1;
+
+
+        void add(final char command, final int end, final PathState stateBefore) {
+            if (count == ends.length) {
+                commands = Arrays.copyOf(commands, count * 2);
+                ends     = Arrays.copyOf(ends, count * 2);
+                states   = Arrays.copyOf(states, count * 2);
+            }
+            commands[count] = command;
+            ends[count]     = end;
+            states[count]   = stateBefore;
+            count++;
+        }
+    }
+}
@@ -16,6 +16,16 @@
 
 package eu.hansolo.fx.svgpathconverter;
 
+import java.util.Arrays;
+
+
 public class Launcher {
-    public static void main(String[] args) { Main.main(args); }
+    public static void main(String[] args) {
+        if (args.length > 0 && BatchConverter.BATCH_OPTION.equals(args[0])) {
+            // Headless mode, the JavaFX toolkit will not be started
+            BatchConverter.main(Arrays.copyOfRange(args, 1, args.length));
+        } else {
+            Main.main(args);
+        }
+    }
 }
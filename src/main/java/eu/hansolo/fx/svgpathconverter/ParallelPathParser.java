@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+/**
+ * Parses one very large svg path (e.g. map data with thousands of subpaths) in parallel.
+ * The path is split into chunks at moveto commands and the chunks are parsed concurrently,
+ * each one starting at the origin (0,0). While parsing, every coordinate gets a factor that
+ * says how much it depends on the unknown start point of its chunk (1 for relative commands
+ * before the first absolute coordinate on that axis, 0 afterwards, other values only for
+ * chained reflected control points). A prefix pass over the chunk end points then resolves
+ * the real start point of each chunk and the coordinates are shifted by factor * start point
+ * while the segments are passed to the handler in their original order.
+ * Because of the different order of additions the coordinates may differ from the sequential
+ * PathParser in the last bits.
+ * Paths with bearing commands (B, b) carry state across subpaths and are parsed sequentially.
+ */
+public final class ParallelPathParser {
+    private static final int MIN_CHUNK_LENGTH = 16 * 1024;
+
+
+    // ******************** Constructors **************************************
+    private ParallelPathParser() {}
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Parses the given svg path data in parallel on the common ForkJoinPool and calls the handler
+     * for each segment in the order of the path data (always on the calling thread).
+     * @param svgPathData svg path data (raw or formatted)
+     * @param handler handler that receives the segments with absolute coordinates
+     * @throws IllegalArgumentException if the path data is malformed
+     */
+    public static void parse(final CharSequence svgPathData, final PathHandler handler) {
+        parse(svgPathData, handler, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parses the given svg path data in parallel on the given ForkJoinPool and calls the handler
+     * for each segment in the order of the path data (always on the calling thread).
+     * @param svgPathData svg path data (raw or formatted)
+     * @param handler handler that receives the segments with absolute coordinates
+     * @param pool the pool that should be used for parsing
+     * @throws IllegalArgumentException if the path data is malformed
+     */
+    public static void parse(final CharSequence svgPathData, final PathHandler handler, final ForkJoinPool pool) {
+        parse(svgPathData, handler, pool, null);
+    }
+
+    /**
+     * Same as parse() but counts the segments per command if commandCounts is not null
+     * @param commandCounts counts in the order of ConversionStatistics.COMMANDS or null
+     */
+    static void parse(final CharSequence svgPathData, final PathHandler handler, final ForkJoinPool pool, final int[] commandCounts) {
+        final int[] chunkStarts = split(svgPathData, pool.getParallelism());
+        if (chunkStarts.length < 2) {
+            if (null == commandCounts) {
+                PathParser.parse(svgPathData, handler);
+            } else {
+                PathParser.parse(new PathTokenizer(svgPathData), handler, commandCounts);
+            }
+            return;
+        }
+        final Chunk[] chunks = new Chunk[chunkStarts.length];
+        pool.invoke(new ChunkTask(svgPathData, chunkStarts, chunks, 0, chunks.length, null != commandCounts));
+        double originX = 0;
+        double originY = 0;
+        for (Chunk chunk : chunks) {
+            if (null != commandCounts) {
+                for (int i = 0 ; i < commandCounts.length ; i++) { commandCounts[i] += chunk.commandCounts[i]; }
+            }
+            chunk.replay(handler, originX, originY);
+            // Prefix pass: the end point of this chunk is the start point of the next one
+            originX = chunk.lastX + chunk.lastFactorX * originX;
+            originY = chunk.lastY + chunk.lastFactorY * originY;
+        }
+    }
+
+    /**
+     * @return start indices of the chunks, an empty array if the path data must be parsed sequentially
+     */
+    static int[] split(final CharSequence svgPathData, final int parallelism) {
+        final int length      = svgPathData.length();
+        final int chunkLength = Math.max(MIN_CHUNK_LENGTH, length / (parallelism * 4));
+        if (length < 2 * MIN_CHUNK_LENGTH || parallelism < 2) { return new int[0]; }
+        final List<Integer> starts = new ArrayList<>();
+        starts.add(0);
+        int next = chunkLength;
+        for (int i = 0 ; i < length ; i++) {
+            final char c = svgPathData.charAt(i);
+            if (c == 'B' || c == 'b') { return new int[0]; }
+            // M and m can't be part of a number, so every occurrence starts a subpath
+            if (i >= next && (c == 'M' || c == 'm')) {
+                starts.add(i);
+                next = i + chunkLength;
+            }
+        }
+        return starts.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static Chunk parseChunk(final CharSequence svgPathData, final int[] chunkStarts, final int index, final boolean countCommands) {
+        final int start = chunkStarts[index];
+        final int end   = index == chunkStarts.length - 1 ? svgPathData.length() : chunkStarts[index + 1];
+        final PathTokenizer tokenizer = new PathTokenizer(svgPathData.subSequence(start, end));
+        final Chunk         chunk     = new Chunk(tokenizer, countCommands);
+        try {
+            if (countCommands) {
+                PathParser.parse(tokenizer, chunk, chunk.commandCounts);
+            } else {
+                PathParser.parse(tokenizer, chunk);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(e.getMessage() + " of the subpaths starting at index " + start, e);
+        }
+        return chunk;
+    }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * Parses the chunks from (inclusive) to (exclusive) by splitting the range in halves
+     */
+    private static final class ChunkTask extends RecursiveAction {
+        private final CharSequence svgPathData;
+        private final int[]        chunkStarts;
+        private final Chunk[]      chunks;
+        private final int          from;
+        private final int          to;
+        private final boolean      countCommands;
+
+
+        ChunkTask(final CharSequence svgPathData, final int[] chunkStarts, final Chunk[] chunks, final int from, final int to, final boolean countCommands) {
+            this.svgPathData   = svgPathData;
+            this.chunkStarts   = chunkStarts;
+            this.chunks        = chunks;
+            this.from          = from;
+            this.to            = to;
+            this.countCommands = countCommands;
+        }
+
+
+        @Override protected void compute() {
+            if (to - from <= 1) {
+                if (from < to) { chunks[from] = parseChunk(svgPathData, chunkStarts, from, countCommands); }
+                return;
+            }
+            final int middle = (from + to) >>> 1;
+            invokeAll(new ChunkTask(svgPathData, chunkStarts, chunks, from, middle, countCommands), new ChunkTask(svgPathData, chunkStarts, chunks, middle, to, countCommands));
+        }
+    }
+
+    /**
+     * Collects the segments of one chunk together with the origin factor of each coordinate.
+     * The command of the current segment is read from the tokenizer to decide which coordinates
+     * depend on the start point of the chunk, the factors follow the same rules as the coordinates
+     * in the PathParser (relative: current point + argument, absolute: argument, reflection: 2 * current - control).
+     */
+    private static final class Chunk implements PathHandler {
+        private final PathTokenizer tokenizer;
+        private final int[]         commandCounts;
+        private       byte[]        opcodes     = new byte[64];
+        private       double[]      coordinates = new double[256];
+        private       int[]         factors     = new int[256];
+        private       int           opcodeCount;
+        private       int           coordinateCount;
+        private       double        lastX;
+        private       double        lastY;
+        private       int           lastFactorX = 1;
+        private       int           lastFactorY = 1;
+        private       int           controlFactorX;
+        private       int           controlFactorY;
+        private       int           startFactorX;
+        private       int           startFactorY;
+        private       double        startX;
+        private       double        startY;
+        private       char          lastCommand;
+
+
+        Chunk(final PathTokenizer tokenizer, final boolean countCommands) {
+            this.tokenizer     = tokenizer;
+            this.commandCounts = countCommands ? new int[ConversionStatistics.COMMANDS.length()] : null;
+        }
+
+
+        @Override public void moveTo(final double x, final double y) {
+            final char command = tokenizer.command();
+            add(PathData.MOVE_TO);
+            setLast(command == 'm', command == 'm', x, y);
+            startX       = x;
+            startY       = y;
+            startFactorX = lastFactorX;
+            startFactorY = lastFactorY;
+        }
+
+        @Override public void lineTo(final double x, final double y) {
+            final char command = tokenizer.command();
+            add(PathData.LINE_TO);
+            setLast(command != 'L' && command != 'H', command != 'L' && command != 'V', x, y);
+        }
+
+        @Override public void quadTo(final double controlX, final double controlY, final double x, final double y) {
+            final char    command  = tokenizer.command();
+            final boolean relative = Character.isLowerCase(command);
+            add(PathData.QUAD_TO);
+            if (command == 'T' || command == 't') {
+                final boolean reflect = lastCommand == 'Q' || lastCommand == 'q' || lastCommand == 'T' || lastCommand == 't';
+                controlFactorX = reflect ? 2 * lastFactorX - controlFactorX : lastFactorX;
+                controlFactorY = reflect ? 2 * lastFactorY - controlFactorY : lastFactorY;
+            } else {
+                controlFactorX = relative ? lastFactorX : 0;
+                controlFactorY = relative ? lastFactorY : 0;
+            }
+            addCoordinate(controlX, controlFactorX);
+            addCoordinate(controlY, controlFactorY);
+            setLast(relative, relative, x, y);
+        }
+
+        @Override public void cubicTo(final double controlX1, final double controlY1, final double controlX2, final double controlY2, final double x, final double y) {
+            final char    command  = tokenizer.command();
+            final boolean relative = Character.isLowerCase(command);
+            add(PathData.CUBIC_TO);
+            if (command == 'S' || command == 's') {
+                final boolean reflect = lastCommand == 'C' || lastCommand == 'c' || lastCommand == 'S' || lastCommand == 's';
+                addCoordinate(controlX1, reflect ? 2 * lastFactorX - controlFactorX : lastFactorX);
+                addCoordinate(controlY1, reflect ? 2 * lastFactorY - controlFactorY : lastFactorY);
+            } else {
+                addCoordinate(controlX1, relative ? lastFactorX : 0);
+                addCoordinate(controlY1, relative ? lastFactorY : 0);
+            }
+            controlFactorX = relative ? lastFactorX : 0;
+            controlFactorY = relative ? lastFactorY : 0;
+            addCoordinate(controlX2, controlFactorX);
+            addCoordinate(controlY2, controlFactorY);
+            setLast(relative, relative, x, y);
+        }
+
+        @Override public void arcTo(final double radiusX, final double radiusY, final double xAxisRotation, final boolean largeArcFlag, final boolean sweepFlag, final double x, final double y) {
+            final boolean relative = tokenizer.command() == 'a';
+            add((byte) (PathData.ARC_TO | (largeArcFlag ? PathData.LARGE_ARC_FLAG : 0) | (sweepFlag ? PathData.SWEEP_FLAG : 0)));
+            addCoordinate(radiusX, 0);
+            addCoordinate(radiusY, 0);
+            addCoordinate(xAxisRotation, 0);
+            setLast(relative, relative, x, y);
+        }
+
+        @Override public void closePath() {
+            lastCommand = tokenizer.command();
+            add(PathData.CLOSE_PATH);
+            lastX       = startX;
+            lastY       = startY;
+            lastFactorX = startFactorX;
+            lastFactorY = startFactorY;
+        }
+
+        void replay(final PathHandler handler, final double originX, final double originY) {
+            int c = 0;
+            for (int i = 0 ; i < opcodeCount ; i++) {
+                final byte opcode = opcodes[i];
+                switch (opcode & PathData.OPCODE_MASK) {
+                    case PathData.MOVE_TO    -> handler.moveTo(get(c, originX), get(c + 1, originY));
+                    case PathData.LINE_TO    -> handler.lineTo(get(c, originX), get(c + 1, originY));
+                    case PathData.QUAD_TO    -> handler.quadTo(get(c, originX), get(c + 1, originY), get(c + 2, originX), get(c + 3, originY));
+                    case PathData.CUBIC_TO   -> handler.cubicTo(get(c, originX), get(c + 1, originY), get(c + 2, originX), get(c + 3, originY), get(c + 4, originX), get(c + 5, originY));
+                    case PathData.ARC_TO     -> handler.arcTo(coordinates[c], coordinates[c + 1], coordinates[c + 2], (opcode & PathData.LARGE_ARC_FLAG) != 0, (opcode & PathData.SWEEP_FLAG) != 0,
+                                                              get(c + 3, originX), get(c + 4, originY));
+                    case PathData.CLOSE_PATH -> handler.closePath();
+                }
+                c += PathData.coordinateCount(opcode);
+            }
+        }
+
+        private double get(final int index, final double origin) {
+            final int factor = factors[index];
+            return factor == 0 ? coordinates[index] : coordinates[index] + factor * origin;
+        }
+
+        /**
+         * Adds the new current point, a relative coordinate keeps the factor of the current point, an absolute one resets it
+         */
+        private void setLast(final boolean relativeX, final boolean relativeY, final double x, final double y) {
+            lastCommand = tokenizer.command();
+            lastX       = x;
+            lastY       = y;
+            lastFactorX = relativeX ? lastFactorX : 0;
+            lastFactorY = relativeY ? lastFactorY : 0;
+            addCoordinate(x, lastFactorX);
+            addCoordinate(y, lastFactorY);
+        }
+
+        private void add(final byte opcode) {
+            if (opcodeCount == opcodes.length) { opcodes = Arrays.copyOf(opcodes, opcodeCount * 2); }
+            opcodes[opcodeCount++] = opcode;
+        }
+
+        private void addCoordinate(final double value, final int factor) {
+            if (coordinateCount == coordinates.length) {
+                coordinates = Arrays.copyOf(coordinates, coordinateCount * 2);
+                factors     = Arrays.copyOf(factors, coordinateCount * 2);
+            }
+            coordinates[coordinateCount] = value;
+            factors[coordinateCount++]   = factor;
+        }
+    }
+}
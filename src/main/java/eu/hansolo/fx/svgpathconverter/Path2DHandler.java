@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
+
+
+/**
+ * PathHandler that appends the segments to a java.awt.geom.Path2D.Double, e.g. to render
+ * paths with Java2D on a server without JavaFX. Arcs are approximated by cubic curves
+ * because Path2D has no elliptical arc segment.
+ * Segments before the first moveto (e.g. when the handler is driven directly or by PathData.of())
+ * start at an implicit moveto to the current point (0,0 at the beginning) because Path2D requires one.
+ * Not thread safe, use one handler per path.
+ */
+public class Path2DHandler implements PathHandler {
+    private final Path2D.Double path;
+    private       double        currentX;
+    private       double        currentY;
+    private       double        startX;
+    private       double        startY;
+    private       boolean       hasMoveTo;
+
+
+    // ******************** Constructors **************************************
+    public Path2DHandler() {
+        this(new Path2D.Double());
+    }
+
+    /**
+     * Segments are appended to the given path and resolved against its current point and the
+     * start of its last subpath, e.g. arcs and closepaths at the beginning continue that subpath.
+     * @param path path the segments will be appended to
+     */
+    public Path2DHandler(final Path2D.Double path) {
+        this.path = path;
+        final Point2D currentPoint = path.getCurrentPoint();
+        this.hasMoveTo = null != currentPoint;
+        if (hasMoveTo) {
+            currentX = currentPoint.getX();
+            currentY = currentPoint.getY();
+            // Path2D doesn't expose the start of the current subpath, it is the last moveto
+            final double[] values = new double[6];
+            for (PathIterator iterator = path.getPathIterator(null) ; !iterator.isDone() ; iterator.next()) {
+                if (PathIterator.SEG_MOVETO == iterator.currentSegment(values)) {
+                    startX = values[0];
+                    startY = values[1];
+                }
+            }
+        }
+    }
+
+
+    // ******************** Methods *******************************************
+    @Override public void moveTo(final double x, final double y) {
+        path.moveTo(x, y);
+        hasMoveTo = true;
+        currentX  = x;
+        currentY  = y;
+        startX    = x;
+        startY    = y;
+    }
+
+    @Override public void lineTo(final double x, final double y) {
+        ensureMoveTo();
+        path.lineTo(x, y);
+        currentX = x;
+        currentY = y;
+    }
+
+    @Override public void quadTo(final double controlX, final double controlY, final double x, final double y) {
+        ensureMoveTo();
+        path.quadTo(controlX, controlY, x, y);
+        currentX = x;
+        currentY = y;
+    }
+
+    @Override public void cubicTo(final double controlX1, final double controlY1, final double controlX2, final double controlY2, final double x, final double y) {
+        ensureMoveTo();
+        path.curveTo(controlX1, controlY1, controlX2, controlY2, x, y);
+        currentX = x;
+        currentY = y;
+    }
+
+    @Override public void arcTo(final double radiusX, final double radiusY, final double xAxisRotation, final boolean largeArcFlag, final boolean sweepFlag, final double x, final double y) {
+        ArcConverter.toCubics(currentX, currentY, radiusX, radiusY, xAxisRotation, largeArcFlag, sweepFlag, x, y, this);
+    }
+
+    @Override public void closePath() {
+        ensureMoveTo();
+        path.closePath();
+        currentX = startX;
+        currentY = startY;
+    }
+
+    public Path2D.Double getPath() { return path; }
+
+    private void ensureMoveTo() {
+        if (!hasMoveTo) { moveTo(currentX, currentY); }
+    }
+}
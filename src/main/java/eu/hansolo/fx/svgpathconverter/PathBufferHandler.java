@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+import java.util.Arrays;
+
+
+/**
+ * PathHandler that writes opcodes (see PathData) and absolute coordinates into caller supplied arrays,
+ * so that the buffers can be reused for many paths without any allocation.
+ * If a buffer is too small the remaining segments are only counted, isOverflow() returns true and
+ * getSize()/getCoordinateCount() return the required lengths, so the caller can grow the buffers and parse again.
+ * Not thread safe, use one handler per thread.
+ */
+public class PathBufferHandler implements PathHandler {
+    private byte[]   opcodes;
+    private double[] coordinates;
+    private int      size;
+    private int      coordinateCount;
+
+
+    // ******************** Constructors **************************************
+    /**
+     * @param opcodes buffer for the opcodes
+     * @param coordinates buffer for the coordinates
+     */
+    public PathBufferHandler(final byte[] opcodes, final double[] coordinates) {
+        setBuffers(opcodes, coordinates);
+    }
+
+
+    // ******************** Methods *******************************************
+    @Override public void moveTo(final double x, final double y) {
+        if (add(PathData.MOVE_TO, 2)) {
+            coordinates[coordinateCount]     = x;
+            coordinates[coordinateCount + 1] = y;
+        }
+        coordinateCount += 2;
+    }
+
+    @Override public void lineTo(final double x, final double y) {
+        if (add(PathData.LINE_TO, 2)) {
+            coordinates[coordinateCount]     = x;
+            coordinates[coordinateCount + 1] = y;
+        }
+        coordinateCount += 2;
+    }
+
+    @Override public void quadTo(final double controlX, final double controlY, final double x, final double y) {
+        if (add(PathData.QUAD_TO, 4)) {
+            coordinates[coordinateCount]     = controlX;
+            coordinates[coordinateCount + 1] = controlY;
+            coordinates[coordinateCount + 2] = x;
+            coordinates[coordinateCount + 3] = y;
+        }
+        coordinateCount += 4;
+    }
+
+    @Override public void cubicTo(final double controlX1, final double controlY1, final double controlX2, final double controlY2, final double x, final double y) {
+        if (add(PathData.CUBIC_TO, 6)) {
+            coordinates[coordinateCount]     = controlX1;
+            coordinates[coordinateCount + 1] = controlY1;
+            coordinates[coordinateCount + 2] = controlX2;
+            coordinates[coordinateCount + 3] = controlY2;
+            coordinates[coordinateCount + 4] = x;
+            coordinates[coordinateCount + 5] = y;
+        }
+        coordinateCount += 6;
+    }
+
+    @Override public void arcTo(final double radiusX, final double radiusY, final double xAxisRotation, final boolean largeArcFlag, final boolean sweepFlag, final double x, final double y) {
+        final byte opcode = (byte) (PathData.ARC_TO | (largeArcFlag ? PathData.LARGE_ARC_FLAG : 0) | (sweepFlag ? PathData.SWEEP_FLAG : 0));
+        if (add(opcode, 5)) {
+            coordinates[coordinateCount]     = radiusX;
+            coordinates[coordinateCount + 1] = radiusY;
+            coordinates[coordinateCount + 2] = xAxisRotation;
+            coordinates[coordinateCount + 3] = x;
+            coordinates[coordinateCount + 4] = y;
+        }
+        coordinateCount += 5;
+    }
+
+    @Override public void closePath() { add(PathData.CLOSE_PATH, 0); }
+
+    /**
+     * @return number of segments of the path (can be larger than the opcode buffer if it overflowed)
+     */
+    public int getSize() { return size; }
+
+    /**
+     * @return number of coordinates of the path (can be larger than the coordinate buffer if it overflowed)
+     */
+    public int getCoordinateCount() { return coordinateCount; }
+
+    public boolean isOverflow() { return size > opcodes.length || coordinateCount > coordinates.length; }
+
+    public byte[] getOpcodes() { return opcodes; }
+
+    public double[] getCoordinates() { return coordinates; }
+
+    /**
+     * Replaces the buffers and resets the counters
+     * @param opcodes buffer for the opcodes
+     * @param coordinates buffer for the coordinates
+     */
+    public void setBuffers(final byte[] opcodes, final double[] coordinates) {
+        this.opcodes     = opcodes;
+        this.coordinates = coordinates;
+        reset();
+    }
+
+    /**
+     * Resets the counters so that the buffers can be filled with the next path
+     */
+    public void reset() {
+        size            = 0;
+        coordinateCount = 0;
+    }
+
+    /**
+     * @return copy of the filled part of the buffers as PathData
+     * @throws IllegalStateException if the buffers overflowed
+     */
+    public PathData toPathData() {
+        if (isOverflow()) { throw new IllegalStateException("Buffers too small, " + size + " opcodes and " + coordinateCount + " coordinates needed"); }
+        return PathData.wrap(Arrays.copyOf(opcodes, size), Arrays.copyOf(coordinates, coordinateCount));
+    }
+
+    private boolean add(final byte opcode, final int noOfCoordinates) {
+        final boolean fits = size < opcodes.length && coordinateCount + noOfCoordinates <= coordinates.length;
+        if (fits) { opcodes[size] = opcode; }
+        size++;
+        return fits;
+    }
+}
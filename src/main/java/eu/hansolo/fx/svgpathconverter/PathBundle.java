@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+import javafx.scene.shape.Path;
+import javafx.scene.shape.PathElement;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Read only view on a binary path bundle written by the PathBundleWriter.
+ * Only the index is read when the bundle is opened, the opcodes and coordinates
+ * of a path are read from the (usually memory mapped) buffer when they are requested.
+ * No svg path string has to be parsed. Instances are immutable and thread safe.
+ */
+public final class PathBundle {
+    private record Entry(int offset, int opcodeCount, int coordinateCount) { }
+
+    private final ByteBuffer         buffer;
+    private final boolean            floats;
+    private final Map<String, Entry> entries;
+
+
+    // ******************** Constructors **************************************
+    private PathBundle(final ByteBuffer buffer) {
+        if (buffer.limit() < PathBundleWriter.HEADER_SIZE || buffer.getInt(0) != PathBundleWriter.MAGIC) { throw new IllegalArgumentException("Not a path bundle"); }
+        final short version = buffer.getShort(4);
+        if (version != PathBundleWriter.VERSION) { throw new IllegalArgumentException("Unsupported path bundle version " + version); }
+        this.buffer  = buffer;
+        this.floats  = (buffer.getShort(6) & PathBundleWriter.FLOAT_FLAG) != 0;
+        this.entries = new LinkedHashMap<>();
+
+        final int count = buffer.getInt(8);
+        if (count < 0) { throw new IllegalArgumentException("Path bundle is corrupt, negative number of entries"); }
+        final ByteBuffer index = buffer.duplicate().position(PathBundleWriter.HEADER_SIZE);
+        for (int i = 0 ; i < count ; i++) {
+            if (index.remaining() < 2) { throw new IllegalArgumentException("Path bundle is truncated"); }
+            final byte[] nameBytes = new byte[Short.toUnsignedInt(index.getShort())];
+            if (index.remaining() < nameBytes.length + 12) { throw new IllegalArgumentException("Path bundle is truncated"); }
+            index.get(nameBytes);
+            final String name  = new String(nameBytes, StandardCharsets.UTF_8);
+            final Entry  entry = new Entry(index.getInt(), index.getInt(), index.getInt());
+            if (entry.offset() < 0 || entry.opcodeCount() < 0 || entry.coordinateCount() < 0) { throw new IllegalArgumentException("Path bundle is corrupt, negative size in entry " + name); }
+            if ((long) entry.offset() + entry.opcodeCount() + (long) entry.coordinateCount() * (floats ? Float.BYTES : Double.BYTES) > buffer.limit()) {
+                throw new IllegalArgumentException("Path bundle is truncated");
+            }
+            if (null != entries.put(name, entry)) { throw new IllegalArgumentException("Path bundle is corrupt, duplicate entry " + name); }
+        }
+        // The entry data follows the index
+        final int indexEnd = index.position();
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            if (entry.getValue().offset() < indexEnd) { throw new IllegalArgumentException("Path bundle is corrupt, entry " + entry.getKey() + " overlaps the index"); }
+        }
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Memory maps the given bundle file, the mapping stays valid after the file channel is closed.
+     * @param file bundle file written by the PathBundleWriter
+     * @return PathBundle
+     * @throws IOException if the file can't be mapped
+     * @throws IllegalArgumentException if the file is not a valid path bundle
+     */
+    public static PathBundle open(final java.nio.file.Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new PathBundle(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * @param buffer buffer that contains the bundle starting at index 0
+     * @return PathBundle
+     * @throws IllegalArgumentException if the buffer doesn't contain a valid path bundle
+     */
+    public static PathBundle of(final ByteBuffer buffer) { return new PathBundle(buffer.duplicate()); }
+
+    public Set<String> names() { return Collections.unmodifiableSet(entries.keySet()); }
+
+    public boolean contains(final String name) { return entries.containsKey(name); }
+
+    public int size() { return entries.size(); }
+
+    public PathData.Precision getPrecision() { return floats ? PathData.Precision.FLOAT : PathData.Precision.DOUBLE; }
+
+    /**
+     * @param name name of the path
+     * @return the PathData of the path
+     * @throws IllegalArgumentException if there is no path with the given name or its opcodes don't match its coordinates
+     */
+    public PathData getPathData(final String name) {
+        final Entry  entry   = getEntry(name);
+        final byte[] opcodes = new byte[entry.opcodeCount()];
+        buffer.get(entry.offset(), opcodes);
+        final int coordinateOffset = entry.offset() + entry.opcodeCount();
+        if (floats) {
+            final float[] coordinates = new float[entry.coordinateCount()];
+            for (int i = 0 ; i < coordinates.length ; i++) { coordinates[i] = buffer.getFloat(coordinateOffset + i * Float.BYTES); }
+            return PathData.wrap(opcodes, coordinates);
+        } else {
+            final double[] coordinates = new double[entry.coordinateCount()];
+            for (int i = 0 ; i < coordinates.length ; i++) { coordinates[i] = buffer.getDouble(coordinateOffset + i * Double.BYTES); }
+            return PathData.wrap(opcodes, coordinates);
+        }
+    }
+
+    /**
+     * Passes the segments of the path directly from the buffer to the given handler
+     * @param name name of the path
+     * @param handler handler that receives the segments
+     * @throws IllegalArgumentException if there is no path with the given name or its opcodes don't match its coordinates
+     */
+    public void replay(final String name, final PathHandler handler) {
+        final Entry entry = getEntry(name);
+        final int   size  = floats ? Float.BYTES : Double.BYTES;
+        // Validate the opcodes first so that a corrupt entry neither reads the data of the next entry nor reaches the handler
+        int coordinateCount = 0;
+        for (int i = 0 ; i < entry.opcodeCount() ; i++) { coordinateCount += PathData.coordinateCount(buffer.get(entry.offset() + i)); }
+        if (coordinateCount != entry.coordinateCount()) {
+            throw new IllegalArgumentException("Path bundle is corrupt, opcodes of entry " + name + " require " + coordinateCount + " coordinates but " + entry.coordinateCount() + " are stored");
+        }
+        int c = entry.offset() + entry.opcodeCount();
+        for (int i = 0 ; i < entry.opcodeCount() ; i++) {
+            final byte opcode = buffer.get(entry.offset() + i);
+            switch (opcode & PathData.OPCODE_MASK) {
+                case PathData.MOVE_TO    -> handler.moveTo(coordinate(c), coordinate(c + size));
+                case PathData.LINE_TO    -> handler.lineTo(coordinate(c), coordinate(c + size));
+                case PathData.QUAD_TO    -> handler.quadTo(coordinate(c), coordinate(c + size), coordinate(c + 2 * size), coordinate(c + 3 * size));
+                case PathData.CUBIC_TO   -> handler.cubicTo(coordinate(c), coordinate(c + size), coordinate(c + 2 * size), coordinate(c + 3 * size), coordinate(c + 4 * size), coordinate(c + 5 * size));
+                case PathData.ARC_TO     -> handler.arcTo(coordinate(c), coordinate(c + size), coordinate(c + 2 * size),
+                                                          (opcode & PathData.LARGE_ARC_FLAG) != 0, (opcode & PathData.SWEEP_FLAG) != 0,
+                                                          coordinate(c + 3 * size), coordinate(c + 4 * size));
+                case PathData.CLOSE_PATH -> handler.closePath();
+            }
+            c += PathData.coordinateCount(opcode) * size;
+        }
+    }
+
+    /**
+     * @param name name of the path
+     * @return new JavaFX PathElements created directly from the buffer
+     * @throws IllegalArgumentException if there is no path with the given name
+     */
+    public List<PathElement> getPathElements(final String name) {
+        final PathElementHandler handler = new PathElementHandler();
+        replay(name, handler);
+        return handler.getElements();
+    }
+
+    /**
+     * @param name name of the path
+     * @return new JavaFX Path created directly from the buffer
+     * @throws IllegalArgumentException if there is no path with the given name
+     */
+    public Path getPath(final String name) { return new Path(getPathElements(name)); }
+
+    private Entry getEntry(final String name) {
+        final Entry entry = entries.get(name);
+        if (null == entry) { throw new IllegalArgumentException("No path with name " + name); }
+        return entry;
+    }
+
+    private double coordinate(final int offset) { return floats ? buffer.getFloat(offset) : buffer.getDouble(offset); }
+}
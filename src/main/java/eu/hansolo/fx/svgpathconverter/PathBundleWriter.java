@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * Writes named PathData into the binary bundle format that is read by PathBundle.
+ * This is meant to be used at build time, so that an application can load its
+ * paths at startup without parsing any svg path strings.
+ *
+ * Format (big endian):
+ * int    magic 'SVGP'
+ * short  version
+ * short  flags (bit 0: coordinates are stored as float)
+ * int    number of entries
+ * entry index, for each entry:
+ *   short  length of the UTF-8 encoded name
+ *   byte[] name
+ *   int    offset of the entry data from the start of the bundle
+ *   int    number of opcodes
+ *   int    number of coordinates
+ * entry data, for each entry:
+ *   byte[]   opcodes (PathData opcodes including the arc flags)
+ *   double[] or float[] absolute coordinates
+ */
+public class PathBundleWriter {
+    static final int   MAGIC       = 0x53564750;
+    static final short VERSION     = 1;
+    static final short FLOAT_FLAG  = 0x01;
+    static final int   HEADER_SIZE = 12;
+
+    private final PathData.Precision    precision;
+    private final Map<String, PathData> entries;
+
+
+    // ******************** Constructors **************************************
+    public PathBundleWriter() {
+        this(PathData.Precision.DOUBLE);
+    }
+
+    /**
+     * @param precision precision of the stored coordinates
+     */
+    public PathBundleWriter(final PathData.Precision precision) {
+        this.precision = precision;
+        this.entries   = new LinkedHashMap<>();
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Adds the given PathData, an existing entry with the same name will be replaced.
+     * @param name unique name of the path (max. 65535 UTF-8 bytes)
+     * @param pathData the path
+     * @return this writer
+     */
+    public PathBundleWriter add(final String name, final PathData pathData) {
+        if (name.getBytes(StandardCharsets.UTF_8).length > 0xFFFF) { throw new IllegalArgumentException("Name too long: " + name); }
+        entries.put(name, pathData);
+        return this;
+    }
+
+    /**
+     * Converts the given svg path string and adds it
+     * @param name unique name of the path (max. 65535 UTF-8 bytes)
+     * @param svgPathString svg path string (raw or formatted)
+     * @return this writer
+     * @throws IllegalArgumentException if the svg path string is malformed
+     */
+    public PathBundleWriter add(final String name, final String svgPathString) {
+        return add(name, SVGPathConverter.INSTANCE.convertToPathData(svgPathString, precision));
+    }
+
+    public int size() { return entries.size(); }
+
+    public void write(final Path file) throws IOException {
+        try (OutputStream outputStream = Files.newOutputStream(file)) { write(outputStream); }
+    }
+
+    /**
+     * Writes the bundle to the given stream, the stream is not closed.
+     * @param outputStream stream the bundle will be written to
+     * @throws IOException if writing fails
+     */
+    public void write(final OutputStream outputStream) throws IOException {
+        final boolean             floats = PathData.Precision.FLOAT == precision;
+        final Map<String, byte[]> names  = new LinkedHashMap<>();
+        long indexSize = 0;
+        for (String name : entries.keySet()) {
+            final byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            names.put(name, bytes);
+            indexSize += 2 + bytes.length + 12;
+        }
+
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeShort(floats ? FLOAT_FLAG : 0);
+        out.writeInt(entries.size());
+
+        long offset = HEADER_SIZE + indexSize;
+        for (Map.Entry<String, PathData> entry : entries.entrySet()) {
+            final byte[]   name     = names.get(entry.getKey());
+            final PathData pathData = entry.getValue();
+            final long     end      = offset + pathData.size() + (long) pathData.getCoordinateCount() * (floats ? Float.BYTES : Double.BYTES);
+            // PathBundle addresses the data with int offsets, so the end of the last entry has to fit into an int
+            if (end > Integer.MAX_VALUE) { throw new IOException("Bundle exceeds 2 GB"); }
+            out.writeShort(name.length);
+            out.write(name);
+            out.writeInt((int) offset);
+            out.writeInt(pathData.size());
+            out.writeInt(pathData.getCoordinateCount());
+            offset = end;
+        }
+
+        for (PathData pathData : entries.values()) {
+            for (int i = 0 ; i < pathData.size() ; i++) { out.writeByte(pathData.getOpcode(i)); }
+            for (int i = 0 ; i < pathData.getCoordinateCount() ; i++) {
+                if (floats) {
+                    out.writeFloat((float) pathData.getCoordinate(i));
+                } else {
+                    out.writeDouble(pathData.getCoordinate(i));
+                }
+            }
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+
+/**
+ * Generates Java source code with precompiled path constants, so that an application
+ * doesn't have to parse any svg path strings at runtime.
+ * The generated class contains the opcodes and absolute coordinates of each path as
+ * static final primitive arrays and a factory method per path that returns a new
+ * javafx.scene.shape.Path. Each array lives in its own nested holder class, so the arrays
+ * are only initialized when the path is used for the first time and no class initializer
+ * hits the 64 KB method size limit of the JVM.
+ * The generated code only depends on JavaFX, not on this library.
+ *
+ * Usage: PathCodeGenerator [--float] fully.qualified.ClassName outputDirectory inputs...
+ * Inputs can be .properties files (name=svg path string), .svg files and directories with .svg files.
+ */
+public final class PathCodeGenerator {
+    private static final int         MAX_ARRAY_LENGTH = 6000;
+    private static final int         VALUES_PER_LINE  = 12;
+    // Java keywords, the methods of java.lang.Object and the helper method of the generated class
+    private static final Set<String> RESERVED_NAMES   = Set.of("abstract", "assert", "boolean", "break", "byte", "case", "catch", "char", "class", "const", "continue",
+                                                               "default", "do", "double", "else", "enum", "extends", "final", "finally", "float", "for", "goto", "if",
+                                                               "implements", "import", "instanceof", "int", "interface", "long", "native", "new", "package", "private",
+                                                               "protected", "public", "return", "short", "static", "strictfp", "super", "switch", "synchronized", "this",
+                                                               "throw", "throws", "transient", "try", "void", "volatile", "while", "true", "false", "null", "var",
+                                                               "record", "yield", "sealed", "permits", "clone", "equals", "finalize", "getClass",
+                                                               "hashCode", "notify", "notifyAll", "toString", "wait", "createPath");
+    // Simple names imported by the generated class, a class with one of these names would shadow the import
+    private static final Set<String> IMPORTED_NAMES   = Set.of("ArcTo", "ClosePath", "CubicCurveTo", "LineTo", "MoveTo", "Path", "PathElement", "QuadCurveTo", "ArrayList", "List");
+
+    private final String             className;
+    private final PathData.Precision precision;
+
+
+    // ******************** Constructors **************************************
+    /**
+     * @param className fully qualified name of the generated class (the simple name must not be one of the JavaFX or java.util classes the generated code imports)
+     * @param precision precision of the generated coordinate arrays
+     */
+    public PathCodeGenerator(final String className, final PathData.Precision precision) {
+        if (!className.matches("([a-zA-Z_$][\\w$]*\\.)*[a-zA-Z_$][\\w$]*")) { throw new IllegalArgumentException("Invalid class name " + className); }
+        if (IMPORTED_NAMES.contains(className.substring(className.lastIndexOf('.') + 1))) { throw new IllegalArgumentException("Class name " + className + " clashes with a class used by the generated code"); }
+        this.className = className;
+        this.precision = precision;
+    }
+
+
+    // ******************** Methods *******************************************
+    public static void main(final String[] args) throws IOException {
+        final List<String> arguments = new ArrayList<>(List.of(args));
+        final boolean      floats    = arguments.remove("--float");
+        if (arguments.size() < 3) {
+            System.err.println("Usage: PathCodeGenerator [--float] fully.qualified.ClassName outputDirectory inputs...");
+            System.exit(2);
+        }
+        final Map<String, PathData> paths = new TreeMap<>();
+        for (String input : arguments.subList(2, arguments.size())) {
+            readPaths(Path.of(input)).forEach((name, pathData) -> {
+                if (null != paths.putIfAbsent(name, pathData)) { throw new IllegalArgumentException("Duplicate path name " + name + " in " + input); }
+            });
+        }
+        final PathCodeGenerator generator = new PathCodeGenerator(arguments.get(0), floats ? PathData.Precision.FLOAT : PathData.Precision.DOUBLE);
+        final Path              file      = generator.write(paths, Path.of(arguments.get(1)));
+        System.out.println("Generated " + file + " with " + paths.size() + " paths");
+    }
+
+    /**
+     * Reads named svg paths from a .properties file (name=svg path string) or from .svg files.
+     * For svg files the name is the file name without extension followed by the id of the path element.
+     * @param input .properties file, .svg file or directory with .svg files
+     * @return paths by name
+     * @throws IOException if the input can't be read
+     * @throws IllegalArgumentException if a path is malformed or if two svg files in different directories
+     *                                  have the same name and contain paths with the same id
+     */
+    public static Map<String, PathData> readPaths(final Path input) throws IOException {
+        final Map<String, PathData> paths = new TreeMap<>();
+        if (input.getFileName().toString().endsWith(".properties")) {
+            final Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) { properties.load(reader); }
+            for (String name : properties.stringPropertyNames()) {
+                try {
+                    paths.put(name, SVGPathConverter.INSTANCE.convertToPathData(properties.getProperty(name)));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(input + ": " + name + ": " + e.getMessage(), e);
+                }
+            }
+        } else {
+            final SVGFileScanner.Result result = SVGFileScanner.scan(input);
+            if (result.hasErrors()) {
+                final Map.Entry<String, Exception> error = result.errors().entrySet().iterator().next();
+                throw new IllegalArgumentException(error.getKey() + ": " + error.getValue().getMessage(), error.getValue());
+            }
+            final Map<String, String> keys = new TreeMap<>();
+            result.paths().forEach((key, pathData) -> {
+                final String file = Path.of(key.substring(0, key.lastIndexOf('#'))).getFileName().toString();
+                final String name = stripSvgExtension(file) + "-" + key.substring(key.lastIndexOf('#') + 1);
+                final String existing = keys.putIfAbsent(name, key);
+                if (null != existing) { throw new IllegalArgumentException("Duplicate path name " + name + " for " + existing + " and " + key); }
+                paths.put(name, pathData);
+            });
+        }
+        return paths;
+    }
+
+    /**
+     * Writes the generated class into the package directory below the given source directory
+     * @param paths paths by name, the names will be converted to Java method names
+     * @param sourceDirectory root directory of the generated sources
+     * @return the generated file
+     * @throws IOException if the file can't be written
+     */
+    public Path write(final Map<String, PathData> paths, final Path sourceDirectory) throws IOException {
+        final int  index     = className.lastIndexOf('.');
+        final Path directory = index < 0 ? sourceDirectory : sourceDirectory.resolve(className.substring(0, index).replace('.', '/'));
+        Files.createDirectories(directory);
+        final Path file = directory.resolve(className.substring(index + 1) + ".java");
+        Files.writeString(file, generate(paths), StandardCharsets.UTF_8);
+        return file;
+    }
+
+    /**
+     * @param paths paths by name, the names will be converted to Java method names
+     * @return the Java source code of the generated class
+     * @throws IllegalArgumentException if a path is too large for a class initializer
+     */
+    public String generate(final Map<String, PathData> paths) {
+        final int           index          = className.lastIndexOf('.');
+        final String        simpleName     = className.substring(index + 1);
+        final String        coordinateType = PathData.Precision.FLOAT == precision ? "float" : "double";
+        final StringBuilder code           = new StringBuilder();
+        final StringBuilder holders        = new StringBuilder();
+        final Set<String>   methodNames    = new HashSet<>();
+        final Set<String>   holderNames    = new HashSet<>(Set.of(simpleName));
+
+        code.append("/*\n * Generated by ").append(PathCodeGenerator.class.getName()).append(", do not edit.\n */\n\n");
+        if (index > 0) { code.append("package ").append(className, 0, index).append(";\n\n"); }
+        code.append("""
+            import javafx.scene.shape.ArcTo;
+            import javafx.scene.shape.ClosePath;
+            import javafx.scene.shape.CubicCurveTo;
+            import javafx.scene.shape.LineTo;
+            import javafx.scene.shape.MoveTo;
+            import javafx.scene.shape.Path;
+            import javafx.scene.shape.PathElement;
+            import javafx.scene.shape.QuadCurveTo;
+
+            import java.util.ArrayList;
+            import java.util.List;
+
+
+            """);
+        code.append("public final class ").append(simpleName).append(" {\n");
+        code.append("    private ").append(simpleName).append("() {}\n\n\n");
+
+        for (Map.Entry<String, PathData> entry : paths.entrySet()) {
+            final PathData pathData = entry.getValue();
+            if (pathData.size() > MAX_ARRAY_LENGTH || pathData.getCoordinateCount() > MAX_ARRAY_LENGTH) {
+                throw new IllegalArgumentException("Path " + entry.getKey() + " has more than " + MAX_ARRAY_LENGTH + " segments or coordinates, use a PathBundle instead");
+            }
+            final String methodName = uniqueName(toIdentifier(entry.getKey()), methodNames);
+            // Nested classes must not have the name of the generated class or of another holder
+            final String prefix           = Character.toUpperCase(methodName.charAt(0)) + methodName.substring(1);
+            final String opcodeHolder     = uniqueName(prefix + "Opcodes", holderNames);
+            final String coordinateHolder = uniqueName(prefix + "Coordinates", holderNames);
+            code.append("    /**\n     * @return new Path for ").append(entry.getKey().replace("*/", "* /")).append("\n     */\n");
+            code.append("    public static Path ").append(methodName).append("() { return createPath(")
+                .append(opcodeHolder).append(".VALUES, ").append(coordinateHolder).append(".VALUES); }\n\n");
+
+            holders.append("    private static final class ").append(opcodeHolder).append(" {\n");
+            holders.append("        static final byte[] VALUES = {");
+            for (int i = 0 ; i < pathData.size() ; i++) {
+                holders.append(i % VALUES_PER_LINE == 0 ? "\n            " : " ").append(pathData.getOpcode(i)).append(',');
+            }
+            holders.append("\n        };\n    }\n\n");
+            holders.append("    private static final class ").append(coordinateHolder).append(" {\n");
+            holders.append("        static final ").append(coordinateType).append("[] VALUES = {");
+            for (int i = 0 ; i < pathData.getCoordinateCount() ; i++) {
+                // Values beyond the float range would be written as Infinityf in float precision
+                final double value = pathData.getCoordinate(i);
+                if (PathData.Precision.FLOAT == precision ? !Float.isFinite((float) value) : !Double.isFinite(value)) {
+                    throw new IllegalArgumentException("Path " + entry.getKey() + " contains a non finite coordinate");
+                }
+                holders.append(i % VALUES_PER_LINE == 0 ? "\n            " : " ");
+                if (PathData.Precision.FLOAT == precision) {
+                    holders.append((float) value).append('f');
+                } else {
+                    holders.append(value);
+                }
+                holders.append(',');
+            }
+            holders.append("\n        };\n    }\n\n");
+        }
+
+        code.append("    private static Path createPath(final byte[] opcodes, final ").append(coordinateType).append("[] c) {\n");
+        code.append("""
+                    final List<PathElement> elements = new ArrayList<>(opcodes.length);
+                    int i = 0;
+                    for (byte opcode : opcodes) {
+                        switch (opcode & 0x0F) {
+                            case 0 -> { elements.add(new MoveTo(c[i], c[i + 1])); i += 2; }
+                            case 1 -> { elements.add(new LineTo(c[i], c[i + 1])); i += 2; }
+                            case 2 -> { elements.add(new QuadCurveTo(c[i], c[i + 1], c[i + 2], c[i + 3])); i += 4; }
+                            case 3 -> { elements.add(new CubicCurveTo(c[i], c[i + 1], c[i + 2], c[i + 3], c[i + 4], c[i + 5])); i += 6; }
+                            case 4 -> { elements.add(new ArcTo(c[i], c[i + 1], c[i + 2], c[i + 3], c[i + 4], (opcode & 0x10) != 0, (opcode & 0x20) != 0)); i += 5; }
+                            default -> elements.add(new ClosePath());
+                        }
+                    }
+                    return new Path(elements);
+                }
+
+
+                // ******************** Path data (each holder is initialized on first use) *****
+            """);
+        // Without paths there is no holder and no blank line to remove
+        if (holders.length() > 0) { holders.setLength(holders.length() - 1); }
+        code.append(holders);
+        code.append("}\n");
+        return code.toString();
+    }
+
+    /**
+     * Converts names like "icon-home_24" or "arrow/left.svg" into lower camel case identifiers ("iconHome24", "arrowLeftSvg")
+     */
+    static String toIdentifier(final String name) {
+        final StringBuilder identifier = new StringBuilder();
+        boolean upper = false;
+        for (int i = 0 ; i < name.length() ; i++) {
+            final char c = name.charAt(i);
+            if (c < 128 && Character.isLetterOrDigit(c)) {
+                identifier.append(identifier.length() == 0 ? Character.toLowerCase(c) : upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            } else {
+                upper = identifier.length() > 0;
+            }
+        }
+        if (identifier.length() == 0 || Character.isDigit(identifier.charAt(0))) { identifier.insert(0, "path"); }
+        final String result = identifier.toString();
+        return RESERVED_NAMES.contains(result) ? result + "Path" : result;
+    }
+
+    /**
+     * Removes the .svg extension (in any case) the SVGFileScanner uses to find svg files, other file names are kept
+     */
+    private static String stripSvgExtension(final String fileName) {
+        return fileName.toLowerCase(Locale.ROOT).endsWith(".svg") ? fileName.substring(0, fileName.length() - ".svg".length()) : fileName;
+    }
+
+    /**
+     * @return the given name or the name with the smallest number suffix (2, 3, ...) that is not in the given names, which is added to the names
+     */
+    static String uniqueName(final String name, final Set<String> names) {
+        String result = name;
+        for (int i = 2 ; !names.add(result) ; i++) { result = name + i; }
+        return result;
+    }
+}
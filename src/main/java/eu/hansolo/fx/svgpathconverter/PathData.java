@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+import javafx.scene.shape.Path;
+import javafx.scene.shape.PathElement;
+import javafx.scene.shape.SVGPath;
+
+import java.awt.geom.Path2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Immutable, compact representation of a converted svg path.
+ * The commands are stored as opcodes in a byte[] and all coordinates, already resolved
+ * to absolute values, in one packed double[] (or float[]).
+ * Arcs store radiusX, radiusY, xAxisRotation, x, y as coordinates and their
+ * large arc and sweep flags in the upper bits of the opcode.
+ * JavaFX objects are only created on demand by toPathElements(), toPath() and toSVGPath().
+ */
+public final class PathData {
+    public static final byte MOVE_TO        = 0;
+    public static final byte LINE_TO        = 1;
+    public static final byte QUAD_TO        = 2;
+    public static final byte CUBIC_TO       = 3;
+    public static final byte ARC_TO         = 4;
+    public static final byte CLOSE_PATH     = 5;
+    public static final byte OPCODE_MASK    = 0x0F;
+    public static final byte LARGE_ARC_FLAG = 0x10;
+    public static final byte SWEEP_FLAG     = 0x20;
+    public enum Precision { DOUBLE, FLOAT }
+
+    private final byte[]   opcodes;
+    private final double[] coordinates;
+    private final float[]  floatCoordinates;
+    private final int      hash;
+
+
+    // ******************** Constructors **************************************
+    private PathData(final byte[] opcodes, final double[] coordinates, final float[] floatCoordinates) {
+        this.opcodes          = opcodes;
+        this.coordinates      = coordinates;
+        this.floatCoordinates = floatCoordinates;
+        this.hash             = 31 * Arrays.hashCode(opcodes) + (null == coordinates ? Arrays.hashCode(floatCoordinates) : Arrays.hashCode(coordinates));
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Creates a PathData from the given opcodes and absolute coordinates, both arrays will be copied.
+     * @param opcodes opcodes (MOVE_TO, LINE_TO, QUAD_TO, CUBIC_TO, ARC_TO combined with the arc flags, CLOSE_PATH)
+     * @param coordinates absolute coordinates of all opcodes
+     * @return PathData
+     * @throws IllegalArgumentException if the number of coordinates doesn't match the opcodes
+     */
+    public static PathData of(final byte[] opcodes, final double[] coordinates) {
+        validate(opcodes, coordinates.length);
+        return new PathData(opcodes.clone(), coordinates.clone(), null);
+    }
+
+    /**
+     * Creates a PathData with float precision from the given opcodes and absolute coordinates, both arrays will be copied.
+     * @param opcodes opcodes (MOVE_TO, LINE_TO, QUAD_TO, CUBIC_TO, ARC_TO combined with the arc flags, CLOSE_PATH)
+     * @param coordinates absolute coordinates of all opcodes
+     * @return PathData
+     * @throws IllegalArgumentException if the number of coordinates doesn't match the opcodes
+     */
+    public static PathData of(final byte[] opcodes, final float[] coordinates) {
+        validate(opcodes, coordinates.length);
+        return new PathData(opcodes.clone(), null, coordinates.clone());
+    }
+
+    /**
+     * Creates a PathData that uses the given arrays without copying them, the caller must not modify them afterwards.
+     */
+    static PathData wrap(final byte[] opcodes, final double[] coordinates) {
+        validate(opcodes, coordinates.length);
+        return new PathData(opcodes, coordinates, null);
+    }
+
+    /**
+     * Creates a PathData that uses the given arrays without copying them, the caller must not modify them afterwards.
+     */
+    static PathData wrap(final byte[] opcodes, final float[] coordinates) {
+        validate(opcodes, coordinates.length);
+        return new PathData(opcodes, null, coordinates);
+    }
+
+    /**
+     * @param opcode opcode (flags will be ignored)
+     * @return the number of coordinates that belong to the given opcode
+     */
+    public static int coordinateCount(final byte opcode) {
+        return switch (opcode & OPCODE_MASK) {
+            case MOVE_TO, LINE_TO -> 2;
+            case QUAD_TO          -> 4;
+            case CUBIC_TO         -> 6;
+            case ARC_TO           -> 5;
+            case CLOSE_PATH       -> 0;
+            default               -> throw new IllegalArgumentException("Unknown opcode " + opcode);
+        };
+    }
+
+    /**
+     * @return the number of opcodes
+     */
+    public int size() { return opcodes.length; }
+
+    public byte getOpcode(final int index) { return opcodes[index]; }
+
+    public byte[] getOpcodes() { return opcodes.clone(); }
+
+    /**
+     * @return the number of coordinates of all opcodes
+     */
+    public int getCoordinateCount() { return null == coordinates ? floatCoordinates.length : coordinates.length; }
+
+    public double getCoordinate(final int index) { return null == coordinates ? floatCoordinates[index] : coordinates[index]; }
+
+    /**
+     * @return a copy of the coordinates, widened to double if the precision is FLOAT
+     */
+    public double[] getCoordinates() {
+        if (null != coordinates) { return coordinates.clone(); }
+        final double[] copy = new double[floatCoordinates.length];
+        for (int i = 0 ; i < copy.length ; i++) { copy[i] = floatCoordinates[i]; }
+        return copy;
+    }
+
+    public Precision getPrecision() { return null == coordinates ? Precision.FLOAT : Precision.DOUBLE; }
+
+    /**
+     * @param precision the precision of the returned PathData
+     * @return this if it already has the given precision, otherwise a copy with the given precision
+     */
+    public PathData withPrecision(final Precision precision) {
+        if (getPrecision() == precision) { return this; }
+        if (Precision.DOUBLE == precision) { return new PathData(opcodes, getCoordinates(), null); }
+        final float[] copy = new float[coordinates.length];
+        for (int i = 0 ; i < copy.length ; i++) { copy[i] = (float) coordinates[i]; }
+        return new PathData(opcodes, null, copy);
+    }
+
+    /**
+     * Returns a copy of this path with the given affine transform applied to all coordinates
+     * (matrix layout as in javafx.scene.transform.Affine). Paths without arcs are transformed as
+     * one packed coordinate array with CoordinateTransform, arcs are transformed with a TransformHandler.
+     * @return transformed copy with the same precision
+     */
+    public PathData transform(final double mxx, final double mxy, final double tx, final double myx, final double myy, final double ty) {
+        boolean hasArcs = false;
+        for (byte opcode : opcodes) { hasArcs |= (opcode & OPCODE_MASK) == ARC_TO; }
+        if (hasArcs) {
+            final Builder builder = new Builder();
+            replay(new TransformHandler(builder, mxx, mxy, tx, myx, myy, ty));
+            return builder.build(getPrecision());
+        }
+        final double[] transformed = getCoordinates();
+        CoordinateTransform.transform(transformed, 0, transformed.length / 2, mxx, mxy, tx, myx, myy, ty);
+        return new PathData(opcodes, transformed, null).withPrecision(getPrecision());
+    }
+
+    /**
+     * Passes all segments with their absolute coordinates to the given handler
+     * @param handler handler that receives the segments
+     */
+    public void replay(final PathHandler handler) {
+        int c = 0;
+        for (byte opcode : opcodes) {
+            switch (opcode & OPCODE_MASK) {
+                case MOVE_TO    -> handler.moveTo(getCoordinate(c), getCoordinate(c + 1));
+                case LINE_TO    -> handler.lineTo(getCoordinate(c), getCoordinate(c + 1));
+                case QUAD_TO    -> handler.quadTo(getCoordinate(c), getCoordinate(c + 1), getCoordinate(c + 2), getCoordinate(c + 3));
+                case CUBIC_TO   -> handler.cubicTo(getCoordinate(c), getCoordinate(c + 1), getCoordinate(c + 2), getCoordinate(c + 3), getCoordinate(c + 4), getCoordinate(c + 5));
+                case ARC_TO     -> handler.arcTo(getCoordinate(c), getCoordinate(c + 1), getCoordinate(c + 2), (opcode & LARGE_ARC_FLAG) != 0, (opcode & SWEEP_FLAG) != 0,
+                                                 getCoordinate(c + 3), getCoordinate(c + 4));
+                case CLOSE_PATH -> handler.closePath();
+            }
+            c += coordinateCount(opcode);
+        }
+    }
+
+    /**
+     * @return new JavaFX PathElements with absolute coordinates, each call returns new instances
+     */
+    public List<PathElement> toPathElements() {
+        final PathElementHandler handler = new PathElementHandler(new ArrayList<>(opcodes.length));
+        replay(handler);
+        return handler.getElements();
+    }
+
+    /**
+     * @return a new JavaFX Path that contains new PathElements
+     */
+    public Path toPath() { return new Path(toPathElements()); }
+
+    /**
+     * @return a new JavaFX SVGPath with the normalized absolute svg path string as content
+     */
+    public SVGPath toSVGPath() {
+        final SVGPath svgPath = new SVGPath();
+        svgPath.setContent(toSVGString());
+        return svgPath;
+    }
+
+    /**
+     * @return new java.awt.geom.Path2D.Double with the segments of this path (arcs are approximated by cubic curves)
+     */
+    public Path2D.Double toPath2D() {
+        final Path2DHandler handler = new Path2DHandler();
+        replay(handler);
+        return handler.getPath();
+    }
+
+    /**
+     * @return normalized svg path string with absolute coordinates (e.g. "M1,2L3,4Z")
+     */
+    public String toSVGString() {
+        final SVGStringHandler handler = new SVGStringHandler(new StringBuilder(getCoordinateCount() * 8));
+        replay(handler);
+        return handler.toString();
+    }
+
+    /**
+     * @return geometry index of this path for bounds queries and hit testing
+     */
+    public PathGeometry toGeometry() { return PathGeometry.of(this); }
+
+    private static void validate(final byte[] opcodes, final int noOfCoordinates) {
+        int count = 0;
+        for (byte opcode : opcodes) { count += coordinateCount(opcode); }
+        if (count != noOfCoordinates) { throw new IllegalArgumentException("Opcodes require " + count + " coordinates but " + noOfCoordinates + " were given"); }
+    }
+
+    @Override public boolean equals(final Object o) {
+        if (this == o) { return true; }
+        if (!(o instanceof PathData other)) { return false; }
+        return hash == other.hash && Arrays.equals(opcodes, other.opcodes) && Arrays.equals(coordinates, other.coordinates) && Arrays.equals(floatCoordinates, other.floatCoordinates);
+    }
+
+    @Override public int hashCode() { return hash; }
+
+    @Override public String toString() { return toSVGString(); }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * PathHandler that collects opcodes and absolute coordinates in growing arrays.
+     * Not thread safe, use one builder per path.
+     */
+    public static final class Builder implements PathHandler {
+        private byte[]   opcodes     = new byte[16];
+        private double[] coordinates = new double[64];
+        private int      opcodeCount;
+        private int      coordinateCount;
+
+
+        @Override public void moveTo(final double x, final double y) {
+            add(MOVE_TO, 2);
+            coordinates[coordinateCount++] = x;
+            coordinates[coordinateCount++] = y;
+        }
+
+        @Override public void lineTo(final double x, final double y) {
+            add(LINE_TO, 2);
+            coordinates[coordinateCount++] = x;
+            coordinates[coordinateCount++] = y;
+        }
+
+        @Override public void quadTo(final double controlX, final double controlY, final double x, final double y) {
+            add(QUAD_TO, 4);
+            coordinates[coordinateCount++] = controlX;
+            coordinates[coordinateCount++] = controlY;
+            coordinates[coordinateCount++] = x;
+            coordinates[coordinateCount++] = y;
+        }
+
+        @Override public void cubicTo(final double controlX1, final double controlY1, final double controlX2, final double controlY2, final double x, final double y) {
+            add(CUBIC_TO, 6);
+            coordinates[coordinateCount++] = controlX1;
+            coordinates[coordinateCount++] = controlY1;
+            coordinates[coordinateCount++] = controlX2;
+            coordinates[coordinateCount++] = controlY2;
+            coordinates[coordinateCount++] = x;
+            coordinates[coordinateCount++] = y;
+        }
+
+        @Override public void arcTo(final double radiusX, final double radiusY, final double xAxisRotation, final boolean largeArcFlag, final boolean sweepFlag, final double x, final double y) {
+            add((byte) (ARC_TO | (largeArcFlag ? LARGE_ARC_FLAG : 0) | (sweepFlag ? SWEEP_FLAG : 0)), 5);
+            coordinates[coordinateCount++] = radiusX;
+            coordinates[coordinateCount++] = radiusY;
+            coordinates[coordinateCount++] = xAxisRotation;
+            coordinates[coordinateCount++] = x;
+            coordinates[coordinateCount++] = y;
+        }
+
+        @Override public void closePath() {
+            add(CLOSE_PATH, 0);
+        }
+
+        public PathData build() { return build(Precision.DOUBLE); }
+
+        public PathData build(final Precision precision) {
+            final byte[] ops = Arrays.copyOf(opcodes, opcodeCount);
+            if (Precision.DOUBLE == precision) { return new PathData(ops, Arrays.copyOf(coordinates, coordinateCount), null); }
+            final float[] floats = new float[coordinateCount];
+            for (int i = 0 ; i < coordinateCount ; i++) { floats[i] = (float) coordinates[i]; }
+            return new PathData(ops, null, floats);
+        }
+
+        private void add(final byte opcode, final int noOfCoordinates) {
+            if (opcodeCount == opcodes.length) { opcodes = Arrays.copyOf(opcodes, opcodeCount * 2); }
+            if (coordinateCount + noOfCoordinates > coordinates.length) { coordinates = Arrays.copyOf(coordinates, Math.max(coordinates.length * 2, coordinateCount + noOfCoordinates)); }
+            opcodes[opcodeCount++] = opcode;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+import javafx.scene.shape.ArcTo;
+import javafx.scene.shape.ClosePath;
+import javafx.scene.shape.CubicCurveTo;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.PathElement;
+import javafx.scene.shape.QuadCurveTo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * PathHandler that creates a JavaFX PathElement for each segment.
+ */
+public class PathElementHandler implements PathHandler {
+    private final List<PathElement> elements;
+
+
+    // ******************** Constructors **************************************
+    public PathElementHandler() {
+        this(new ArrayList<>());
+    }
+
+    /**
+     * @param elements list the created PathElements will be added to (e.g. the elements of an existing Path)
+     */
+    public PathElementHandler(final List<PathElement> elements) {
+        this.elements = elements;
+    }
+
+
+    // ******************** Methods *******************************************
+    @Override public void moveTo(final double x, final double y) { elements.add(new MoveTo(x, y)); }
+
+    @Override public void lineTo(final double x, final double y) { elements.add(new LineTo(x, y)); }
+
+    @Override public void quadTo(final double controlX, final double controlY, final double x, final double y) {
+        elements.add(new QuadCurveTo(controlX, controlY, x, y));
+    }
+
+    @Override public void cubicTo(final double controlX1, final double controlY1, final double controlX2, final double controlY2, final double x, final double y) {
+        elements.add(new CubicCurveTo(controlX1, controlY1, controlX2, controlY2, x, y));
+    }
+
+    @Override public void arcTo(final double radiusX, final double radiusY, final double xAxisRotation, final boolean largeArcFlag, final boolean sweepFlag, final double x, final double y) {
+        elements.add(new ArcTo(radiusX, radiusY, xAxisRotation, x, y, largeArcFlag, sweepFlag));
+    }
+
+    @Override public void closePath() { elements.add(new ClosePath()); }
+
+    public List<PathElement> getElements() { return elements; }
+}
@@ -0,0 +1,668 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+
+
+/**
+ * Precomputed geometry of a path for fast bounds queries and hit testing without JavaFX.
+ * - tight bounds of the whole path, of each subpath and of each element, computed analytically
+ *   from the end points and the extrema of quadratic and cubic curves and elliptical arcs
+ * - a bounding volume hierarchy over the flattened outline (curves and arcs are split into
+ *   lines within the flatness), used by contains(), intersects() and nearestSegment()
+ * Element indices are the indices of the PathData (and of the converted PathElements).
+ * Instances are immutable and thread safe.
+ */
+public final class PathGeometry {
+    private static final double FLATNESS_FACTOR  = 1e-3;
+    private static final int    LEAF_SIZE        = 4;
+    private static final int    MAX_SUBDIVISIONS = 256;
+
+    private final double[] bounds;
+    private final double[] elementBounds;
+    private final double[] subpathBounds;
+    private final double[] edges;
+    private final int[]    edgeElements;
+    private final double[] nodeBounds;
+    private final int[]    nodeRight;
+    private final int[]    nodeStart;
+    private final int[]    nodeCount;
+    private final double   flatness;
+
+    public enum WindingRule { NON_ZERO, EVEN_ODD }
+
+    /**
+     * @param elementIndex index of the nearest element
+     * @param distance distance of the query point to the element
+     * @param x x coordinate of the nearest point on the (flattened) element
+     * @param y y coordinate of the nearest point on the (flattened) element
+     */
+    public record NearestSegment(int elementIndex, double distance, double x, double y) { }
+
+
+    // ******************** Constructors **************************************
+    private PathGeometry(final PathData pathData, final double flatness) {
+        final Outline outline = new Outline(pathData.size());
+        computeBounds(pathData, outline);
+        this.bounds        = outline.bounds;
+        this.elementBounds = outline.elementBounds;
+        this.subpathBounds = Arrays.copyOf(outline.subpathBounds, outline.subpathCount * 4);
+        this.flatness      = flatness > 0 ? flatness : Math.max(Math.max(bounds[2] - bounds[0], bounds[3] - bounds[1]) * FLATNESS_FACTOR, 1e-9);
+
+        flatten(pathData, outline, this.flatness);
+        final int   edgeCount = outline.edgeCount;
+        final int[] order     = new int[edgeCount];
+        for (int i = 0 ; i < edgeCount ; i++) { order[i] = i; }
+        // Leaves hold at least LEAF_SIZE / 2 edges, so a tree over n edges has less than n nodes
+        final int maxNodes = Math.max(1, edgeCount);
+        final double[] nodeBounds = new double[maxNodes * 4];
+        final int[]    nodeRight  = new int[maxNodes];
+        final int[]    nodeStart  = new int[maxNodes];
+        final int[]    nodeCount  = new int[maxNodes];
+        final int      nodes      = edgeCount == 0 ? 0 : buildNode(outline.edges, order, 0, edgeCount, 0, nodeBounds, nodeRight, nodeStart, nodeCount);
+        this.nodeBounds = Arrays.copyOf(nodeBounds, nodes * 4);
+        this.nodeRight  = Arrays.copyOf(nodeRight, nodes);
+        this.nodeStart  = Arrays.copyOf(nodeStart, nodes);
+        this.nodeCount  = Arrays.copyOf(nodeCount, nodes);
+
+        // Store the edges in leaf order so that each leaf reads a contiguous range
+        this.edges        = new double[edgeCount * 4];
+        this.edgeElements = new int[edgeCount];
+        for (int i = 0 ; i < edgeCount ; i++) {
+            System.arraycopy(outline.edges, order[i] * 4, edges, i * 4, 4);
+            edgeElements[i] = outline.edgeElements[order[i]];
+        }
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * @param pathData the path
+     * @return geometry with a flatness of 1/1000 of the larger side of the path bounds
+     */
+    public static PathGeometry of(final PathData pathData) { return new PathGeometry(pathData, 0); }
+
+    /**
+     * @param pathData the path
+     * @param flatness max. distance between the curves and the lines that are used for the hit tests
+     * @return geometry of the given path
+     */
+    public static PathGeometry of(final PathData pathData, final double flatness) {
+        if (!(flatness > 0)) { throw new IllegalArgumentException("Flatness must be > 0"); }
+        return new PathGeometry(pathData, flatness);
+    }
+
+    public double getFlatness() { return flatness; }
+
+    /**
+     * @return tight bounds of the path (empty at 0,0 for an empty path)
+     */
+    public Rectangle2D.Double getBounds() { return toRectangle(bounds, 0); }
+
+    public int getSubpathCount() { return subpathBounds.length / 4; }
+
+    /**
+     * @param subpathIndex index of the subpath (each moveto starts a new subpath)
+     * @return tight bounds of the subpath
+     */
+    public Rectangle2D.Double getSubpathBounds(final int subpathIndex) { return toRectangle(subpathBounds, subpathIndex * 4); }
+
+    /**
+     * @param elementIndex index of the element in the path
+     * @return tight bounds of the element including its start point, null for a moveto
+     */
+    public Rectangle2D.Double getElementBounds(final int elementIndex) {
+        return Double.isNaN(elementBounds[elementIndex * 4]) ? null : toRectangle(elementBounds, elementIndex * 4);
+    }
+
+    /**
+     * Tests if the point is inside the filled path using the non zero winding rule (the default of JavaFX shapes)
+     */
+    public boolean contains(final double x, final double y) { return contains(x, y, WindingRule.NON_ZERO); }
+
+    /**
+     * Tests if the point is inside the filled path, open subpaths are closed implicitly like in a fill
+     * @param x x coordinate of the point
+     * @param y y coordinate of the point
+     * @param windingRule the fill rule of the path
+     * @return true if the point is inside
+     */
+    public boolean contains(final double x, final double y, final WindingRule windingRule) {
+        if (edges.length == 0 || !(x >= bounds[0] && x <= bounds[2] && y >= bounds[1] && y <= bounds[3])) { return false; }
+        final int winding = winding(x, y);
+        return WindingRule.NON_ZERO == windingRule ? winding != 0 : (winding & 1) != 0;
+    }
+
+    /**
+     * Tests if the interior or the outline of the filled path intersects the given rectangle (non zero winding rule)
+     * @return true if the path and the rectangle overlap
+     */
+    public boolean intersects(final double x, final double y, final double width, final double height) {
+        if (width < 0 || height < 0 || x > bounds[2] || y > bounds[3] || x + width < bounds[0] || y + height < bounds[1] || edges.length == 0) { return false; }
+        final Rectangle2D.Double rect  = new Rectangle2D.Double(x, y, width, height);
+        final int[]              stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            final int node = stack[--top];
+            final int b    = node * 4;
+            if (nodeBounds[b] > x + width || nodeBounds[b + 2] < x || nodeBounds[b + 1] > y + height || nodeBounds[b + 3] < y) { continue; }
+            if (nodeRight[node] < 0) {
+                for (int i = nodeStart[node], end = i + nodeCount[node] ; i < end ; i++) {
+                    if (rect.intersectsLine(edges[i * 4], edges[i * 4 + 1], edges[i * 4 + 2], edges[i * 4 + 3]) || rect.contains(edges[i * 4], edges[i * 4 + 1])) { return true; }
+                }
+            } else {
+                stack[top++] = node + 1;
+                stack[top++] = nodeRight[node];
+            }
+        }
+        // No edge crosses the rectangle, so it is either completely inside or completely outside of the path
+        return winding(x + width / 2, y + height / 2) != 0;
+    }
+
+    /**
+     * Finds the element of the outline that is nearest to the given point (e.g. for hover effects on strokes)
+     * @param x x coordinate of the point
+     * @param y y coordinate of the point
+     * @return the nearest element or null if the path has no drawn elements
+     */
+    public NearestSegment nearestSegment(final double x, final double y) {
+        double bestDistanceSq = Double.POSITIVE_INFINITY;
+        int    bestElement    = -1;
+        double bestX          = 0;
+        double bestY          = 0;
+        final int[] stack = new int[64];
+        int top = 0;
+        if (edges.length > 0) { stack[top++] = 0; }
+        while (top > 0) {
+            final int node = stack[--top];
+            if (boxDistanceSq(node, x, y) >= bestDistanceSq) { continue; }
+            if (nodeRight[node] < 0) {
+                for (int i = nodeStart[node], end = i + nodeCount[node] ; i < end ; i++) {
+                    if (edgeElements[i] < 0) { continue; }
+                    final double x0 = edges[i * 4];
+                    final double y0 = edges[i * 4 + 1];
+                    final double dx = edges[i * 4 + 2] - x0;
+                    final double dy = edges[i * 4 + 3] - y0;
+                    final double lengthSq = dx * dx + dy * dy;
+                    final double t  = lengthSq == 0 ? 0 : Math.max(0, Math.min(1, ((x - x0) * dx + (y - y0) * dy) / lengthSq));
+                    final double px = x0 + t * dx;
+                    final double py = y0 + t * dy;
+                    final double distanceSq = (x - px) * (x - px) + (y - py) * (y - py);
+                    if (distanceSq < bestDistanceSq) {
+                        bestDistanceSq = distanceSq;
+                        bestElement    = edgeElements[i];
+                        bestX          = px;
+                        bestY          = py;
+                    }
+                }
+            } else {
+                // Visit the nearer child first, it is pushed last
+                final int left  = node + 1;
+                final int right = nodeRight[node];
+                if (boxDistanceSq(left, x, y) < boxDistanceSq(right, x, y)) {
+                    stack[top++] = right;
+                    stack[top++] = left;
+                } else {
+                    stack[top++] = left;
+                    stack[top++] = right;
+                }
+            }
+        }
+        return bestElement < 0 ? null : new NearestSegment(bestElement, Math.sqrt(bestDistanceSq), bestX, bestY);
+    }
+
+    private int winding(final double x, final double y) {
+        int winding = 0;
+        final int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            final int node = stack[--top];
+            final int b    = node * 4;
+            // Only edges that cross the horizontal ray from (x,y) to the right count
+            if (y < nodeBounds[b + 1] || y >= nodeBounds[b + 3] || x >= nodeBounds[b + 2]) { continue; }
+            if (nodeRight[node] < 0) {
+                for (int i = nodeStart[node], end = i + nodeCount[node] ; i < end ; i++) {
+                    final double x0 = edges[i * 4];
+                    final double y0 = edges[i * 4 + 1];
+                    final double x1 = edges[i * 4 + 2];
+                    final double y1 = edges[i * 4 + 3];
+                    if (y0 <= y && y < y1) {
+                        if (x0 + (y - y0) * (x1 - x0) / (y1 - y0) > x) { winding++; }
+                    } else if (y1 <= y && y < y0) {
+                        if (x0 + (y - y0) * (x1 - x0) / (y1 - y0) > x) { winding--; }
+                    }
+                }
+            } else {
+                stack[top++] = node + 1;
+                stack[top++] = nodeRight[node];
+            }
+        }
+        return winding;
+    }
+
+    private double boxDistanceSq(final int node, final double x, final double y) {
+        final int    b  = node * 4;
+        final double dx = Math.max(0, Math.max(nodeBounds[b] - x, x - nodeBounds[b + 2]));
+        final double dy = Math.max(0, Math.max(nodeBounds[b + 1] - y, y - nodeBounds[b + 3]));
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Builds the subtree for the edges order[start, end) in depth first order, the left child of a node
+     * is always the next node, the index of the right child is stored in nodeRight (-1 for leaves)
+     * @return index of the next free node
+     */
+    private static int buildNode(final double[] allEdges, final int[] order, final int start, final int end, final int node,
+                                 final double[] nodeBounds, final int[] nodeRight, final int[] nodeStart, final int[] nodeCount) {
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        double minCX = Double.POSITIVE_INFINITY, minCY = Double.POSITIVE_INFINITY, maxCX = Double.NEGATIVE_INFINITY, maxCY = Double.NEGATIVE_INFINITY;
+        for (int i = start ; i < end ; i++) {
+            final int e = order[i] * 4;
+            minX  = Math.min(minX, Math.min(allEdges[e], allEdges[e + 2]));
+            maxX  = Math.max(maxX, Math.max(allEdges[e], allEdges[e + 2]));
+            minY  = Math.min(minY, Math.min(allEdges[e + 1], allEdges[e + 3]));
+            maxY  = Math.max(maxY, Math.max(allEdges[e + 1], allEdges[e + 3]));
+            final double cx = allEdges[e] + allEdges[e + 2];
+            final double cy = allEdges[e + 1] + allEdges[e + 3];
+            minCX = Math.min(minCX, cx);
+            maxCX = Math.max(maxCX, cx);
+            minCY = Math.min(minCY, cy);
+            maxCY = Math.max(maxCY, cy);
+        }
+        nodeBounds[node * 4]     = minX;
+        nodeBounds[node * 4 + 1] = minY;
+        nodeBounds[node * 4 + 2] = maxX;
+        nodeBounds[node * 4 + 3] = maxY;
+        nodeStart[node]          = start;
+        nodeCount[node]          = end - start;
+        if (end - start <= LEAF_SIZE) {
+            nodeRight[node] = -1;
+            return node + 1;
+        }
+        // Split at the median of the edge centers along the longer axis
+        final int axis = maxCX - minCX >= maxCY - minCY ? 0 : 1;
+        final int mid  = (start + end) >>> 1;
+        select(allEdges, order, start, end - 1, mid, axis);
+        final int right = buildNode(allEdges, order, start, mid, node + 1, nodeBounds, nodeRight, nodeStart, nodeCount);
+        nodeRight[node] = right;
+        return buildNode(allEdges, order, mid, end, right, nodeBounds, nodeRight, nodeStart, nodeCount);
+    }
+
+    /**
+     * Partially sorts order[left, right] so that the element at index k is at its sorted position (quickselect)
+     */
+    private static void select(final double[] allEdges, final int[] order, int left, int right, final int k, final int axis) {
+        while (right > left) {
+            final double pivot = center(allEdges, order[(left + right) >>> 1], axis);
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (center(allEdges, order[i], axis) < pivot) { i++; }
+                while (center(allEdges, order[j], axis) > pivot) { j--; }
+                if (i <= j) {
+                    final int tmp = order[i];
+                    order[i++] = order[j];
+                    order[j--] = tmp;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static double center(final double[] allEdges, final int edge, final int axis) { return allEdges[edge * 4 + axis] + allEdges[edge * 4 + 2 + axis]; }
+
+    private static Rectangle2D.Double toRectangle(final double[] values, final int offset) {
+        if (Double.isInfinite(values[offset])) { return new Rectangle2D.Double(); }
+        return new Rectangle2D.Double(values[offset], values[offset + 1], values[offset + 2] - values[offset], values[offset + 3] - values[offset + 1]);
+    }
+
+    /**
+     * First pass: analytic bounds of each element, subpath and of the whole path
+     */
+    private static void computeBounds(final PathData pathData, final Outline outline) {
+        final double[] center   = new double[7];
+        double         currentX = 0;
+        double         currentY = 0;
+        double         startX   = 0;
+        double         startY   = 0;
+        boolean        open     = false;
+        int c = 0;
+        for (int i = 0 ; i < pathData.size() ; i++) {
+            final byte opcode = pathData.getOpcode(i);
+            final int  type   = opcode & PathData.OPCODE_MASK;
+            final int  b      = i * 4;
+            if (type == PathData.MOVE_TO) {
+                currentX = pathData.getCoordinate(c);
+                currentY = pathData.getCoordinate(c + 1);
+                startX   = currentX;
+                startY   = currentY;
+                outline.startSubpath(currentX, currentY);
+                open = true;
+                c += 2;
+                continue;
+            }
+            if (!open) {
+                // A segment after closepath starts a new subpath at the start of the closed one
+                outline.startSubpath(startX, startY);
+                open = true;
+            }
+            outline.setElementBounds(b, currentX, currentY);
+            switch (type) {
+                case PathData.LINE_TO -> {
+                    currentX = pathData.getCoordinate(c);
+                    currentY = pathData.getCoordinate(c + 1);
+                    outline.includeElement(b, currentX, currentY);
+                }
+                case PathData.QUAD_TO -> {
+                    final double cx = pathData.getCoordinate(c);
+                    final double cy = pathData.getCoordinate(c + 1);
+                    final double x  = pathData.getCoordinate(c + 2);
+                    final double y  = pathData.getCoordinate(c + 3);
+                    final double tx = quadExtremum(currentX, cx, x);
+                    final double ty = quadExtremum(currentY, cy, y);
+                    if (tx > 0 && tx < 1) { outline.includeElement(b, quad(currentX, cx, x, tx), quad(currentY, cy, y, tx)); }
+                    if (ty > 0 && ty < 1) { outline.includeElement(b, quad(currentX, cx, x, ty), quad(currentY, cy, y, ty)); }
+                    outline.includeElement(b, x, y);
+                    currentX = x;
+                    currentY = y;
+                }
+                case PathData.CUBIC_TO -> {
+                    final double c1x = pathData.getCoordinate(c);
+                    final double c1y = pathData.getCoordinate(c + 1);
+                    final double c2x = pathData.getCoordinate(c + 2);
+                    final double c2y = pathData.getCoordinate(c + 3);
+                    final double x   = pathData.getCoordinate(c + 4);
+                    final double y   = pathData.getCoordinate(c + 5);
+                    final double[] roots = new double[4];
+                    int count = cubicExtrema(currentX, c1x, c2x, x, roots, 0);
+                    count     = cubicExtrema(currentY, c1y, c2y, y, roots, count);
+                    for (int r = 0 ; r < count ; r++) {
+                        outline.includeElement(b, cubic(currentX, c1x, c2x, x, roots[r]), cubic(currentY, c1y, c2y, y, roots[r]));
+                    }
+                    outline.includeElement(b, x, y);
+                    currentX = x;
+                    currentY = y;
+                }
+                case PathData.ARC_TO -> {
+                    final double x = pathData.getCoordinate(c + 3);
+                    final double y = pathData.getCoordinate(c + 4);
+                    if (ArcConverter.toCenter(currentX, currentY, pathData.getCoordinate(c), pathData.getCoordinate(c + 1), pathData.getCoordinate(c + 2),
+                                              (opcode & PathData.LARGE_ARC_FLAG) != 0, (opcode & PathData.SWEEP_FLAG) != 0, x, y, center)) {
+                        final double rx  = center[2];
+                        final double ry  = center[3];
+                        final double sin = Math.sin(center[4]);
+                        final double cos = Math.cos(center[4]);
+                        // Angles where dx/dtheta = 0 and dy/dtheta = 0 and the opposite points
+                        final double thetaX = Math.atan2(-ry * sin, rx * cos);
+                        final double thetaY = Math.atan2(ry * cos, rx * sin);
+                        for (double theta : new double[] { thetaX, thetaX + Math.PI, thetaY, thetaY + Math.PI }) {
+                            if (isInSweep(theta, center[5], center[6])) {
+                                final double ct = Math.cos(theta);
+                                final double st = Math.sin(theta);
+                                outline.includeElement(b, center[0] + rx * cos * ct - ry * sin * st, center[1] + rx * sin * ct + ry * cos * st);
+                            }
+                        }
+                    }
+                    outline.includeElement(b, x, y);
+                    currentX = x;
+                    currentY = y;
+                }
+                case PathData.CLOSE_PATH -> {
+                    outline.includeElement(b, startX, startY);
+                    currentX = startX;
+                    currentY = startY;
+                    open     = false;
+                }
+            }
+            c += PathData.coordinateCount(opcode);
+        }
+    }
+
+    /**
+     * Second pass: split the outline into lines, open subpaths get an implicit closing edge for the fill
+     */
+    private static void flatten(final PathData pathData, final Outline outline, final double flatness) {
+        final double[] center   = new double[7];
+        double         currentX = 0;
+        double         currentY = 0;
+        double         startX   = 0;
+        double         startY   = 0;
+        int c = 0;
+        for (int i = 0 ; i < pathData.size() ; i++) {
+            final byte opcode = pathData.getOpcode(i);
+            switch (opcode & PathData.OPCODE_MASK) {
+                case PathData.MOVE_TO -> {
+                    outline.addEdge(currentX, currentY, startX, startY, -1);
+                    currentX = pathData.getCoordinate(c);
+                    currentY = pathData.getCoordinate(c + 1);
+                    startX   = currentX;
+                    startY   = currentY;
+                }
+                case PathData.LINE_TO -> {
+                    outline.addEdge(currentX, currentY, pathData.getCoordinate(c), pathData.getCoordinate(c + 1), i);
+                    currentX = pathData.getCoordinate(c);
+                    currentY = pathData.getCoordinate(c + 1);
+                }
+                case PathData.QUAD_TO -> {
+                    final double cx = pathData.getCoordinate(c);
+                    final double cy = pathData.getCoordinate(c + 1);
+                    final double x  = pathData.getCoordinate(c + 2);
+                    final double y  = pathData.getCoordinate(c + 3);
+                    // Number of lines from Wang's formula
+                    final double dd = Math.hypot(currentX - 2 * cx + x, currentY - 2 * cy + y);
+                    final int    n  = subdivisions(Math.sqrt(dd / (4 * flatness)));
+                    double px = currentX;
+                    double py = currentY;
+                    for (int s = 1 ; s <= n ; s++) {
+                        final double t  = (double) s / n;
+                        final double qx = s == n ? x : quad(currentX, cx, x, t);
+                        final double qy = s == n ? y : quad(currentY, cy, y, t);
+                        outline.addEdge(px, py, qx, qy, i);
+                        px = qx;
+                        py = qy;
+                    }
+                    currentX = x;
+                    currentY = y;
+                }
+                case PathData.CUBIC_TO -> {
+                    final double c1x = pathData.getCoordinate(c);
+                    final double c1y = pathData.getCoordinate(c + 1);
+                    final double c2x = pathData.getCoordinate(c + 2);
+                    final double c2y = pathData.getCoordinate(c + 3);
+                    final double x   = pathData.getCoordinate(c + 4);
+                    final double y   = pathData.getCoordinate(c + 5);
+                    final double dd  = Math.max(Math.hypot(currentX - 2 * c1x + c2x, currentY - 2 * c1y + c2y), Math.hypot(c1x - 2 * c2x + x, c1y - 2 * c2y + y));
+                    final int    n   = subdivisions(Math.sqrt(0.75 * dd / flatness));
+                    double px = currentX;
+                    double py = currentY;
+                    for (int s = 1 ; s <= n ; s++) {
+                        final double t  = (double) s / n;
+                        final double qx = s == n ? x : cubic(currentX, c1x, c2x, x, t);
+                        final double qy = s == n ? y : cubic(currentY, c1y, c2y, y, t);
+                        outline.addEdge(px, py, qx, qy, i);
+                        px = qx;
+                        py = qy;
+                    }
+                    currentX = x;
+                    currentY = y;
+                }
+                case PathData.ARC_TO -> {
+                    final double x = pathData.getCoordinate(c + 3);
+                    final double y = pathData.getCoordinate(c + 4);
+                    if (ArcConverter.toCenter(currentX, currentY, pathData.getCoordinate(c), pathData.getCoordinate(c + 1), pathData.getCoordinate(c + 2),
+                                              (opcode & PathData.LARGE_ARC_FLAG) != 0, (opcode & PathData.SWEEP_FLAG) != 0, x, y, center)) {
+                        final double rx    = center[2];
+                        final double ry    = center[3];
+                        final double sin   = Math.sin(center[4]);
+                        final double cos   = Math.cos(center[4]);
+                        // Max. angle per line so that the chord stays within the flatness
+                        final double step  = 2 * Math.acos(Math.max(-1, 1 - flatness / Math.max(rx, ry)));
+                        final int    n     = subdivisions(Math.abs(center[6]) / step);
+                        double px = currentX;
+                        double py = currentY;
+                        for (int s = 1 ; s <= n ; s++) {
+                            final double theta = center[5] + center[6] * s / n;
+                            final double qx    = s == n ? x : center[0] + rx * cos * Math.cos(theta) - ry * sin * Math.sin(theta);
+                            final double qy    = s == n ? y : center[1] + rx * sin * Math.cos(theta) + ry * cos * Math.sin(theta);
+                            outline.addEdge(px, py, qx, qy, i);
+                            px = qx;
+                            py = qy;
+                        }
+                    } else {
+                        outline.addEdge(currentX, currentY, x, y, i);
+                    }
+                    currentX = x;
+                    currentY = y;
+                }
+                case PathData.CLOSE_PATH -> {
+                    outline.addEdge(currentX, currentY, startX, startY, i);
+                    currentX = startX;
+                    currentY = startY;
+                }
+            }
+            c += PathData.coordinateCount(opcode);
+        }
+        outline.addEdge(currentX, currentY, startX, startY, -1);
+    }
+
+    private static int subdivisions(final double value) { return (int) Math.max(1, Math.min(MAX_SUBDIVISIONS, Math.ceil(value))); }
+
+    private static boolean isInSweep(final double theta, final double startAngle, final double sweep) {
+        final double twoPi = 2 * Math.PI;
+        double delta = (theta - startAngle) % twoPi;
+        if (delta < 0) { delta += twoPi; }
+        return sweep >= 0 ? delta <= sweep : delta - twoPi >= sweep;
+    }
+
+    private static double quadExtremum(final double p0, final double p1, final double p2) {
+        final double denominator = p0 - 2 * p1 + p2;
+        return denominator == 0 ? -1 : (p0 - p1) / denominator;
+    }
+
+    private static double quad(final double p0, final double p1, final double p2, final double t) {
+        final double mt = 1 - t;
+        return mt * mt * p0 + 2 * mt * t * p1 + t * t * p2;
+    }
+
+    private static double cubic(final double p0, final double p1, final double p2, final double p3, final double t) {
+        final double mt = 1 - t;
+        return mt * mt * mt * p0 + 3 * mt * mt * t * p1 + 3 * mt * t * t * p2 + t * t * t * p3;
+    }
+
+    /**
+     * Adds the parameters in (0,1) where the derivative of the cubic is 0 to roots
+     * @return new number of roots
+     */
+    private static int cubicExtrema(final double p0, final double p1, final double p2, final double p3, final double[] roots, final int count) {
+        // B'(t) / 3 = a t^2 + b t + c
+        final double a = -p0 + 3 * p1 - 3 * p2 + p3;
+        final double b = 2 * (p0 - 2 * p1 + p2);
+        final double c = p1 - p0;
+        int result = count;
+        if (Math.abs(a) < 1e-12) {
+            if (b != 0) {
+                final double t = -c / b;
+                if (t > 0 && t < 1) { roots[result++] = t; }
+            }
+            return result;
+        }
+        final double discriminant = b * b - 4 * a * c;
+        if (discriminant < 0) { return result; }
+        final double sqrt = Math.sqrt(discriminant);
+        final double t1   = (-b + sqrt) / (2 * a);
+        final double t2   = (-b - sqrt) / (2 * a);
+        if (t1 > 0 && t1 < 1) { roots[result++] = t1; }
+        if (t2 > 0 && t2 < 1) { roots[result++] = t2; }
+        return result;
+    }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * Collects bounds and edges while the geometry is built
+     */
+    private static final class Outline {
+        private final double[] bounds        = { Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY };
+        private final double[] elementBounds;
+        private       double[] subpathBounds = new double[16];
+        private       int      subpathCount;
+        private       double[] edges         = new double[256];
+        private       int[]    edgeElements  = new int[64];
+        private       int      edgeCount;
+
+
+        Outline(final int size) {
+            elementBounds = new double[size * 4];
+            Arrays.fill(elementBounds, Double.NaN);
+        }
+
+
+        void startSubpath(final double x, final double y) {
+            if (subpathCount * 4 == subpathBounds.length) { subpathBounds = Arrays.copyOf(subpathBounds, subpathBounds.length * 2); }
+            final int s = subpathCount++ * 4;
+            subpathBounds[s]     = x;
+            subpathBounds[s + 1] = y;
+            subpathBounds[s + 2] = x;
+            subpathBounds[s + 3] = y;
+            include(bounds, 0, x, y);
+        }
+
+        void setElementBounds(final int b, final double x, final double y) {
+            elementBounds[b]     = x;
+            elementBounds[b + 1] = y;
+            elementBounds[b + 2] = x;
+            elementBounds[b + 3] = y;
+        }
+
+        void includeElement(final int b, final double x, final double y) {
+            include(elementBounds, b, x, y);
+            include(subpathBounds, (subpathCount - 1) * 4, x, y);
+            include(bounds, 0, x, y);
+        }
+
+        void addEdge(final double x0, final double y0, final double x1, final double y1, final int element) {
+            // Implicit closing edges of subpaths that end at their start point are not needed
+            if (element < 0 && x0 == x1 && y0 == y1) { return; }
+            if (edgeCount == edgeElements.length) {
+                edges        = Arrays.copyOf(edges, edgeCount * 8);
+                edgeElements = Arrays.copyOf(edgeElements, edgeCount * 2);
+            }
+            edges[edgeCount * 4]     = x0;
+            edges[edgeCount * 4 + 1] = y0;
+            edges[edgeCount * 4 + 2] = x1;
+            edges[edgeCount * 4 + 3] = y1;
+            edgeElements[edgeCount++] = element;
+        }
+
+        private static void include(final double[] values, final int offset, final double x, final double y) {
+            values[offset]     = Math.min(values[offset], x);
+            values[offset + 1] = Math.min(values[offset + 1], y);
+            values[offset + 2] = Math.max(values[offset + 2], x);
+            values[offset + 3] = Math.max(values[offset + 3], y);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+
+/**
+ * Receives the segments of a parsed svg path from the PathParser.
+ * All coordinates are absolute, relative commands, shorthand curves (S, T),
+ * horizontal/vertical lines and bearings are already resolved by the parser.
+ */
+public interface PathHandler {
+
+    void moveTo(double x, double y);
+
+    void lineTo(double x, double y);
+
+    void quadTo(double controlX, double controlY, double x, double y);
+
+    void cubicTo(double controlX1, double controlY1, double controlX2, double controlY2, double x, double y);
+
+    void arcTo(double radiusX, double radiusY, double xAxisRotation, boolean largeArcFlag, boolean sweepFlag, double x, double y);
+
+    void closePath();
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+
+
+/**
+ * Push style parser for svg path data.
+ * Resolves all relative commands, shorthand curves, horizontal/vertical lines and bearings
+ * and passes the segments with absolute coordinates to a PathHandler.
+ * The input is read through a small buffer and no intermediate collections are created,
+ * so even paths that are many megabytes long are parsed in bounded memory.
+ * All methods are stateless and can be called concurrently.
+ */
+public final class PathParser {
+
+    // ******************** Constructors **************************************
+    private PathParser() {}
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Parses the given svg path data and calls the handler for each segment.
+     * @param svgPathData svg path data (raw or formatted)
+     * @param handler handler that receives the segments with absolute coordinates
+     * @throws IllegalArgumentException if the path data is malformed
+     */
+    public static void parse(final CharSequence svgPathData, final PathHandler handler) {
+        parse(new PathTokenizer(svgPathData), handler);
+    }
+
+    /**
+     * Parses the svg path data from the given reader and calls the handler for each segment.
+     * The reader is not closed.
+     * @param reader reader that provides the svg path data
+     * @param handler handler that receives the segments with absolute coordinates
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if the path data is malformed
+     */
+    public static void parse(final Reader reader, final PathHandler handler) throws IOException {
+        try {
+            parse(new PathTokenizer(reader), handler);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    static void parse(final PathTokenizer tokenizer, final PathHandler handler) {
+        final PathState state = new PathState();
+        while(tokenizer.next()) { state.apply(tokenizer, handler); }
+    }
+
+    /**
+     * Same as parse() but counts the segments per command
+     * @param commandCounts counts in the order of ConversionStatistics.COMMANDS
+     */
+    static void parse(final PathTokenizer tokenizer, final PathHandler handler, final int[] commandCounts) {
+        final PathState state = new PathState();
+        while(tokenizer.next()) {
+            commandCounts[ConversionStatistics.index(tokenizer.command())]++;
+            state.apply(tokenizer, handler);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+import java.util.Arrays;
+
+
+/**
+ * Optional post conversion stage that reduces the number of elements of a path:
+ * - rounds all coordinates to the given number of decimals
+ * - drops zero length lines, curves and arcs and movetos that are directly followed by another moveto
+ * - merges collinear lines and simplifies polylines (runs of consecutive lines) with the
+ *   Ramer-Douglas-Peucker algorithm within the given tolerance
+ * - replaces curves that are flat within the tolerance (control points close to the chord) by lines
+ * Other curves and arcs are kept (apart from rounding), arcs with a zero radius are treated as lines.
+ * A flattened curve may deviate from its chord and the chord may be simplified again by the polyline,
+ * so polylines that contain flattened curves give each step half of the tolerance. The simplified
+ * path never deviates more than the tolerance from the (rounded) original path.
+ * Instances are immutable and thread safe.
+ */
+public final class PathSimplifier {
+    public  static final int    NO_ROUNDING         = -1;
+    private static final double COLLINEAR_TOLERANCE = 1e-9;
+
+    private final int    decimals;
+    private final double scale;
+    private final double tolerance;
+
+    /**
+     * @param pathData the simplified path
+     * @param originalElements number of elements of the original path
+     * @param removedElements number of elements that have been removed
+     */
+    public record Result(PathData pathData, int originalElements, int removedElements) { }
+
+
+    // ******************** Constructors **************************************
+    /**
+     * @param decimals number of decimals the coordinates will be rounded to (NO_ROUNDING to keep them)
+     * @param tolerance max. distance between the simplified and the original lines and flattened curves (0 only merges collinear lines)
+     */
+    public PathSimplifier(final int decimals, final double tolerance) {
+        if (decimals < NO_ROUNDING || decimals > 15) { throw new IllegalArgumentException("Decimals must be between 0 and 15 or NO_ROUNDING"); }
+        if (tolerance < 0 || Double.isNaN(tolerance)) { throw new IllegalArgumentException("Tolerance must be >= 0"); }
+        this.decimals  = decimals;
+        this.scale     = Math.pow(10, Math.max(decimals, 0));
+        this.tolerance = Math.max(tolerance, COLLINEAR_TOLERANCE);
+    }
+
+
+    // ******************** Methods *******************************************
+    public int getDecimals() { return decimals; }
+
+    public double getTolerance() { return tolerance; }
+
+    /**
+     * @param pathData the path to simplify
+     * @return the simplified path (with the precision of the given path) and the number of removed elements
+     */
+    public Result simplify(final PathData pathData) {
+        final PathData.Builder builder  = new PathData.Builder();
+        final Polyline         polyline = new Polyline();
+        double  currentX    = 0;
+        double  currentY    = 0;
+        double  startX      = 0;
+        double  startY      = 0;
+        boolean pendingMove = false;
+        int c = 0;
+        for (int i = 0 ; i < pathData.size() ; i++) {
+            final byte opcode = pathData.getOpcode(i);
+            final int  type   = opcode & PathData.OPCODE_MASK;
+            if (type == PathData.MOVE_TO) {
+                // A moveto directly followed by another moveto has no effect
+                polyline.flush(builder);
+                currentX    = round(pathData.getCoordinate(c));
+                currentY    = round(pathData.getCoordinate(c + 1));
+                startX      = currentX;
+                startY      = currentY;
+                pendingMove = true;
+            } else {
+                if (pendingMove && type != PathData.CLOSE_PATH) {
+                    builder.moveTo(startX, startY);
+                    pendingMove = false;
+                }
+                switch (type) {
+                    case PathData.LINE_TO  -> {
+                        final double x = round(pathData.getCoordinate(c));
+                        final double y = round(pathData.getCoordinate(c + 1));
+                        polyline.lineTo(currentX, currentY, x, y);
+                        currentX = x;
+                        currentY = y;
+                    }
+                    case PathData.QUAD_TO  -> {
+                        final double cx = round(pathData.getCoordinate(c));
+                        final double cy = round(pathData.getCoordinate(c + 1));
+                        final double x  = round(pathData.getCoordinate(c + 2));
+                        final double y  = round(pathData.getCoordinate(c + 3));
+                        if (isPoint(currentX, currentY, cx, cy, x, y)) { break; }
+                        // Moving the control point onto the chord moves each curve point by at most half of its distance,
+                        // which has to stay within half of the tolerance
+                        if (distanceToSegment(cx, cy, currentX, currentY, x, y) <= tolerance) {
+                            polyline.curveTo(currentX, currentY, x, y);
+                        } else {
+                            polyline.flush(builder);
+                            builder.quadTo(cx, cy, x, y);
+                        }
+                        currentX = x;
+                        currentY = y;
+                    }
+                    case PathData.CUBIC_TO -> {
+                        final double c1x = round(pathData.getCoordinate(c));
+                        final double c1y = round(pathData.getCoordinate(c + 1));
+                        final double c2x = round(pathData.getCoordinate(c + 2));
+                        final double c2y = round(pathData.getCoordinate(c + 3));
+                        final double x   = round(pathData.getCoordinate(c + 4));
+                        final double y   = round(pathData.getCoordinate(c + 5));
+                        if (isPoint(currentX, currentY, c1x, c1y, x, y) && c2x == x && c2y == y) { break; }
+                        // Moving the control points onto the chord moves each curve point by at most 3/4 of their max. distance
+                        if (0.75 * Math.max(distanceToSegment(c1x, c1y, currentX, currentY, x, y), distanceToSegment(c2x, c2y, currentX, currentY, x, y)) <= tolerance / 2) {
+                            polyline.curveTo(currentX, currentY, x, y);
+                        } else {
+                            polyline.flush(builder);
+                            builder.cubicTo(c1x, c1y, c2x, c2y, x, y);
+                        }
+                        currentX = x;
+                        currentY = y;
+                    }
+                    case PathData.ARC_TO   -> {
+                        final double rx = round(pathData.getCoordinate(c));
+                        final double ry = round(pathData.getCoordinate(c + 1));
+                        final double x  = round(pathData.getCoordinate(c + 3));
+                        final double y  = round(pathData.getCoordinate(c + 4));
+                        // An arc with identical end points is omitted, an arc with a zero radius is a line (SVG spec)
+                        if (x == currentX && y == currentY) { break; }
+                        if (rx == 0 || ry == 0) {
+                            polyline.lineTo(currentX, currentY, x, y);
+                        } else {
+                            polyline.flush(builder);
+                            builder.arcTo(rx, ry, round(pathData.getCoordinate(c + 2)), (opcode & PathData.LARGE_ARC_FLAG) != 0, (opcode & PathData.SWEEP_FLAG) != 0, x, y);
+                        }
+                        currentX = x;
+                        currentY = y;
+                    }
+                    case PathData.CLOSE_PATH -> {
+                        polyline.flush(builder);
+                        if (!pendingMove) { builder.closePath(); }
+                        currentX = startX;
+                        currentY = startY;
+                    }
+                }
+            }
+            c += PathData.coordinateCount(opcode);
+        }
+        polyline.flush(builder);
+        final PathData simplified = builder.build(pathData.getPrecision());
+        return new Result(simplified, pathData.size(), pathData.size() - simplified.size());
+    }
+
+    private double round(final double value) { return decimals == NO_ROUNDING ? value : Math.rint(value * scale) / scale; }
+
+    private static double distanceToSegment(final double px, final double py, final double ax, final double ay, final double bx, final double by) {
+        final double dx            = bx - ax;
+        final double dy            = by - ay;
+        final double lengthSquared = dx * dx + dy * dy;
+        final double t             = lengthSquared == 0 ? 0 : Math.max(0, Math.min(1, ((px - ax) * dx + (py - ay) * dy) / lengthSquared));
+        return Math.hypot(px - (ax + t * dx), py - (ay + t * dy));
+    }
+
+    private static boolean isPoint(final double x0, final double y0, final double x1, final double y1, final double x2, final double y2) {
+        return x0 == x1 && x1 == x2 && y0 == y1 && y1 == y2;
+    }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * Collects consecutive lines (including the start point) and simplifies them when flushed
+     */
+    private final class Polyline {
+        private double[]  points = new double[64];
+        private boolean[] keep   = new boolean[32];
+        private int[]     stack  = new int[64];
+        private int       count;
+        private boolean   hasCurves;
+
+
+        void lineTo(final double fromX, final double fromY, final double x, final double y) {
+            if (count == 0) { add(fromX, fromY); }
+            // Drop zero length lines
+            if (points[2 * count - 2] == x && points[2 * count - 1] == y) { return; }
+            add(x, y);
+        }
+
+        /**
+         * Adds the chord of a flattened curve, the polyline is then simplified with half of the tolerance
+         */
+        void curveTo(final double fromX, final double fromY, final double x, final double y) {
+            hasCurves = true;
+            lineTo(fromX, fromY, x, y);
+        }
+
+        void flush(final PathData.Builder builder) {
+            final double maxDeviation = hasCurves ? tolerance / 2 : tolerance;
+            hasCurves = false;
+            if (count < 2) {
+                count = 0;
+                return;
+            }
+            if (keep.length < count) { keep = new boolean[points.length / 2]; }
+            Arrays.fill(keep, 0, count, false);
+            keep[0]         = true;
+            keep[count - 1] = true;
+
+            // Ramer-Douglas-Peucker without recursion
+            int top = 0;
+            stack[top++] = 0;
+            stack[top++] = count - 1;
+            while (top > 0) {
+                final int last  = stack[--top];
+                final int first = stack[--top];
+                double maxDistance = -1;
+                int    index       = -1;
+                for (int i = first + 1 ; i < last ; i++) {
+                    final double distance = distanceToSegment(i, first, last);
+                    if (distance > maxDistance) {
+                        maxDistance = distance;
+                        index       = i;
+                    }
+                }
+                if (index >= 0 && maxDistance > maxDeviation) {
+                    keep[index] = true;
+                    if (top + 4 > stack.length) { stack = Arrays.copyOf(stack, stack.length * 2); }
+                    stack[top++] = first;
+                    stack[top++] = index;
+                    stack[top++] = index;
+                    stack[top++] = last;
+                }
+            }
+            for (int i = 1 ; i < count ; i++) {
+                if (keep[i]) { builder.lineTo(points[2 * i], points[2 * i + 1]); }
+            }
+            count = 0;
+        }
+
+        private void add(final double x, final double y) {
+            if (2 * count + 2 > points.length) { points = Arrays.copyOf(points, points.length * 2); }
+            points[2 * count]     = x;
+            points[2 * count + 1] = y;
+            count++;
+        }
+
+        private double distanceToSegment(final int point, final int first, final int last) {
+            return PathSimplifier.distanceToSegment(points[2 * point], points[2 * point + 1], points[2 * first], points[2 * first + 1], points[2 * last], points[2 * last + 1]);
+        }
+    }
+}
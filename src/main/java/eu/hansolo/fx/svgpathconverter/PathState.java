@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+
+/**
+ * Resolution state of the PathParser between two segments: current point, last control point,
+ * start of the current subpath, bearing and the last command. apply() resolves one segment of
+ * the tokenizer against this state and passes it with absolute coordinates to the handler.
+ * The state can be copied and compared, which allows to resume parsing in the middle of a path.
+ */
+final class PathState {
+    double lastX;
+    double lastY;
+    double controlX;
+    double controlY;
+    double startX;
+    double startY;
+    double bearing;
+    double lastBearing;
+    double bearingSin;
+    double bearingCos = 1;
+    char   lastCommand;
+
+
+    // ******************** Constructors **************************************
+    PathState() {}
+
+    PathState(final PathState other) {
+        this.lastX       = other.lastX;
+        this.lastY       = other.lastY;
+        this.controlX    = other.controlX;
+        this.controlY    = other.controlY;
+        this.startX      = other.startX;
+        this.startY      = other.startY;
+        this.bearing     = other.bearing;
+        this.lastBearing = other.lastBearing;
+        this.bearingSin  = other.bearingSin;
+        this.bearingCos  = other.bearingCos;
+        this.lastCommand = other.lastCommand;
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Resolves the current segment of the tokenizer and updates the state
+     * @param tokenizer tokenizer positioned on a segment
+     * @param handler handler that receives the segment with absolute coordinates
+     */
+    void apply(final PathTokenizer tokenizer, final PathHandler handler) {
+        final char identifier = tokenizer.command();
+        switch(identifier) {
+            case 'M', 'm' -> {
+                final boolean relative = identifier == 'm';
+                lastX  = relative ? lastX + tokenizer.arg(0) : tokenizer.arg(0);
+                lastY  = relative ? lastY + tokenizer.arg(1) : tokenizer.arg(1);
+                startX = lastX;
+                startY = lastY;
+                handler.moveTo(lastX, lastY);
+            }
+            case 'L', 'l' -> {
+                final boolean relative = identifier == 'l';
+                lastX = relative ? lastX + tokenizer.arg(0) : tokenizer.arg(0);
+                lastY = relative ? lastY + tokenizer.arg(1) : tokenizer.arg(1);
+                handler.lineTo(lastX, lastY);
+            }
+            case 'H' -> {
+                lastX = tokenizer.arg(0);
+                handler.lineTo(lastX, lastY);
+            }
+            case 'h' -> {
+                final double dx = tokenizer.arg(0);
+                if (bearing == 0) {
+                    lastX += dx;
+                } else {
+                    lastX += dx * bearingCos;
+                    lastY += dx * bearingSin;
+                }
+                handler.lineTo(lastX, lastY);
+            }
+            case 'V' -> {
+                lastY = tokenizer.arg(0);
+                handler.lineTo(lastX, lastY);
+            }
+            case 'v' -> {
+                lastY += tokenizer.arg(0);
+                handler.lineTo(lastX, lastY);
+            }
+            case 'C', 'c' -> {
+                final double offsetX = identifier == 'c' ? lastX : 0;
+                final double offsetY = identifier == 'c' ? lastY : 0;
+                final double c1X     = offsetX + tokenizer.arg(0);
+                final double c1Y     = offsetY + tokenizer.arg(1);
+                controlX = offsetX + tokenizer.arg(2);
+                controlY = offsetY + tokenizer.arg(3);
+                lastX    = offsetX + tokenizer.arg(4);
+                lastY    = offsetY + tokenizer.arg(5);
+                handler.cubicTo(c1X, c1Y, controlX, controlY, lastX, lastY);
+            }
+            case 'S', 's' -> {
+                final double  offsetX = identifier == 's' ? lastX : 0;
+                final double  offsetY = identifier == 's' ? lastY : 0;
+                final boolean reflect = lastCommand == 'C' || lastCommand == 'c' || lastCommand == 'S' || lastCommand == 's';
+                final double  c1X     = reflect ? 2 * lastX - controlX : lastX;
+                final double  c1Y     = reflect ? 2 * lastY - controlY : lastY;
+                controlX = offsetX + tokenizer.arg(0);
+                controlY = offsetY + tokenizer.arg(1);
+                lastX    = offsetX + tokenizer.arg(2);
+                lastY    = offsetY + tokenizer.arg(3);
+                handler.cubicTo(c1X, c1Y, controlX, controlY, lastX, lastY);
+            }
+            case 'Q', 'q' -> {
+                final double offsetX = identifier == 'q' ? lastX : 0;
+                final double offsetY = identifier == 'q' ? lastY : 0;
+                controlX = offsetX + tokenizer.arg(0);
+                controlY = offsetY + tokenizer.arg(1);
+                lastX    = offsetX + tokenizer.arg(2);
+                lastY    = offsetY + tokenizer.arg(3);
+                handler.quadTo(controlX, controlY, lastX, lastY);
+            }
+            case 'T', 't' -> {
+                final boolean reflect = lastCommand == 'Q' || lastCommand == 'q' || lastCommand == 'T' || lastCommand == 't';
+                controlX = reflect ? 2 * lastX - controlX : lastX;
+                controlY = reflect ? 2 * lastY - controlY : lastY;
+                lastX    = identifier == 't' ? lastX + tokenizer.arg(0) : tokenizer.arg(0);
+                lastY    = identifier == 't' ? lastY + tokenizer.arg(1) : tokenizer.arg(1);
+                handler.quadTo(controlX, controlY, lastX, lastY);
+            }
+            case 'A', 'a' -> {
+                lastX = identifier == 'a' ? lastX + tokenizer.arg(5) : tokenizer.arg(5);
+                lastY = identifier == 'a' ? lastY + tokenizer.arg(6) : tokenizer.arg(6);
+                handler.arcTo(tokenizer.arg(0), tokenizer.arg(1), tokenizer.arg(2), tokenizer.arg(3) == 1, tokenizer.arg(4) == 1, lastX, lastY);
+            }
+            case 'B', 'b' -> {
+                bearing     = identifier == 'b' ? (lastBearing + tokenizer.arg(0)) % 360.0 : tokenizer.arg(0);
+                lastBearing = bearing;
+                bearingSin  = Math.sin(Math.toRadians(bearing));
+                bearingCos  = Math.cos(Math.toRadians(bearing));
+            }
+            case 'Z', 'z' -> {
+                lastX = startX;
+                lastY = startY;
+                handler.closePath();
+            }
+        }
+        lastCommand = identifier;
+    }
+
+    @Override public boolean equals(final Object o) {
+        if (this == o) { return true; }
+        if (!(o instanceof PathState other)) { return false; }
+        return Double.compare(lastX, other.lastX) == 0 && Double.compare(lastY, other.lastY) == 0 &&
+               Double.compare(controlX, other.controlX) == 0 && Double.compare(controlY, other.controlY) == 0 &&
+               Double.compare(startX, other.startX) == 0 && Double.compare(startY, other.startY) == 0 &&
+               Double.compare(bearing, other.bearing) == 0 && Double.compare(lastBearing, other.lastBearing) == 0 &&
+               lastCommand == other.lastCommand;
+    }
+
+    @Override public int hashCode() {
+        int result = Double.hashCode(lastX);
+        result = 31 * result + Double.hashCode(lastY);
+        result = 31 * result + Double.hashCode(controlX);
+        result = 31 * result + Double.hashCode(controlY);
+        result = 31 * result + Double.hashCode(bearing);
+        return 31 * result + lastCommand;
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+
+/**
+ * Single pass scanner for SVG path data.
+ * Works directly on char offsets of a small buffer that is refilled from the source,
+ * splits the input into segments (command + arguments), expands implicit repeated
+ * commands and parses all numbers in place without creating substrings.
+ * Path data that doesn't start with a moveto (M or m) is rejected like in the SVG specification.
+ * The source can either be a CharSequence or a Reader, in both cases only
+ * one buffer of at most 8192 chars is held in memory.
+ * Instances are not thread safe, create one per path.
+ */
+final class PathTokenizer {
+    static final         int      EOF             = -1;
+    private static final int      BUFFER_SIZE     = 8192;
+    private static final int      MAX_FAST_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN   = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+                                                      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+    private final CharSequence source;
+    private final Reader       reader;
+    private final int          sourceLength;
+    private       int          sourceIndex;
+    private final char[]       buffer;
+    private       int          position;
+    private       int          limit;
+    private       long         bufferOffset;
+    private       char[]       numberChars;
+    private       int          numberLength;
+    private final double[]     args;
+    private       char         command;
+    private       char         lastCommand;
+
+
+    // ******************** Constructors **************************************
+    PathTokenizer(final CharSequence source) {
+        this(source, null, source.length(), Math.max(1, Math.min(BUFFER_SIZE, source.length())));
+    }
+
+    /**
+     * Creates a tokenizer that continues in the middle of the path data, offset() returns indices of the whole source
+     * @param source the path data
+     * @param start index of the first char that will be read
+     * @param lastCommand command of the segment before start (used for implicit repeated commands, 0 if there is none)
+     */
+    PathTokenizer(final CharSequence source, final int start, final char lastCommand) {
+        this(source);
+        this.sourceIndex  = start;
+        this.bufferOffset = start;
+        this.lastCommand  = lastCommand;
+    }
+
+    /**
+     * IOExceptions of the reader are thrown as UncheckedIOException by next()
+     * @param reader reader that provides the path data
+     */
+    PathTokenizer(final Reader reader) {
+        this(null, reader, 0, BUFFER_SIZE);
+    }
+
+    private PathTokenizer(final CharSequence source, final Reader reader, final int sourceLength, final int bufferSize) {
+        this.source       = source;
+        this.reader       = reader;
+        this.sourceLength = sourceLength;
+        this.sourceIndex  = 0;
+        this.buffer       = new char[bufferSize];
+        this.position     = 0;
+        this.limit        = 0;
+        this.bufferOffset = 0;
+        this.numberChars  = new char[32];
+        this.args         = new double[7];
+        this.command      = 0;
+        this.lastCommand  = 0;
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Reads the next segment. Implicit repeated commands are returned as separate
+     * segments, e.g. "M 1,2 3,4" is returned as M(1,2) followed by L(3,4).
+     * @return true if a segment was read, false at the end of the input
+     * @throws IllegalArgumentException if the path data is malformed
+     */
+    boolean next() {
+        skipSeparators();
+        final int c = peek();
+        if (EOF == c) { return false; }
+        if (isCommand(c)) {
+            // SVG path data must start with a moveto, there is no current point before it
+            if (lastCommand == 0 && c != 'M' && c != 'm') { throw error("Path data must start with a moveto"); }
+            position++;
+            command = (char) c;
+        } else if (isNumberStart(c)) {
+            command = switch (lastCommand) {
+                case 0        -> throw error("Path data must start with a command");
+                case 'Z', 'z' -> throw error("Unexpected number after closepath");
+                case 'M'      -> 'L';
+                case 'm'      -> 'l';
+                default       -> lastCommand;
+            };
+        } else {
+            throw error("Unexpected character '" + (char) c + "'");
+        }
+        switch (command) {
+            case 'M', 'm', 'L', 'l', 'T', 't' -> readNumbers(2);
+            case 'H', 'h', 'V', 'v', 'B', 'b' -> readNumbers(1);
+            case 'C', 'c'                     -> readNumbers(6);
+            case 'S', 's', 'Q', 'q'           -> readNumbers(4);
+            case 'A', 'a'                     -> {
+                readNumbers(3);
+                args[3] = readFlag();
+                args[4] = readFlag();
+                args[5] = readNumber();
+                args[6] = readNumber();
+            }
+            default -> { }
+        }
+        lastCommand = command;
+        return true;
+    }
+
+    /**
+     * @return the command letter of the current segment (always explicit, e.g. 'L' for the implicit lineto after a moveto)
+     */
+    char command() { return command; }
+
+    /**
+     * @param index index of the argument in the current segment
+     * @return the parsed argument, arc flags are returned as 0 or 1
+     */
+    double arg(final int index) { return args[index]; }
+
+    /**
+     * @return the offset of the next unread char in the source
+     */
+    long offset() { return bufferOffset + position; }
+
+    static boolean isCommand(final int c) {
+        return switch (c) {
+            case 'M', 'm', 'L', 'l', 'H', 'h', 'V', 'v', 'C', 'c', 'S', 's', 'Q', 'q', 'T', 't', 'A', 'a', 'B', 'b', 'Z', 'z' -> true;
+            default -> false;
+        };
+    }
+
+    private static boolean isNumberStart(final int c) { return (c >= '0' && c <= '9') || c == '.' || c == '-' || c == '+'; }
+
+    private static boolean isDigit(final int c) { return c >= '0' && c <= '9'; }
+
+    private static boolean isWhitespace(final int c) { return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f'; }
+
+    private int peek() {
+        if (position == limit && !fill()) { return EOF; }
+        return buffer[position];
+    }
+
+    private boolean fill() {
+        if (null != reader) { return fillFromReader(); }
+        if (sourceIndex >= sourceLength) { return false; }
+        final int length = Math.min(buffer.length, sourceLength - sourceIndex);
+        if (source instanceof String string) {
+            string.getChars(sourceIndex, sourceIndex + length, buffer, 0);
+        } else {
+            for (int i = 0 ; i < length ; i++) { buffer[i] = source.charAt(sourceIndex + i); }
+        }
+        bufferOffset = sourceIndex;
+        sourceIndex += length;
+        position     = 0;
+        limit        = length;
+        return true;
+    }
+
+    private boolean fillFromReader() {
+        final int length;
+        try {
+            length = reader.read(buffer, 0, buffer.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (length <= 0) { return false; }
+        bufferOffset += limit;
+        position      = 0;
+        limit         = length;
+        return true;
+    }
+
+    private void skipSeparators() {
+        int c = peek();
+        while (isWhitespace(c) || c == ',') {
+            position++;
+            c = peek();
+        }
+    }
+
+    private void readNumbers(final int count) {
+        for (int i = 0 ; i < count ; i++) { args[i] = readNumber(); }
+    }
+
+    private double readFlag() {
+        skipSeparators();
+        final int c = peek();
+        if (c != '0' && c != '1') { throw error("Expected arc flag (0 or 1)"); }
+        position++;
+        return c - '0';
+    }
+
+    /**
+     * Parses a number of the form [sign] (digits [. digits] | . digits) [(e|E) [sign] digits]
+     * directly from the buffer. The mantissa is accumulated in a long and scaled by an exact
+     * power of ten if that is guaranteed to be correctly rounded, otherwise it falls back to
+     * Double.parseDouble() on the collected chars.
+     */
+    private double readNumber() {
+        skipSeparators();
+        numberLength = 0;
+        int c = peek();
+        boolean negative = false;
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            c        = consume(c);
+        }
+        long    mantissa          = 0;
+        int     significantDigits = 0;
+        int     exponent          = 0;
+        boolean hasDigits         = false;
+        while (isDigit(c)) {
+            hasDigits = true;
+            if (significantDigits < 19) {
+                if (mantissa != 0 || c != '0') {
+                    mantissa = mantissa * 10 + (c - '0');
+                    significantDigits++;
+                }
+            } else {
+                exponent++;
+                significantDigits++;
+            }
+            c = consume(c);
+        }
+        if (c == '.') {
+            c = consume(c);
+            while (isDigit(c)) {
+                hasDigits = true;
+                if (significantDigits < 19) {
+                    if (mantissa != 0 || c != '0') {
+                        mantissa = mantissa * 10 + (c - '0');
+                        significantDigits++;
+                    }
+                    exponent--;
+                } else {
+                    significantDigits++;
+                }
+                c = consume(c);
+            }
+        }
+        if (!hasDigits) { throw error("Expected number"); }
+        if (c == 'e' || c == 'E') {
+            c = consume(c);
+            boolean negativeExponent = false;
+            if (c == '-' || c == '+') {
+                negativeExponent = c == '-';
+                c                = consume(c);
+            }
+            if (!isDigit(c)) { throw error("Expected exponent"); }
+            int explicitExponent = 0;
+            while (isDigit(c)) {
+                if (explicitExponent < 100_000) { explicitExponent = explicitExponent * 10 + (c - '0'); }
+                c = consume(c);
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        final double value;
+        if (significantDigits <= MAX_FAST_DIGITS && exponent >= -22 && exponent <= 22) {
+            value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+        } else if (mantissa == 0) {
+            value = 0;
+        } else {
+            // Overflow of the exponent is the only way to get a non finite value here
+            final double parsed = Double.parseDouble(new String(numberChars, 0, numberLength));
+            if (!Double.isFinite(parsed)) { throw error("Number out of range"); }
+            return parsed;
+        }
+        return negative ? -value : value;
+    }
+
+    private int consume(final int c) {
+        if (numberLength == numberChars.length) {
+            final char[] chars = new char[numberLength * 2];
+            System.arraycopy(numberChars, 0, chars, 0, numberLength);
+            numberChars = chars;
+        }
+        numberChars[numberLength++] = (char) c;
+        position++;
+        return peek();
+    }
+
+    private IllegalArgumentException error(final String message) {
+        return new IllegalArgumentException(message + " at index " + offset());
+    }
+}
@@ -0,0 +1,364 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+
+
+/**
+ * Extracts and converts the d attributes of all path elements in svg files.
+ * The files are memory mapped (small files are read into a heap buffer) and scanned
+ * for path tags without building a DOM, the attribute values are handed to the
+ * PathParser directly from the buffer (values with XML character or predefined entity
+ * references are decoded before). Files are processed in parallel on the common
+ * ForkJoinPool or on a given pool. Errors are collected per file/path instead of aborting the scan.
+ */
+public final class SVGFileScanner {
+    private static final int    MAPPING_THRESHOLD = 64 * 1024;
+    private static final String SVG_EXTENSION     = ".svg";
+
+    /**
+     * @param paths converted paths, the key is the file name followed by '#' and the id of the path element
+     *              (or its index in the file if it has no id), duplicate ids get a suffix (id-2, id-3, ...)
+     * @param errors errors, the key is the file name for io errors or the same key as in paths for malformed path data
+     */
+    public record Result(Map<String, PathData> paths, Map<String, Exception> errors) {
+        public boolean hasErrors() { return !errors.isEmpty(); }
+    }
+
+    private record FileResult(Map<String, PathData> paths, Map<String, Exception> errors) { }
+
+
+    // ******************** Constructors **************************************
+    private SVGFileScanner() {}
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Scans the given svg files and all svg files in the given directories (including sub directories).
+     * @param files svg files and/or directories
+     * @return converted paths and errors in the order of the files
+     * @throws IOException if a directory can't be walked
+     */
+    public static Result scan(final Path... files) throws IOException {
+        return scan(List.of(files));
+    }
+
+    /**
+     * Scans the given svg files and all svg files in the given directories (including sub directories).
+     * @param files svg files and/or directories
+     * @return converted paths and errors in the order of the files
+     * @throws IOException if a directory can't be walked
+     */
+    public static Result scan(final Collection<Path> files) throws IOException {
+        return scan(files, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Scans the given svg files and all svg files in the given directories (including sub directories)
+     * in parallel on the given ForkJoinPool.
+     * @param files svg files and/or directories
+     * @param pool the pool the files are scanned on
+     * @return converted paths and errors in the order of the files
+     * @throws IOException if a directory can't be walked
+     */
+    public static Result scan(final Collection<Path> files, final ForkJoinPool pool) throws IOException {
+        final List<Path> svgFiles = new ArrayList<>();
+        for (Path file : files) {
+            if (Files.isDirectory(file)) {
+                try (Stream<Path> stream = Files.walk(file)) {
+                    stream.filter(Files::isRegularFile)
+                          .filter(f -> f.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(SVG_EXTENSION))
+                          .sorted()
+                          .forEach(svgFiles::add);
+                }
+            } else {
+                svgFiles.add(file);
+            }
+        }
+        final FileResult[] results = new FileResult[svgFiles.size()];
+        pool.invoke(new ScanTask(svgFiles, results, 0, results.length));
+        final Map<String, PathData>  paths  = new LinkedHashMap<>();
+        final Map<String, Exception> errors = new LinkedHashMap<>();
+        for (FileResult fileResult : results) {
+            paths.putAll(fileResult.paths());
+            errors.putAll(fileResult.errors());
+        }
+        return new Result(Collections.unmodifiableMap(paths), Collections.unmodifiableMap(errors));
+    }
+
+    /**
+     * Converts the d attributes of all path elements in the given svg content.
+     * @param svg UTF-8 encoded svg content (the markup and the path data are ASCII, ids are decoded as UTF-8)
+     * @param name name that is used as prefix for the keys of the result
+     * @return converted paths and errors
+     */
+    public static Result scan(final ByteBuffer svg, final String name) {
+        final FileResult fileResult = scanBuffer(svg, name);
+        return new Result(Collections.unmodifiableMap(fileResult.paths()), Collections.unmodifiableMap(fileResult.errors()));
+    }
+
+    private static FileResult scanFile(final Path file) {
+        final String name = file.toString();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) { throw new IOException("File too large: " + size + " bytes"); }
+            final ByteBuffer buffer;
+            if (size < MAPPING_THRESHOLD) {
+                buffer = ByteBuffer.allocate((int) size);
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) { }
+                buffer.flip();
+            } else {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            return scanBuffer(buffer, name);
+        } catch (IOException e) {
+            return new FileResult(Map.of(), Map.of(name, e));
+        }
+    }
+
+    private static FileResult scanBuffer(final ByteBuffer buffer, final String name) {
+        final Map<String, PathData>  paths  = new LinkedHashMap<>();
+        final Map<String, Exception> errors = new LinkedHashMap<>();
+        final int                    limit  = buffer.limit();
+        int index     = buffer.position();
+        int pathIndex = 0;
+        while (index < limit) {
+            if (buffer.get(index) != '<') { index++; continue; }
+            if (startsWith(buffer, index, "<!--")) {
+                index = indexOf(buffer, index + 4, "-->");
+                index = index < 0 ? limit : index + 3;
+                continue;
+            }
+            if (!startsWith(buffer, index, "<path") || index + 5 >= limit || !isTagNameEnd(buffer.get(index + 5))) { index++; continue; }
+
+            // Parse attributes of the path tag
+            index += 5;
+            int dStart  = -1;
+            int dEnd    = -1;
+            int idStart = -1;
+            int idEnd   = -1;
+            while (index < limit && buffer.get(index) != '>') {
+                final byte b = buffer.get(index);
+                if (isWhitespace(b) || b == '/') { index++; continue; }
+                final int nameStart = index;
+                while (index < limit && buffer.get(index) != '=' && buffer.get(index) != '>' && !isWhitespace(buffer.get(index))) { index++; }
+                final int nameEnd = index;
+                while (index < limit && isWhitespace(buffer.get(index))) { index++; }
+                if (index >= limit || buffer.get(index) != '=') { continue; }
+                index++;
+                while (index < limit && isWhitespace(buffer.get(index))) { index++; }
+                if (index >= limit) { break; }
+                final byte quote = buffer.get(index);
+                if (quote != '"' && quote != '\'') { continue; }
+                final int valueStart = index + 1;
+                int valueEnd = valueStart;
+                while (valueEnd < limit && buffer.get(valueEnd) != quote) { valueEnd++; }
+                if (nameEnd - nameStart == 1 && buffer.get(nameStart) == 'd') {
+                    dStart = valueStart;
+                    dEnd   = valueEnd;
+                } else if (nameEnd - nameStart == 2 && buffer.get(nameStart) == 'i' && buffer.get(nameStart + 1) == 'd') {
+                    idStart = valueStart;
+                    idEnd   = valueEnd;
+                }
+                index = valueEnd + 1;
+            }
+            if (dStart >= 0) {
+                // Any failure while decoding the attributes or parsing the path data only affects this path
+                String key = null;
+                try {
+                    key = uniqueKey(name + "#" + (idStart < 0 ? Integer.toString(pathIndex) : utf8AttributeValue(buffer, idStart, idEnd)), paths, errors);
+                    final PathData.Builder builder = new PathData.Builder();
+                    PathParser.parse(attributeValue(buffer, dStart, dEnd), builder);
+                    paths.put(key, builder.build());
+                } catch (RuntimeException e) {
+                    errors.put(null == key ? uniqueKey(name + "#" + pathIndex, paths, errors) : key, e);
+                }
+            }
+            pathIndex++;
+        }
+        return new FileResult(paths, errors);
+    }
+
+    /**
+     * @return the given key or, if it is already used, the key with the smallest suffix (-2, -3, ...) that is not used
+     */
+    private static String uniqueKey(final String baseKey, final Map<String, PathData> paths, final Map<String, Exception> errors) {
+        String key = baseKey;
+        for (int i = 2 ; paths.containsKey(key) || errors.containsKey(key) ; i++) { key = baseKey + "-" + i; }
+        return key;
+    }
+
+    /**
+     * @return the attribute value as view on the buffer or, if it contains entity references, as decoded String
+     */
+    private static CharSequence attributeValue(final ByteBuffer buffer, final int start, final int end) {
+        final AsciiCharSequence value = new AsciiCharSequence(buffer, start, end);
+        for (int i = start ; i < end ; i++) {
+            if (buffer.get(i) == '&') { return decodeEntities(value); }
+        }
+        return value;
+    }
+
+    /**
+     * @return the UTF-8 decoded attribute value with decoded entity references, used for ids which may contain non ASCII characters
+     */
+    private static String utf8AttributeValue(final ByteBuffer buffer, final int start, final int end) {
+        final byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        final String value = new String(bytes, StandardCharsets.UTF_8);
+        return value.indexOf('&') < 0 ? value : decodeEntities(value);
+    }
+
+    /**
+     * Decodes character references (&#32; &#x20;) and the predefined entities (&lt; &gt; &amp; &quot; &apos;),
+     * unknown or malformed references are kept as they are
+     */
+    private static String decodeEntities(final CharSequence value) {
+        final StringBuilder decoded = new StringBuilder(value.length());
+        int i = 0;
+        while (i < value.length()) {
+            final char c   = value.charAt(i);
+            final int  end = c == '&' ? indexOf(value, ';', i + 1) : -1;
+            if (end < 0) {
+                decoded.append(c);
+                i++;
+                continue;
+            }
+            final String entity = value.subSequence(i + 1, end).toString();
+            final int    codePoint;
+            switch (entity) {
+                case "lt"   -> codePoint = '<';
+                case "gt"   -> codePoint = '>';
+                case "amp"  -> codePoint = '&';
+                case "quot" -> codePoint = '"';
+                case "apos" -> codePoint = '\'';
+                default     -> codePoint = characterReference(entity);
+            }
+            if (codePoint < 0) {
+                decoded.append(c);
+                i++;
+            } else {
+                decoded.appendCodePoint(codePoint);
+                i = end + 1;
+            }
+        }
+        return decoded.toString();
+    }
+
+    private static int characterReference(final String entity) {
+        if (entity.length() < 2 || entity.charAt(0) != '#') { return -1; }
+        final boolean hex    = entity.charAt(1) == 'x';
+        final String  digits = entity.substring(hex ? 2 : 1);
+        if (digits.isEmpty() || digits.length() > 6 || digits.charAt(0) == '+' || digits.charAt(0) == '-') { return -1; }
+        try {
+            final int codePoint = Integer.parseInt(digits, hex ? 16 : 10);
+            return Character.isValidCodePoint(codePoint) ? codePoint : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static int indexOf(final CharSequence value, final char c, final int fromIndex) {
+        for (int i = fromIndex ; i < value.length() ; i++) {
+            if (value.charAt(i) == c) { return i; }
+        }
+        return -1;
+    }
+
+    private static boolean startsWith(final ByteBuffer buffer, final int index, final String prefix) {
+        if (index + prefix.length() > buffer.limit()) { return false; }
+        for (int i = 0 ; i < prefix.length() ; i++) {
+            if (buffer.get(index + i) != prefix.charAt(i)) { return false; }
+        }
+        return true;
+    }
+
+    private static int indexOf(final ByteBuffer buffer, final int fromIndex, final String text) {
+        for (int i = fromIndex ; i <= buffer.limit() - text.length() ; i++) {
+            if (startsWith(buffer, i, text)) { return i; }
+        }
+        return -1;
+    }
+
+    private static boolean isTagNameEnd(final byte b) { return isWhitespace(b) || b == '/' || b == '>'; }
+
+    private static boolean isWhitespace(final byte b) { return b == ' ' || b == '\t' || b == '\n' || b == '\r'; }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * Scans the files from (inclusive) to (exclusive) by splitting the range in halves
+     */
+    private static final class ScanTask extends RecursiveAction {
+        private final List<Path>   files;
+        private final FileResult[] results;
+        private final int          from;
+        private final int          to;
+
+
+        ScanTask(final List<Path> files, final FileResult[] results, final int from, final int to) {
+            this.files   = files;
+            this.results = results;
+            this.from    = from;
+            this.to      = to;
+        }
+
+
+        @Override protected void compute() {
+            if (to - from <= 1) {
+                if (from < to) { results[from] = scanFile(files.get(from)); }
+                return;
+            }
+            final int middle = (from + to) >>> 1;
+            invokeAll(new ScanTask(files, results, from, middle), new ScanTask(files, results, middle, to));
+        }
+    }
+
+    /**
+     * Read only view on a range of a ByteBuffer that interprets every byte as one char.
+     */
+    private record AsciiCharSequence(ByteBuffer buffer, int start, int end) implements CharSequence {
+        @Override public int length() { return end - start; }
+
+        @Override public char charAt(final int index) { return (char) (buffer.get(start + index) & 0xFF); }
+
+        @Override public CharSequence subSequence(final int from, final int to) { return new AsciiCharSequence(buffer, start + from, start + to); }
+
+        @Override public String toString() {
+            final char[] chars = new char[length()];
+            for (int i = 0 ; i < chars.length ; i++) { chars[i] = charAt(i); }
+            return new String(chars);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+import javafx.scene.shape.Path;
+import javafx.scene.shape.PathElement;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Bounded LRU cache in front of the SVGPathConverter, keyed by the raw svg path string.
+ * The cache stores the immutable PathData, so every call of getPathElements() or getPath()
+ * returns new JavaFX objects that can be added to the scene graph independently.
+ * All methods are thread safe, the conversion of a missing entry is done outside of the lock.
+ */
+public class SVGPathCache {
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final int                             capacity;
+    private final LinkedHashMap<String, PathData> cache;
+    private final LongAdder                       hitCount;
+    private final LongAdder                       missCount;
+    private final LongAdder                       evictionCount;
+
+    /**
+     * Snapshot of the cache counters
+     */
+    public record Statistics(long hitCount, long missCount, long evictionCount, int size, int capacity) {
+        public double hitRate() {
+            final long requests = hitCount + missCount;
+            return requests == 0 ? 1.0 : (double) hitCount / requests;
+        }
+    }
+
+
+    // ******************** Constructors **************************************
+    public SVGPathCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity max number of cached paths, the least recently used path will be evicted if it is exceeded
+     */
+    public SVGPathCache(final int capacity) {
+        if (capacity < 1) { throw new IllegalArgumentException("Capacity must be > 0"); }
+        this.capacity      = capacity;
+        this.hitCount      = new LongAdder();
+        this.missCount     = new LongAdder();
+        this.evictionCount = new LongAdder();
+        this.cache         = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(final Map.Entry<String, PathData> eldest) {
+                if (size() > SVGPathCache.this.capacity) {
+                    evictionCount.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * @param svgPathString svg path string (raw or formatted)
+     * @return the cached PathData or the newly converted PathData if it was not in the cache
+     * @throws IllegalArgumentException if the svg path string is malformed
+     */
+    public PathData getPathData(final String svgPathString) {
+        PathData pathData;
+        synchronized (cache) { pathData = cache.get(svgPathString); }
+        if (null != pathData) {
+            hitCount.increment();
+            return pathData;
+        }
+        missCount.increment();
+        pathData = SVGPathConverter.INSTANCE.convertToPathData(svgPathString);
+        synchronized (cache) {
+            final PathData existing = cache.putIfAbsent(svgPathString, pathData);
+            return null == existing ? pathData : existing;
+        }
+    }
+
+    /**
+     * @param svgPathString svg path string (raw or formatted)
+     * @return new JavaFX PathElements created from the cached PathData
+     * @throws IllegalArgumentException if the svg path string is malformed
+     */
+    public List<PathElement> getPathElements(final String svgPathString) { return getPathData(svgPathString).toPathElements(); }
+
+    /**
+     * @param svgPathString svg path string (raw or formatted)
+     * @return new JavaFX Path created from the cached PathData
+     * @throws IllegalArgumentException if the svg path string is malformed
+     */
+    public Path getPath(final String svgPathString) { return getPathData(svgPathString).toPath(); }
+
+    public void invalidate(final String svgPathString) {
+        synchronized (cache) { cache.remove(svgPathString); }
+    }
+
+    public void clear() {
+        synchronized (cache) { cache.clear(); }
+    }
+
+    public int size() {
+        synchronized (cache) { return cache.size(); }
+    }
+
+    public int getCapacity() { return capacity; }
+
+    public long getHitCount() { return hitCount.sum(); }
+
+    public long getMissCount() { return missCount.sum(); }
+
+    public long getEvictionCount() { return evictionCount.sum(); }
+
+    public Statistics getStatistics() { return new Statistics(getHitCount(), getMissCount(), getEvictionCount(), size(), capacity); }
+
+    public void resetStatistics() {
+        hitCount.reset();
+        missCount.reset();
+        evictionCount.reset();
+    }
+}
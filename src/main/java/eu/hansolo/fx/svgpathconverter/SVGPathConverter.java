@@ -16,314 +16,255 @@
 
 package eu.hansolo.fx.svgpathconverter;
 
-import javafx.scene.shape.ArcTo;
-import javafx.scene.shape.ClosePath;
-import javafx.scene.shape.CubicCurveTo;
-import javafx.scene.shape.LineTo;
-import javafx.scene.shape.MoveTo;
 import javafx.scene.shape.PathElement;
-import javafx.scene.shape.QuadCurveTo;
+import javafx.scene.transform.Transform;
 
-import java.util.ArrayList;
+import java.awt.geom.Path2D;
+import java.util.Collection;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 
+/**
+ * Converts SVG path strings into JavaFX PathElements.
+ * The converter holds no mutable state apart from the optional statistics, all parsing state
+ * is local to each call. Because of that all methods can be called concurrently from any number of threads.
+ * Each call of format() and the convert methods emits a ConversionEvent if a JFR recording with
+ * the event "eu.hansolo.fx.svgpathconverter.Conversion" is running.
+ */
 public enum SVGPathConverter {
     INSTANCE;
 
-    private static final Pattern PATH_SEGMENT_PATTERN = Pattern.compile("[A-Za-z][^A-Za-z]*");
-    private static final Matcher PATH_SEGMENT_MATCHER = PATH_SEGMENT_PATTERN.matcher("");
-    private static final Pattern C_SPACE_PATTERN      = Pattern.compile("([-0-9]*[\\.0-9]+)(\\s)([-0-9]*[\\.0-9]+)(\\s)([-0-9]*[\\.0-9]+)(\\s)([-0-9]*[\\.0-9]+)(\\s)([-0-9]*[\\.0-9]+)(\\s)([-0-9]*[\\.0-9]+)");
-    private static final Matcher C_SPACE_MATCHER      = C_SPACE_PATTERN.matcher("");
-    private static final Pattern Q_SPACE_PATTERN      = Pattern.compile("([-0-9]*[\\.0-9]+)(\\s)([-0-9]*[\\.0-9]+)(\\s)([-0-9]*[\\.0-9]+)(\\s)([-0-9]*[\\.0-9]+)");
-    private static final Matcher Q_SPACE_MATCHER      = Q_SPACE_PATTERN.matcher("");
+    private final    ConversionStatistics statistics = new ConversionStatistics();
+    private volatile boolean              instrumentationEnabled;
 
-    record Point(double x, double y) {
-        public Point(String x, String y) {
-            this(Double.parseDouble(x), Double.parseDouble(y));
-        }
-        public Point(String[] xy) {
-            this(Double.parseDouble(xy[0]), Double.parseDouble(xy[1]));
-        }
-        public Point(Point p) {
-            this(p.x, p.y);
-        }
-        public Point(double[] xy) {
-            this(xy[0], xy[1]);
-        }
+    /**
+     * @param elements the converted JavaFX PathElements
+     * @param geometry geometry index with the same element indices as elements
+     */
+    public record PathWithGeometry(List<PathElement> elements, PathGeometry geometry) { }
+
+
+    /**
+     * Enables or disables the collection of ConversionStatistics (disabled by default).
+     * The statistics keep their values when the instrumentation is disabled.
+     * @param enabled true to count commands, bytes, elements and time of each call
+     */
+    public void setInstrumentationEnabled(final boolean enabled) { instrumentationEnabled = enabled; }
+
+    public boolean isInstrumentationEnabled() { return instrumentationEnabled; }
+
+    /**
+     * @return the statistics that are collected while the instrumentation is enabled
+     */
+    public ConversionStatistics getStatistics() { return statistics; }
 
-        @Override public String toString() { return x + "," + y; }
-    }
 
+    /**
+     * Normalizes the given svg path string so that every segment starts with its command letter,
+     * coordinate pairs are separated by a comma and groups by a space
+     * (e.g. "M 1 2 3 4" -> "M1,2L3,4"). Since convert() reads raw svg path strings directly,
+     * calling this method before convert() is no longer needed.
+     * @param svgPathString svg path string
+     * @return the normalized svg path string
+     */
     public String format(final String svgPathString) {
-        PATH_SEGMENT_MATCHER.reset(svgPathString);
-        StringBuilder pathString = new StringBuilder();
-        while(PATH_SEGMENT_MATCHER.find()) {
-            final String element    = PATH_SEGMENT_MATCHER.group();
-            final String identifier = element.substring(0, 1);
-            final String values     = element.substring(1).strip().replaceAll("([0-9]+)-([0-9]+)", "$1,-$2").replaceAll("\\s{2,}", " ").replaceAll("\s,", ",").replaceAll(",\s", ",");
+        final ConversionEvent event = new ConversionEvent();
+        if (!instrumentationEnabled && !event.isEnabled()) { return formatPath(svgPathString); }
+        event.begin();
+        final long start   = System.nanoTime();
+        boolean    success = false;
+        try {
+            final String result = formatPath(svgPathString);
+            success = true;
+            return result;
+        } finally {
+            record(event, "format", ConversionStatistics.Phase.FORMAT, svgPathString, null, 0, start, success);
+        }
+    }
+
+    private String formatPath(final String svgPathString) {
+        final PathTokenizer tokenizer  = new PathTokenizer(svgPathString);
+        final StringBuilder pathString = new StringBuilder(svgPathString.length());
+        while(tokenizer.next()) {
+            final char identifier = tokenizer.command();
+            pathString.append(identifier);
             switch(identifier) {
-                case "M", "m",
-                         "L", "l" -> {
-                    final long noOfCommas = values.chars().filter(ch -> ch == ',').count();
-                    if (noOfCommas == 1) {
-                        pathString.append(identifier).append(values.replaceAll("\s", ","));
-                    } else {
-                        Matcher m = Pattern.compile("([-0-9]*[\\.0-9]+)(,)([-0-9]*[\\.0-9]+)").matcher(values);
-                        while(m.find()) {
-                            pathString.append(identifier).append(m.group());
-                        }
-                    }
-                }
-                case "H", "h",
-                         "V", "v" -> pathString.append(identifier).append(values.replaceAll("\s", ","));
-                case "C", "c" -> {
-                    final long noOfCommas = values.chars().filter(ch -> ch == ',').count();
-                    final long noOfSpaces = values.chars().filter(ch -> ch == ' ').count();
-                    if (noOfSpaces == 5 && noOfCommas == 0) {
-                        pathString.append(identifier).append(values.replaceAll(C_SPACE_PATTERN.pattern(), "$1,$3 $5,$7 $9,$11"));
-                    } else if (noOfCommas == 5) {
-                        pathString.append(identifier).append(values.replaceAll("([-0-9]*[\\.0-9]+)(,)([-0-9]*[\\.0-9]+)(,)([-0-9]*[\\.0-9]+)(,)([-0-9]*[\\.0-9]+)(,)([-0-9]*[\\.0-9]+)(,)([-0-9]*[\\.0-9]+)", "$1,$3 $5,$7 $9,$11"));
-                    } else if (noOfCommas == 2) {
-                        pathString.append(identifier).append(values.replaceAll(",", " ").replaceAll(C_SPACE_PATTERN.pattern(), "$1,$3 $5,$7 $9,$11"));
-                    } else if (noOfSpaces == 2) {
-                        pathString.append(identifier).append(values.trim());
-                    } else if (noOfCommas > 3) {
-                        C_SPACE_MATCHER.reset(values.replaceAll(",", " "));
-                        while(C_SPACE_MATCHER.find()) {
-                            pathString.append(identifier).append(C_SPACE_MATCHER.group(1)).append(",").append(C_SPACE_MATCHER.group(3)).append(" ").append(C_SPACE_MATCHER.group(5)).append(",").append(C_SPACE_MATCHER.group(7)).append(" ").append(C_SPACE_MATCHER.group(9)).append(",").append(C_SPACE_MATCHER.group(11));
-                        }
-                    }
-                }
-                case "S", "s" -> {
-                    final long noOfCommas = values.chars().filter(ch -> ch == ',').count();
-                    final long noOfSpaces = values.chars().filter(ch -> ch == ' ').count();
-                    if (noOfCommas == 1) {
-                        pathString.append(identifier).append(values.replaceAll(",", " ").replaceAll("([-0-9]*[\\.0-9]+)(\\s)([-0-9]*[\\.0-9]+)(\\s)([-0-9]*[\\.0-9]+)(\\s)([-0-9]*[\\.0-9]+)", "$1,$3 $5,$7"));
-                    } else if (noOfSpaces == 3) {
-                        pathString.append(identifier).append(values.replaceAll("([-0-9]*[\\.0-9]+)(\\s)([-0-9]*[\\.0-9]+)(\\s)([-0-9]*[\\.0-9]+)(\\s)([-0-9]*[\\.0-9]+)", "$1,$3 $5,$7"));
-                    } else {
-                        pathString.append(identifier).append(values);
-                    }
+                case 'M', 'm', 'L', 'l',
+                     'T', 't'           -> appendPair(pathString, tokenizer, 0);
+                case 'H', 'h', 'V', 'v',
+                     'B', 'b'           -> appendNumber(pathString, tokenizer.arg(0));
+                case 'C', 'c'           -> {
+                    appendPair(pathString, tokenizer, 0).append(' ');
+                    appendPair(pathString, tokenizer, 2).append(' ');
+                    appendPair(pathString, tokenizer, 4);
                 }
-                case "Q", "q" -> {
-                    final long noOfCommas = values.chars().filter(ch -> ch == ',').count();
-                    final long noOfSpaces = values.chars().filter(ch -> ch == ' ').count();
-                    if (noOfCommas == 1) {
-                        pathString.append(identifier).append(values.replaceAll(",", " ").replaceAll(Q_SPACE_PATTERN.pattern(), "$1,$3 $5,$7"));
-                    } else if (noOfSpaces == 3) {
-                        pathString.append(identifier).append(values.replaceAll(Q_SPACE_PATTERN.pattern(), "$1,$3 $5,$7"));
-                    } else if (noOfCommas == 3) {
-                        pathString.append(identifier).append(values.replaceAll("([-0-9]*[\\.0-9]+)(,)([-0-9]*[\\.0-9]+)(,)([-0-9]*[\\.0-9]+)(,)([-0-9]*[\\.0-9]+)", "$1,$3 $5,$7"));
-                    } else if (noOfCommas > 1) {
-                        Q_SPACE_MATCHER.reset(values.replaceAll(",", " "));
-                        while(Q_SPACE_MATCHER.find()) {
-                            pathString.append(identifier).append(Q_SPACE_MATCHER.group(1)).append(",").append(Q_SPACE_MATCHER.group(3)).append(" ").append(Q_SPACE_MATCHER.group(5)).append(",").append(Q_SPACE_MATCHER.group(7));
-                        }
-                    } else {
-                        pathString.append(identifier).append(values);
-                    }
+                case 'S', 's', 'Q', 'q' -> {
+                    appendPair(pathString, tokenizer, 0).append(' ');
+                    appendPair(pathString, tokenizer, 2);
                 }
-                case "T", "t" -> pathString.append(identifier).append(values.strip().replaceAll("\s", ","));
-                case "A", "a" -> {
-                    final long noOfCommas = values.chars().filter(ch -> ch == ',').count();
-                    final long noOfSpaces = values.chars().filter(ch -> ch == ' ').count();
-                    if (noOfSpaces == 6) {
-                        pathString.append(identifier).append(values.replaceAll("([-0-9]*[\\.0-9]+)(\\s)([-0-9]*[\\.0-9]+)(\\s)([-0-9]*[\\.0-9]+)(\\s)([-0-9]*[\\.0-9]+)(\\s)([-0-9]*[\\.0-9]+)(\\s)([-0-9]*[\\.0-9]+)(\\s)([-0-9]*[\\.0-9]+)", "$1,$3 $5 $7 $9 $11,$13"));
-                    } else if (noOfCommas == 6) {
-                        pathString.append(identifier).append(values.replaceAll("([-0-9]*[\\.0-9]+)(,)([-0-9]*[\\.0-9]+)(,)([-0-9]*[\\.0-9]+)(,)([-0-9]*[\\.0-9]+)(,)([-0-9]*[\\.0-9]+)(,)([-0-9]*[\\.0-9]+)(,)([-0-9]*[\\.0-9]+)", "$1,$3 $5 $7 $9 $11,$13"));
-                    } else if (noOfCommas == 2 && noOfSpaces == 4) {
-                        pathString.append(identifier).append(values);
-                    } else if (noOfCommas == 3) {
-                        int indexComma2 = values.indexOf(',', values.indexOf(',') + 1);
-                        pathString.append(identifier).append(values, 0, indexComma2).append(" ").append(values.substring(indexComma2 + 1));
-                    } else if (noOfCommas == 4) {
-                        pathString.append(identifier).append(values.replaceAll(",", " ").replaceAll("([-0-9]*[\\.0-9]+)(\\s)([-0-9]*[\\.0-9]+)(\\s)([-0-9]*[\\.0-9]+)(\\s)([-0-9]*[\\.0-9]+)(\\s)([-0-9]*[\\.0-9]+)(\\s)([-0-9]*[\\.0-9]+)(\\s)([-0-9]*[\\.0-9]+)", "$1,$3 $5 $7 $9 $11,$13"));
-                    }
+                case 'A', 'a'           -> {
+                    appendPair(pathString, tokenizer, 0).append(' ');
+                    appendNumber(pathString, tokenizer.arg(2)).append(' ');
+                    appendNumber(pathString, tokenizer.arg(3)).append(' ');
+                    appendNumber(pathString, tokenizer.arg(4)).append(' ');
+                    appendPair(pathString, tokenizer, 5);
                 }
-                case "B", "b" -> pathString.append(identifier).append(values.strip().replaceAll("\s", ","));
-                case "Z", "z" -> pathString.append(identifier);
+                default                 -> { }
             }
         }
         return pathString.toString();
     }
 
+    /**
+     * Converts the given svg path string into a list of JavaFX PathElements with absolute coordinates.
+     * The string is scanned in one pass, it doesn't have to be formatted with format() before.
+     * @param svgPathString svg path string (raw or formatted)
+     * @return list of JavaFX PathElements
+     * @throws IllegalArgumentException if the svg path string is malformed
+     */
     public List<PathElement> convert(final String svgPathString) {
-        final List<PathElement> elements = new ArrayList<>();
-        PATH_SEGMENT_MATCHER.reset(svgPathString);
-        Point lastPoint        = new Point(0, 0);
-        Point lastControlPoint = new Point(0, 0);
-        double bearing         = 0;
-        double lastBearing     = 0;
-        while(PATH_SEGMENT_MATCHER.find()) {
-            final String element    = PATH_SEGMENT_MATCHER.group();
-            final String identifier = element.substring(0, 1);
-            final String values     = element.substring(1);
-            switch(identifier) {
-                case "M" -> {
-                    final String[] xy = values.split(",");
-                    elements.add(new MoveTo(Double.parseDouble(xy[0]), Double.parseDouble(xy[1])));
-                    lastPoint  = new Point(xy);
-                }
-                case "m" -> {
-                    final String[] xy = values.split(",");
-                    final Point    p  = new Point(lastPoint.x + Double.parseDouble(xy[0]), lastPoint.y + Double.parseDouble(xy[1]));
-                    elements.add(new MoveTo(p.x, p.y));
-                    lastPoint  = new Point(p.x, p.y);
-                }
-                case "L" -> {
-                    final String[] xy = values.split(",");
-                    elements.add(new LineTo(Double.parseDouble(xy[0]), Double.parseDouble(xy[1])));
-                    lastPoint = new Point(xy);
-                }
-                case "l" -> {
-                    final String[] xy = values.split(",");
-                    final Point    p  = new Point(lastPoint.x + Double.parseDouble(xy[0]), lastPoint.y + Double.parseDouble(xy[1]));
-                    elements.add(new LineTo(p.x, p.y));
-                    lastPoint = p;
-                }
-                case "H" -> {
-                    final Point p = new Point(Double.parseDouble(values), lastPoint.y);
-                    elements.add(new LineTo(p.x, p.y));
-                    lastPoint = p;
-                }
-                case "h" -> {
-                    final Point p;
-                    if (bearing == 0) {
-                        p = new Point(lastPoint.x + Double.parseDouble(values), lastPoint.y);
-                    } else {
-                        p = new Point(rotatePointAroundRotationCenter(lastPoint.x + Double.parseDouble(values), lastPoint.y, lastPoint.x, lastPoint.y, bearing));
-                    }
-                    elements.add(new LineTo(p.x, p.y));
-                    lastPoint = p;
-                }
-                case "V" -> {
-                    final Point p = new Point(lastPoint.x, Double.parseDouble(values));
-                    elements.add(new LineTo(p.x, p.y));
-                    lastPoint = p;
-                }
-                case "v" -> {
-                    final Point p = new Point(lastPoint.x, lastPoint.y + Double.parseDouble(values));
-                    elements.add(new LineTo(p.x, p.y));
-                    lastPoint = p;
-                }
-                case "C" -> {
-                    final String[] groups   = values.split(" ");
-                    final String[] control1 = groups[0].split(",");
-                    final String[] control2 = groups[1].split(",");
-                    final String[] xy       = groups[2].split(",");
-                    elements.add(new CubicCurveTo(Double.parseDouble(control1[0]), Double.parseDouble(control1[1]),
-                                                  Double.parseDouble(control2[0]), Double.parseDouble(control2[1]),
-                                                  Double.parseDouble(xy[0]), Double.parseDouble(xy[1])));
-                    lastPoint        = new Point(xy);
-                    lastControlPoint = new Point(control2);
-                }
-                case "c" -> {
-                    final String[] groups   = values.split(" ");
-                    final String[] control1 = groups[0].split(",");
-                    final String[] control2 = groups[1].split(",");
-                    final String[] xy       = groups[2].split(",");
-                    final Point    c1       = new Point(lastPoint.x + Double.parseDouble(control1[0]), lastPoint.y + Double.parseDouble(control1[1]));
-                    final Point    c2       = new Point(lastPoint.x + Double.parseDouble(control2[0]), lastPoint.y + Double.parseDouble(control2[1]));
-                    final Point    p        = new Point(lastPoint.x + Double.parseDouble(xy[0]), lastPoint.y + Double.parseDouble(xy[1]));
-                    elements.add(new CubicCurveTo(c1.x, c1.y, c2.x, c2.y, p.x, p.y));
-                    lastPoint        = p;
-                    lastControlPoint = c2;
-                }
-                case "S" -> {
-                    final String[] groups   = values.split(" ");
-                    final String[] control2 = groups[0].split(",");
-                    final String[] xy       = groups[1].split(",");
-                    final Point   c1        = new Point(rotatePointAroundRotationCenter(lastControlPoint.x, lastControlPoint.y, lastPoint.x, lastPoint.y, 180));
-                    elements.add(new CubicCurveTo(c1.x, c1.y, Double.parseDouble(control2[0]), Double.parseDouble(control2[1]), Double.parseDouble(xy[0]), Double.parseDouble(xy[1])));
-                    lastPoint        = new Point(xy);
-                    lastControlPoint = new Point(control2);
-                }
-                case "s" -> {
-                    final String[] groups   = values.split(" ");
-                    final String[] control2 = groups[0].split(",");
-                    final String[] xy       = groups[1].split(",");
-                    final Point    c1       = new Point(rotatePointAroundRotationCenter(lastControlPoint.x, lastControlPoint.y, lastPoint.x, lastPoint.y, 180));
-                    final Point    c2       = new Point(lastPoint.x + Double.parseDouble(control2[0]), lastPoint.y + Double.parseDouble(control2[1]));
-                    final Point    p        = new Point(lastPoint.x + Double.parseDouble(xy[0]), lastPoint.y + Double.parseDouble(xy[1]));
-                    elements.add(new CubicCurveTo(c1.x, c1.y, c2.x, c2.y, p.x, p.y));
-                    lastPoint        = p;
-                    lastControlPoint = c2;
-                }
-                case "Q" -> {
-                    final String[] groups   = values.split(" ");
-                    final String[] control1 = groups[0].split(",");
-                    final String[] xy       = groups[1].split(",");
-                    elements.add(new QuadCurveTo(Double.parseDouble(control1[0]), Double.parseDouble(control1[1]),
-                                                 Double.parseDouble(xy[0]), Double.parseDouble(xy[1])));
-                    lastPoint        = new Point(xy);
-                    lastControlPoint = new Point(control1);
-                }
-                case "q" -> {
-                    final String[] groups   = values.split(" ");
-                    final String[] control1 = groups[0].split(",");
-                    final String[] xy       = groups[1].split(",");
-                    final Point    c1       = new Point(lastPoint.x + Double.parseDouble(control1[0]), lastPoint.y + Double.parseDouble(control1[1]));
-                    final Point    p        = new Point(lastPoint.x + Double.parseDouble(xy[0]), lastPoint.y + Double.parseDouble(xy[1]));
-                    elements.add(new QuadCurveTo(c1.x, c1.y, p.x, p.y));
-                    lastPoint        = p;
-                    lastControlPoint = c1;
-                }
-                case "T" -> {
-                    final String[] groups = values.split(" ");
-                    final String[] xy     = groups[0].split(",");
-                    final Point    c1     = new Point(rotatePointAroundRotationCenter(lastControlPoint.x, lastControlPoint.y, lastPoint.x, lastPoint.y, 180));
-                    elements.add(new QuadCurveTo(c1.x, c1.y, Double.parseDouble(xy[0]), Double.parseDouble(xy[1])));
-                    lastPoint        = new Point(xy);
-                    lastControlPoint = c1;
-                }
-                case "t" -> {
-                    final String[] groups = values.split(" ");
-                    final String[] xy     = groups[0].split(",");
-                    final Point c1        = new Point(rotatePointAroundRotationCenter(lastControlPoint.x, lastControlPoint.y, lastPoint.x, lastPoint.y, 180));
-                    final Point p         = new Point(lastPoint.x + Double.parseDouble(xy[0]), lastPoint.y + Double.parseDouble(xy[1]));
-                    elements.add(new QuadCurveTo(c1.x, c1.y, p.x, p.y));
-                    lastPoint        = p;
-                    lastControlPoint = c1;
-                }
-                case "A" -> {
-                    final String[] groups   = values.split(" ");
-                    final String[] radius   = groups[0].split(",");
-                    final String   rotation = groups[1];
-                    final String   largeArc = groups[2];
-                    final String   sweep    = groups[3];
-                    final String[] xy       = groups[4].split(",");
-                    elements.add(new ArcTo(Double.parseDouble(radius[0]), Double.parseDouble(radius[1]), Double.parseDouble(rotation), Double.parseDouble(xy[0]), Double.parseDouble(xy[1]), largeArc.equals("1"), sweep.equals("1")));
-                    lastPoint = new Point(xy);
-                }
-                case "a" -> {
-                    final String[] groups   = values.split(" ");
-                    final String[] radius   = groups[0].split(",");
-                    final String   rotation = groups[1];
-                    final String   largeArc = groups[2];
-                    final String   sweep    = groups[3];
-                    final String[] xy       = groups[4].split(",");
-                    final Point    rp       = new Point(Double.parseDouble(radius[0]), Double.parseDouble(radius[1]));
-                    final Point    p        = new Point(lastPoint.x + Double.parseDouble(xy[0]), lastPoint.y + Double.parseDouble(xy[1]));
-                    elements.add(new ArcTo(rp.x, rp.y, Double.parseDouble(rotation), p.x, p.y, largeArc.equals("1"), sweep.equals("1")));
-                    lastPoint = p;
-                }
-                case "B" -> {
-                    bearing     = Double.parseDouble(values);
-                    lastBearing = bearing;
-                }
-                case "b" -> {
-                    bearing     = (lastBearing + Double.parseDouble(values)) % 360.0;
-                    lastBearing = bearing;
-                }
-                case "Z", "z" -> {
-                    elements.add(new ClosePath());
-                }
-            }
+        final PathElementHandler handler = new PathElementHandler();
+        parse("convert", svgPathString, handler);
+        return handler.getElements();
+    }
+
+    /**
+     * Converts the given svg path string into a list of JavaFX PathElements and applies the given
+     * transform to the coordinates while they are produced, so the elements don't have to be modified afterwards.
+     * @param svgPathString svg path string (raw or formatted)
+     * @param transform 2D transform (e.g. Affine, Scale, Translate or Rotate), the z components are ignored
+     * @return list of JavaFX PathElements with transformed coordinates
+     * @throws IllegalArgumentException if the svg path string is malformed
+     */
+    public List<PathElement> convert(final String svgPathString, final Transform transform) {
+        final PathElementHandler handler = new PathElementHandler();
+        parse("convert", svgPathString, new TransformHandler(handler, transform.getMxx(), transform.getMxy(), transform.getTx(), transform.getMyx(), transform.getMyy(), transform.getTy()));
+        return handler.getElements();
+    }
+
+    /**
+     * Converts one very large svg path string (e.g. with thousands of subpaths) into a list of JavaFX PathElements
+     * by parsing chunks of subpaths in parallel on the common ForkJoinPool, see ParallelPathParser.
+     * Small paths and paths with bearings are converted sequentially.
+     * @param svgPathString svg path string (raw or formatted)
+     * @return list of JavaFX PathElements, the same elements as returned by convert() but the coordinates
+     *         may differ in the last bits because they are summed up in a different order
+     * @throws IllegalArgumentException if the svg path string is malformed
+     */
+    public List<PathElement> convertParallel(final String svgPathString) {
+        final PathElementHandler handler = new PathElementHandler();
+        final ConversionEvent    event   = new ConversionEvent();
+        if (!instrumentationEnabled && !event.isEnabled()) {
+            ParallelPathParser.parse(svgPathString, handler);
+            return handler.getElements();
+        }
+        final int[] commandCounts = new int[ConversionStatistics.COMMANDS.length()];
+        event.begin();
+        final long start   = System.nanoTime();
+        boolean    success = false;
+        try {
+            ParallelPathParser.parse(svgPathString, handler, ForkJoinPool.commonPool(), commandCounts);
+            success = true;
+        } finally {
+            record(event, "convertParallel", ConversionStatistics.Phase.CONVERT, svgPathString, commandCounts, handler.getElements().size(), start, success);
         }
-        return elements;
+        return handler.getElements();
+    }
+
+    /**
+     * Converts the given svg path string into the compact PathData representation with absolute
+     * double coordinates. PathElements can be created from it on demand.
+     * @param svgPathString svg path string (raw or formatted)
+     * @return PathData
+     * @throws IllegalArgumentException if the svg path string is malformed
+     */
+    public PathData convertToPathData(final String svgPathString) {
+        return convertToPathData(svgPathString, PathData.Precision.DOUBLE);
+    }
+
+    /**
+     * Converts the given svg path string into the compact PathData representation with absolute
+     * coordinates of the given precision. PathElements can be created from it on demand.
+     * @param svgPathString svg path string (raw or formatted)
+     * @param precision precision of the stored coordinates
+     * @return PathData
+     * @throws IllegalArgumentException if the svg path string is malformed
+     */
+    public PathData convertToPathData(final String svgPathString, final PathData.Precision precision) {
+        final PathData.Builder builder = new PathData.Builder();
+        parse("convertToPathData", svgPathString, builder);
+        return builder.build(precision);
+    }
+
+    /**
+     * Converts the given svg path string into a list of JavaFX PathElements and builds the PathGeometry
+     * of the path in the same pass, e.g. for bounds queries and hit testing of interactive shapes.
+     * @param svgPathString svg path string (raw or formatted)
+     * @return list of JavaFX PathElements and the geometry index of the path
+     * @throws IllegalArgumentException if the svg path string is malformed
+     */
+    public PathWithGeometry convertWithGeometry(final String svgPathString) {
+        final PathElementHandler handler = new PathElementHandler();
+        final PathData.Builder   builder = new PathData.Builder();
+        parse("convertWithGeometry", svgPathString, new CompositePathHandler(handler, builder));
+        return new PathWithGeometry(handler.getElements(), PathGeometry.of(builder.build()));
+    }
+
+    /**
+     * Converts the given svg path string into a java.awt.geom.Path2D.Double without creating any JavaFX objects,
+     * e.g. to render paths with Java2D on a server. Arcs are approximated by cubic curves.
+     * @param svgPathString svg path string (raw or formatted)
+     * @return Path2D.Double
+     * @throws IllegalArgumentException if the svg path string is malformed
+     */
+    public Path2D.Double convertToPath2D(final String svgPathString) {
+        final Path2DHandler handler = new Path2DHandler();
+        parse("convertToPath2D", svgPathString, handler);
+        return handler.getPath();
+    }
+
+    /**
+     * Converts the given svg path string into a normalized svg path string with absolute coordinates
+     * (e.g. "m 1 2 3 4" -> "M1,2L4,6"), which can be used as content of a JavaFX SVGPath.
+     * @param svgPathString svg path string (raw or formatted)
+     * @return normalized svg path string with absolute coordinates
+     * @throws IllegalArgumentException if the svg path string is malformed
+     */
+    public String convertToSVGString(final String svgPathString) {
+        final SVGStringHandler handler = new SVGStringHandler(new StringBuilder(svgPathString.length()));
+        parse("convertToSVGString", svgPathString, handler);
+        return handler.toString();
+    }
+
+    /**
+     * Converts all given svg path strings in parallel on the common ForkJoinPool.
+     * The returned list has the same order as the given collection.
+     * The PathElements are not attached to a scene graph, so they can be created on any thread.
+     * @param svgPathStrings svg path strings (raw or formatted)
+     * @return list of converted PathElement lists in the order of the given collection
+     * @throws IllegalArgumentException if one of the svg path strings is malformed
+     */
+    public List<List<PathElement>> convertAll(final Collection<String> svgPathStrings) {
+        return convertAll(svgPathStrings, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Converts all given svg path strings in parallel on the given ForkJoinPool.
+     * The paths are split into ForkJoinTasks that all run in the given pool.
+     * The returned list has the same order as the given collection.
+     * @param svgPathStrings svg path strings (raw or formatted)
+     * @param pool the pool that should be used for the conversion
+     * @return list of converted PathElement lists in the order of the given collection
+     * @throws IllegalArgumentException if one of the svg path strings is malformed
+     */
+    @SuppressWarnings("unchecked")
+    public List<List<PathElement>> convertAll(final Collection<String> svgPathStrings, final ForkJoinPool pool) {
+        final String[]            paths   = svgPathStrings.toArray(new String[0]);
+        final List<PathElement>[] results = new List[paths.length];
+        pool.invoke(new ConvertAllTask(paths, results, 0, paths.length));
+        return List.of(results);
     }
 
     public static final double[] rotatePointAroundRotationCenter(final double x, final double y, final double rX, final double rY, final double angleDeg) {
@@ -334,4 +275,90 @@ public enum SVGPathConverter {
         final double nY  = rY + (x - rX) * sin + (y - rY) * cos;
         return new double[] { nX, nY };
     }
+
+    /**
+     * Parses the svg path string and counts the commands, bytes, elements and time if the
+     * instrumentation is enabled or a JFR recording of the ConversionEvent is running.
+     */
+    private void parse(final String operation, final String svgPathString, final PathHandler handler) {
+        final ConversionEvent event = new ConversionEvent();
+        if (!instrumentationEnabled && !event.isEnabled()) {
+            PathParser.parse(svgPathString, handler);
+            return;
+        }
+        final int[] commandCounts = new int[ConversionStatistics.COMMANDS.length()];
+        event.begin();
+        final long start   = System.nanoTime();
+        boolean    success = false;
+        try {
+            PathParser.parse(new PathTokenizer(svgPathString), handler, commandCounts);
+            success = true;
+        } finally {
+            record(event, operation, ConversionStatistics.Phase.CONVERT, svgPathString, commandCounts, ConversionStatistics.elementCount(commandCounts), start, success);
+        }
+    }
+
+    private void record(final ConversionEvent event, final String operation, final ConversionStatistics.Phase phase, final String svgPathString,
+                        final int[] commandCounts, final long elements, final long start, final boolean success) {
+        final long time = System.nanoTime() - start;
+        event.end();
+        if (instrumentationEnabled) { statistics.record(phase, svgPathString.length(), commandCounts, elements, time, success); }
+        if (event.shouldCommit()) {
+            long segments = -1;
+            if (null != commandCounts) {
+                segments = 0;
+                for (int count : commandCounts) { segments += count; }
+            }
+            event.operation = operation;
+            event.length    = svgPathString.length();
+            event.segments  = segments;
+            event.elements  = elements;
+            event.success   = success;
+            event.commit();
+        }
+    }
+
+    private static StringBuilder appendPair(final StringBuilder builder, final PathTokenizer tokenizer, final int index) {
+        return appendNumber(appendNumber(builder, tokenizer.arg(index)).append(','), tokenizer.arg(index + 1));
+    }
+
+    /**
+     * Appends the value in svg number syntax, integer values without decimals
+     * @throws IllegalArgumentException if the value is infinite or NaN, which can't be written in svg path data
+     */
+    static StringBuilder appendNumber(final StringBuilder builder, final double value) {
+        if (!Double.isFinite(value)) { throw new IllegalArgumentException("Number out of range: " + value); }
+        final long longValue = (long) value;
+        return longValue == value && Math.abs(value) < 1e15 ? builder.append(longValue) : builder.append(value);
+    }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * Converts the paths from (inclusive) to (exclusive) by splitting the range in halves
+     */
+    private static final class ConvertAllTask extends RecursiveAction {
+        private final String[]            paths;
+        private final List<PathElement>[] results;
+        private final int                 from;
+        private final int                 to;
+
+
+        ConvertAllTask(final String[] paths, final List<PathElement>[] results, final int from, final int to) {
+            this.paths   = paths;
+            this.results = results;
+            this.from    = from;
+            this.to      = to;
+        }
+
+
+        @Override protected void compute() {
+            if (to - from <= 1) {
+                if (from < to) { results[from] = INSTANCE.convert(paths[from]); }
+                return;
+            }
+            final int middle = (from + to) >>> 1;
+            invokeAll(new ConvertAllTask(paths, results, from, middle), new ConvertAllTask(paths, results, middle, to));
+        }
+    }
 }
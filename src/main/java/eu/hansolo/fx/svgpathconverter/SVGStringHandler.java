@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+
+/**
+ * PathHandler that writes a normalized svg path string with absolute coordinates
+ * (e.g. "M1,2L3,4Q5,6 7,8Z"), which can be used as content of a JavaFX SVGPath or in svg files.
+ * Not thread safe, use one handler per path.
+ */
+public class SVGStringHandler implements PathHandler {
+    private final StringBuilder builder;
+
+
+    // ******************** Constructors **************************************
+    public SVGStringHandler() {
+        this(new StringBuilder());
+    }
+
+    /**
+     * @param builder StringBuilder the path string will be appended to
+     */
+    public SVGStringHandler(final StringBuilder builder) {
+        this.builder = builder;
+    }
+
+
+    // ******************** Methods *******************************************
+    @Override public void moveTo(final double x, final double y) { appendPair(builder.append('M'), x, y); }
+
+    @Override public void lineTo(final double x, final double y) { appendPair(builder.append('L'), x, y); }
+
+    @Override public void quadTo(final double controlX, final double controlY, final double x, final double y) {
+        appendPair(appendPair(builder.append('Q'), controlX, controlY).append(' '), x, y);
+    }
+
+    @Override public void cubicTo(final double controlX1, final double controlY1, final double controlX2, final double controlY2, final double x, final double y) {
+        appendPair(appendPair(appendPair(builder.append('C'), controlX1, controlY1).append(' '), controlX2, controlY2).append(' '), x, y);
+    }
+
+    @Override public void arcTo(final double radiusX, final double radiusY, final double xAxisRotation, final boolean largeArcFlag, final boolean sweepFlag, final double x, final double y) {
+        appendPair(builder.append('A'), radiusX, radiusY).append(' ');
+        SVGPathConverter.appendNumber(builder, xAxisRotation).append(' ');
+        builder.append(largeArcFlag ? '1' : '0').append(' ');
+        builder.append(sweepFlag ? '1' : '0').append(' ');
+        appendPair(builder, x, y);
+    }
+
+    @Override public void closePath() { builder.append('Z'); }
+
+    public StringBuilder getBuilder() { return builder; }
+
+    @Override public String toString() { return builder.toString(); }
+
+    private static StringBuilder appendPair(final StringBuilder builder, final double x, final double y) {
+        return SVGPathConverter.appendNumber(SVGPathConverter.appendNumber(builder, x).append(','), y);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+
+/**
+ * PathHandler that applies an affine transform to all coordinates before they are passed to
+ * the delegate, so no PathElements have to be modified after the conversion.
+ * The matrix has the same layout as javafx.scene.transform.Affine:
+ * x' = mxx * x + mxy * y + tx, y' = myx * x + myy * y + ty
+ * Arcs are transformed exactly, the image of an ellipse under an affine transform is again an
+ * ellipse whose radii and rotation are computed with a singular value decomposition.
+ * Not thread safe, use one handler per path.
+ */
+public class TransformHandler implements PathHandler {
+    private final PathHandler delegate;
+    private final double      mxx;
+    private final double      mxy;
+    private final double      tx;
+    private final double      myx;
+    private final double      myy;
+    private final double      ty;
+    private final boolean     mirrored;
+
+
+    // ******************** Constructors **************************************
+    /**
+     * @param delegate handler that receives the transformed segments
+     * @param mxx the X coordinate scaling element
+     * @param mxy the XY coordinate element
+     * @param tx the X coordinate translation element
+     * @param myx the YX coordinate element
+     * @param myy the Y coordinate scaling element
+     * @param ty the Y coordinate translation element
+     */
+    public TransformHandler(final PathHandler delegate, final double mxx, final double mxy, final double tx, final double myx, final double myy, final double ty) {
+        this.delegate = delegate;
+        this.mxx      = mxx;
+        this.mxy      = mxy;
+        this.tx       = tx;
+        this.myx      = myx;
+        this.myy      = myy;
+        this.ty       = ty;
+        this.mirrored = mxx * myy - mxy * myx < 0;
+    }
+
+
+    // ******************** Methods *******************************************
+    public static TransformHandler translate(final PathHandler delegate, final double x, final double y) {
+        return new TransformHandler(delegate, 1, 0, x, 0, 1, y);
+    }
+
+    public static TransformHandler scale(final PathHandler delegate, final double x, final double y) {
+        return new TransformHandler(delegate, x, 0, 0, 0, y, 0);
+    }
+
+    /**
+     * @param delegate handler that receives the transformed segments
+     * @param angleDeg rotation angle in degrees (clockwise on screen, like JavaFX)
+     * @param pivotX x coordinate of the rotation center
+     * @param pivotY y coordinate of the rotation center
+     * @return TransformHandler that rotates around the given pivot
+     */
+    public static TransformHandler rotate(final PathHandler delegate, final double angleDeg, final double pivotX, final double pivotY) {
+        final double sin = Math.sin(Math.toRadians(angleDeg));
+        final double cos = Math.cos(Math.toRadians(angleDeg));
+        return new TransformHandler(delegate, cos, -sin, pivotX - pivotX * cos + pivotY * sin, sin, cos, pivotY - pivotX * sin - pivotY * cos);
+    }
+
+    @Override public void moveTo(final double x, final double y) { delegate.moveTo(transformX(x, y), transformY(x, y)); }
+
+    @Override public void lineTo(final double x, final double y) { delegate.lineTo(transformX(x, y), transformY(x, y)); }
+
+    @Override public void quadTo(final double controlX, final double controlY, final double x, final double y) {
+        delegate.quadTo(transformX(controlX, controlY), transformY(controlX, controlY), transformX(x, y), transformY(x, y));
+    }
+
+    @Override public void cubicTo(final double controlX1, final double controlY1, final double controlX2, final double controlY2, final double x, final double y) {
+        delegate.cubicTo(transformX(controlX1, controlY1), transformY(controlX1, controlY1), transformX(controlX2, controlY2), transformY(controlX2, controlY2),
+                         transformX(x, y), transformY(x, y));
+    }
+
+    @Override public void arcTo(final double radiusX, final double radiusY, final double xAxisRotation, final boolean largeArcFlag, final boolean sweepFlag, final double x, final double y) {
+        final double endX = transformX(x, y);
+        final double endY = transformY(x, y);
+        if (radiusX == 0 || radiusY == 0) {
+            delegate.arcTo(radiusX, radiusY, xAxisRotation, largeArcFlag, sweepFlag, endX, endY);
+            return;
+        }
+        // A = M * R(rotation) * S(radiusX, radiusY), decomposed into R(phi) * S(rx, ry) * R(theta)
+        final double rad = Math.toRadians(xAxisRotation);
+        final double sin = Math.sin(rad);
+        final double cos = Math.cos(rad);
+        final double a   = (mxx * cos + mxy * sin) * radiusX;
+        final double b   = (mxy * cos - mxx * sin) * radiusY;
+        final double c   = (myx * cos + myy * sin) * radiusX;
+        final double d   = (myy * cos - myx * sin) * radiusY;
+        final double e   = (a + d) / 2;
+        final double f   = (a - d) / 2;
+        final double g   = (c + b) / 2;
+        final double h   = (c - b) / 2;
+        final double q   = Math.hypot(e, h);
+        final double r   = Math.hypot(f, g);
+        final double phi = (Math.atan2(h, e) + Math.atan2(g, f)) / 2;
+        // A mirroring transform reverses the direction of the arc
+        delegate.arcTo(q + r, Math.abs(q - r), Math.toDegrees(phi), largeArcFlag, mirrored != sweepFlag, endX, endY);
+    }
+
+    @Override public void closePath() { delegate.closePath(); }
+
+    private double transformX(final double x, final double y) { return mxx * x + mxy * y + tx; }
+
+    private double transformY(final double x, final double y) { return myx * x + myy * y + ty; }
+}
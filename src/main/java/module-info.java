@@ -3,6 +3,7 @@ module eu.hansolo.fx.svgpathconverter {
     requires java.base;
     requires java.net.http;
     requires java.desktop;
+    requires jdk.jfr;
 
     // Java-FX
     requires javafx.base;
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package eu.hansolo.fx.svgpathconverter;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.ProcessingInstruction;
+import org.xml.sax.InputSource;
+
+import javax.lang.model.SourceVersion;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class BatchConverterTest {
+
+    @Test void convertsSvgAndTextFiles() throws IOException {
+        final Path directory = Files.createTempDirectory("batchconverter");
+        try {
+            final Path svg  = Files.writeString(directory.resolve("icon.svg"), "<svg><path id='home' d='m1 2 3 4'/></svg>");
+            final Path text = Files.writeString(directory.resolve("paths.txt"), "M0 0 h10\n\nM1 1 z\n");
+            final Result result = run("-t", "2", svg.toString(), text.toString());
+            assertEquals(0, result.exitCode());
+            assertEquals(svg + "#home\tM1,2L4,6\n" + text + "#1\tM0,0L10,0\n" + text + "#3\tM1,1Z\n", result.out());
+            assertTrue(result.err().startsWith("Converted 3 paths (6 elements)"), result.err());
+            assertTrue(result.err().strip().endsWith(" 0 errors"), result.err());
+
+            // directories are scanned for svg files only
+            assertEquals(svg + "#home\tM1,2L4,6\n", run(directory.toString()).out());
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test void reportsErrors() throws IOException {
+        final Path directory = Files.createTempDirectory("batchconverter");
+        try {
+            final Path text = Files.writeString(directory.resolve("paths.txt"), "M0 0\nM1 X\n");
+            final Result result = run(text.toString(), directory.resolve("missing.txt").toString());
+            assertEquals(1, result.exitCode());
+            assertEquals(text + "#1\tM0,0\n", result.out());
+            assertTrue(result.err().contains("ERROR " + text + "#2: java.lang.IllegalArgumentException: Expected number at index 3"), result.err());
+            assertTrue(result.err().contains("ERROR " + directory.resolve("missing.txt") + ": "), result.err());
+            assertTrue(result.err().strip().endsWith(" 2 errors"), result.err());
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test void invalidArguments() {
+        assertEquals(2, run().exitCode());
+        assertEquals("No input files given", run().err().lines().findFirst().orElseThrow());
+        assertTrue(run("-f", "png", "a.txt").err().startsWith("Unknown format png, valid formats are svg, fxml, java and bundle"));
+        assertEquals(2, run("-f", "png", "a.txt").exitCode());
+        assertEquals(2, run("-f", "bundle", "a.txt").exitCode());
+        assertEquals(2, run("-t", "0", "a.txt").exitCode());
+        assertEquals("Missing value for -o", run("a.txt", "-o").err().lines().findFirst().orElseThrow());
+        assertEquals(0, run("--help").exitCode());
+    }
+
+    @Test void fxmlAndJavaOutput() throws IOException {
+        final Path directory = Files.createTempDirectory("batchconverter");
+        try {
+            final Path text = Files.writeString(directory.resolve("paths.txt"), "M0 0L3e9 1A5 5 0 0 1 10 0Z\n");
+            assertEquals("""
+                <?xml version="1.0" encoding="UTF-8"?>
+
+                <?import javafx.scene.Group?>
+                <?import javafx.scene.shape.*?>
+
+                <Group xmlns:fx="http://javafx.com/fxml">
+                    <children>
+                        <!-- %s#1 -->
+                        <Path fx:id="%s">
+                            <elements>
+                                <MoveTo x="0" y="0"/>
+                                <LineTo x="3000000000" y="1"/>
+                                <ArcTo radiusX="5" radiusY="5" XAxisRotation="0" x="10" y="0" largeArcFlag="false" sweepFlag="true"/>
+                                <ClosePath/>
+                            </elements>
+                        </Path>
+                    </children>
+                </Group>
+                """.formatted(text, PathCodeGenerator.toIdentifier(text + "#1")), run("-f", "FXML", text.toString()).out());
+            assertEquals("""
+                // %s#1
+                new Path(new MoveTo(0.0, 0.0),
+                         new LineTo(3.0E9, 1.0),
+                         new ArcTo(5.0, 5.0, 0.0, 10.0, 0.0, false, true),
+                         new ClosePath());
+                """.formatted(text), run("--format", "java", text.toString()).out());
+
+            final Path bundleFile = directory.resolve("paths.bundle");
+            assertEquals(0, run("-f", "bundle", "--float", "-o", bundleFile.toString(), text.toString()).exitCode());
+            final PathBundle bundle = PathBundle.open(bundleFile);
+            assertEquals(PathData.Precision.FLOAT, bundle.getPrecision());
+            assertEquals("M0,0L3000000000,1A5,5 0 0 1 10,0Z", bundle.getPathData(text + "#1").toSVGString());
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test void fxmlOutputIsOneDocument() throws Exception {
+        final Path directory = Files.createTempDirectory("batchconverter");
+        try {
+            final Path svg = Files.writeString(directory.resolve("icons.svg"), "<svg><path id='home' d='M0 0h1'/><path id='home-' d='M1 1v2'/><path id='a--b---' d='M2 2z'/></svg>");
+            final String fxml = run("-f", "fxml", svg.toString()).out();
+
+            final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            final Document document = factory.newDocumentBuilder().parse(new InputSource(new StringReader(fxml)));
+            assertEquals("Group", document.getDocumentElement().getTagName());
+            final List<String> imports = new ArrayList<>();
+            for (Node node = document.getFirstChild() ; null != node ; node = node.getNextSibling()) {
+                if (node instanceof ProcessingInstruction instruction) { imports.add(instruction.getTarget() + " " + instruction.getData()); }
+            }
+            assertEquals(List.of("import javafx.scene.Group", "import javafx.scene.shape.*"), imports);
+
+            final NodeList    paths = document.getElementsByTagName("Path");
+            final Set<String> ids   = new HashSet<>();
+            assertEquals(3, paths.getLength());
+            for (int i = 0 ; i < paths.getLength() ; i++) {
+                final String id = ((Element) paths.item(i)).getAttributeNS("http://javafx.com/fxml", "id");
+                assertTrue(SourceVersion.isIdentifier(id) && !SourceVersion.isKeyword(id), id);
+                assertTrue(ids.add(id), "duplicate fx:id " + id);
+            }
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private record Result(int exitCode, String out, String err) { }
+
+    private static Result run(final String... args) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ByteArrayOutputStream err = new ByteArrayOutputStream();
+        final int exitCode = BatchConverter.run(args, new PrintStream(out, true, StandardCharsets.UTF_8), new PrintStream(err, true, StandardCharsets.UTF_8));
+        return new Result(exitCode, out.toString(StandardCharsets.UTF_8), err.toString(StandardCharsets.UTF_8));
+    }
+
+    private static void delete(final Path directory) throws IOException {
+        try (Stream<Path> stream = Files.walk(directory)) {
+            for (Path path : stream.sorted(Comparator.reverseOrder()).toList()) { Files.delete(path); }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package eu.hansolo.fx.svgpathconverter;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Checks the counters of the SVGPathConverter statistics and the JFR events
+ */
+class ConversionStatisticsTest {
+    private static final String PATH = "M1 2 3 4 l5 5 h1 V2 c1 1 2 2 3 3 S4 4 5 5 q1 1 2 2 T3 3 a5 5 0 0 1 6 6 z m1 1 B45 L9 9 Z";
+
+    @Test void countsCommandsElementsAndBytes() {
+        final ConversionStatistics statistics = enable();
+        try {
+            assertEquals(14, SVGPathConverter.INSTANCE.convert(PATH).size());
+            assertEquals(1, statistics.getConversionCount(ConversionStatistics.Phase.CONVERT));
+            assertEquals(PATH.length(), statistics.getBytesProcessed());
+            assertEquals(14, statistics.getElementsProduced());
+            assertEquals(0, statistics.getErrorCount());
+
+            // the implicit lineto after the moveto is counted as L, bearings don't produce elements
+            assertEquals(1, statistics.getCommandCount('M'));
+            assertEquals(2, statistics.getCommandCount('L'));
+            assertEquals(1, statistics.getCommandCount('l'));
+            assertEquals(1, statistics.getCommandCount('B'));
+            assertEquals(1, statistics.getCommandCount('z'));
+            assertEquals(0, statistics.getCommandCount('C'));
+            assertEquals(8, statistics.getAbsoluteCommandCount());
+            assertEquals(7, statistics.getRelativeCommandCount());
+            assertEquals(ConversionStatistics.COMMANDS.length(), statistics.getCommandCounts().size());
+            assertEquals(List.of('M', 'm', 'L', 'l', 'H', 'h', 'V', 'v', 'C', 'c', 'S', 's', 'Q', 'q', 'T', 't', 'A', 'a', 'B', 'b', 'Z', 'z'), List.copyOf(statistics.getCommandCounts().keySet()));
+            assertEquals(List.of(1L, 1L, 2L, 1L, 0L, 1L, 1L, 0L, 0L, 1L, 1L, 0L, 0L, 1L, 1L, 0L, 0L, 1L, 1L, 0L, 1L, 1L), List.copyOf(statistics.getCommandCounts().values()));
+            assertThrows(IllegalArgumentException.class, () -> statistics.getCommandCount('X'));
+
+            // every convert method is counted
+            SVGPathConverter.INSTANCE.convertToPathData(PATH);
+            SVGPathConverter.INSTANCE.convertToSVGString(PATH);
+            SVGPathConverter.INSTANCE.convertParallel(PATH);
+            assertEquals(4, statistics.getConversionCount(ConversionStatistics.Phase.CONVERT));
+            assertEquals(4 * PATH.length(), statistics.getBytesProcessed());
+            assertEquals(56, statistics.getElementsProduced());
+            assertEquals(8, statistics.getCommandCount('L'));
+        } finally {
+            SVGPathConverter.INSTANCE.setInstrumentationEnabled(false);
+        }
+    }
+
+    @Test void countsFormatAndErrors() {
+        final ConversionStatistics statistics = enable();
+        try {
+            SVGPathConverter.INSTANCE.format("M1 2 3 4");
+            assertEquals(1, statistics.getConversionCount(ConversionStatistics.Phase.FORMAT));
+            assertEquals(0, statistics.getConversionCount(ConversionStatistics.Phase.CONVERT));
+            assertEquals(8, statistics.getBytesProcessed());
+            assertEquals(0, statistics.getCommandCount('M'));
+
+            assertThrows(IllegalArgumentException.class, () -> SVGPathConverter.INSTANCE.convert("M1 2 X"));
+            assertThrows(IllegalArgumentException.class, () -> SVGPathConverter.INSTANCE.format("M1 2 X"));
+            assertEquals(2, statistics.getErrorCount());
+            assertEquals(1, statistics.getConversionCount(ConversionStatistics.Phase.CONVERT));
+            assertEquals(2, statistics.getConversionCount(ConversionStatistics.Phase.FORMAT));
+            assertEquals(1, statistics.getCommandCount('M'));
+            assertTrue(statistics.getTime(ConversionStatistics.Phase.CONVERT, TimeUnit.NANOSECONDS) > 0);
+
+            statistics.reset();
+            assertEquals(0, statistics.getErrorCount());
+            assertEquals(0, statistics.getBytesProcessed());
+            assertEquals(0, statistics.getAbsoluteCommandCount());
+            assertEquals(0, statistics.getConversionCount(ConversionStatistics.Phase.FORMAT));
+            assertEquals(0, statistics.getTime(ConversionStatistics.Phase.CONVERT, TimeUnit.NANOSECONDS));
+        } finally {
+            SVGPathConverter.INSTANCE.setInstrumentationEnabled(false);
+        }
+    }
+
+    @Test void nothingIsCountedWhileDisabled() {
+        final ConversionStatistics statistics = enable();
+        SVGPathConverter.INSTANCE.setInstrumentationEnabled(false);
+        assertFalse(SVGPathConverter.INSTANCE.isInstrumentationEnabled());
+        SVGPathConverter.INSTANCE.convert(PATH);
+        SVGPathConverter.INSTANCE.format(PATH);
+        assertEquals(0, statistics.getConversionCount(ConversionStatistics.Phase.CONVERT));
+        assertEquals(0, statistics.getConversionCount(ConversionStatistics.Phase.FORMAT));
+        assertEquals(0, statistics.getBytesProcessed());
+    }
+
+    @Test void commitsFlightRecorderEvents() throws IOException {
+        final Path file = Files.createTempFile("conversion", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("eu.hansolo.fx.svgpathconverter.Conversion");
+            recording.start();
+            SVGPathConverter.INSTANCE.convertToPathData(PATH);
+            SVGPathConverter.INSTANCE.format("M1 2");
+            assertThrows(IllegalArgumentException.class, () -> SVGPathConverter.INSTANCE.convert("M1 2 X"));
+            recording.stop();
+            recording.dump(file);
+
+            final List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream().filter(e -> e.getEventType().getName().equals("eu.hansolo.fx.svgpathconverter.Conversion")).toList();
+            assertEquals(3, events.size());
+            assertEquals("convertToPathData", events.get(0).getString("operation"));
+            assertEquals(PATH.length(), events.get(0).getLong("length"));
+            assertEquals(15, events.get(0).getLong("segments"));
+            assertEquals(14, events.get(0).getLong("elements"));
+            assertTrue(events.get(0).getBoolean("success"));
+            assertEquals("format", events.get(1).getString("operation"));
+            assertEquals(-1, events.get(1).getLong("segments"));
+            assertFalse(events.get(2).getBoolean("success"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static ConversionStatistics enable() {
+        final ConversionStatistics statistics = SVGPathConverter.INSTANCE.getStatistics();
+        SVGPathConverter.INSTANCE.setInstrumentationEnabled(true);
+        assertTrue(SVGPathConverter.INSTANCE.isInstrumentationEnabled());
+        statistics.reset();
+        return statistics;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package eu.hansolo.fx.svgpathconverter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+/**
+ * Compares CoordinateTransform with a scalar reference loop, run with -PvectorApi to cover the vectorized implementation
+ */
+class CoordinateTransformTest {
+
+    @Test void vectorizedIfModuleIsPresent() {
+        // gradle adds the module only with -PvectorApi, which also compiles the vectorized implementation
+        assertEquals(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent(), CoordinateTransform.isVectorized());
+    }
+
+    @Test void sameResultsAsScalarLoop() {
+        final Random   random = new Random(42);
+        final double[] m      = { 0.5, -1.25, 10, 2.5, -0.75, -3 }; // mxx, mxy, tx, myx, myy, ty
+        // sizes below and above the vector threshold with remainders, different source and destination offsets
+        for (int noOfPoints = 0 ; noOfPoints < 150 ; noOfPoints++) {
+            for (int srcOffset = 0 ; srcOffset < 3 ; srcOffset++) {
+                final int      dstOffset = 2 - srcOffset;
+                final double[] src       = randomArray(random, srcOffset + 2 * noOfPoints + 1);
+                final double[] dst       = new double[dstOffset + 2 * noOfPoints + 1];
+                final double[] expected  = dst.clone();
+                reference(src, srcOffset, expected, dstOffset, noOfPoints, m);
+                CoordinateTransform.transform(src, srcOffset, dst, dstOffset, noOfPoints, m[0], m[1], m[2], m[3], m[4], m[5]);
+                assertArrayEquals(expected, dst, "points " + noOfPoints + ", offset " + srcOffset);
+            }
+        }
+    }
+
+    @Test void transformInPlace() {
+        final double[] m        = { -1, 0, 24, 0, 1, 0 }; // mirrors at x = 12
+        final double[] xy       = randomArray(new Random(7), 1001);
+        final double[] expected = xy.clone();
+        reference(xy, 1, expected, 1, 500, m);
+        CoordinateTransform.transform(xy, 1, 500, m[0], m[1], m[2], m[3], m[4], m[5]);
+        assertArrayEquals(expected, xy, "in place");
+    }
+
+    @Test void rejectsRangesOutOfBounds() {
+        final double[] xy = new double[10];
+        assertThrows(IndexOutOfBoundsException.class, () -> CoordinateTransform.transform(xy, 1, 5, 1, 0, 0, 0, 1, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> CoordinateTransform.transform(xy, -1, 1, 1, 0, 0, 0, 1, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> CoordinateTransform.transform(xy, 0, -1, 1, 0, 0, 0, 1, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> CoordinateTransform.transform(xy, 0, new double[8], 0, 5, 1, 0, 0, 0, 1, 0));
+    }
+
+
+    private static void reference(final double[] src, final int srcOffset, final double[] dst, final int dstOffset, final int noOfPoints, final double[] m) {
+        for (int i = 0 ; i < noOfPoints ; i++) {
+            final double x = src[srcOffset + 2 * i];
+            final double y = src[srcOffset + 2 * i + 1];
+            dst[dstOffset + 2 * i]     = m[0] * x + m[1] * y + m[2];
+            dst[dstOffset + 2 * i + 1] = m[3] * x + m[4] * y + m[5];
+        }
+    }
+
+    private static double[] randomArray(final Random random, final int length) {
+        final double[] values = new double[length];
+        for (int i = 0 ; i < length ; i++) { values[i] = (random.nextDouble() - 0.5) * 1000; }
+        return values;
+    }
+
+    // results have to be identical, not only close
+    private static void assertArrayEquals(final double[] expected, final double[] actual, final String message) {
+        assertEquals(expected.length, actual.length, message);
+        for (int i = 0 ; i < expected.length ; i++) {
+            assertEquals(Double.doubleToLongBits(expected[i]), Double.doubleToLongBits(actual[i]), message + ", index " + i);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.shape.ArcTo;
+import javafx.scene.shape.CubicCurveTo;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.PathElement;
+import javafx.scene.shape.QuadCurveTo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+/**
+ * Compares the elements after random edits with a full conversion of the edited text
+ */
+class IncrementalPathConverterTest {
+    private static final String COMMANDS = "MmLlHhVvCcSsQqTtAaZzBb";
+
+    @Test void changesOnlyTheEditedElement() {
+        final ObservableList<PathElement> elements  = FXCollections.observableArrayList();
+        final IncrementalPathConverter    converter = new IncrementalPathConverter(elements);
+        converter.setText("M0 0L1 1L2 2L3 3");
+        final PathElement first = elements.get(0);
+
+        final IncrementalPathConverter.Change change = converter.replace(9, 12, "5 5");
+        assertEquals("M0 0L1 1L5 5L3 3", converter.getText());
+        assertEquals(2, change.from());
+        assertEquals(1, change.removedCount());
+        assertEquals(1, change.added().size());
+        assertEquals(first, elements.get(0));
+        assertEquals(describe(SVGPathConverter.INSTANCE.convert("M0 0L1 1L5 5L3 3")), describe(elements));
+    }
+
+    @Test void sameElementsAsFullConversion() {
+        final Random random = new Random(15);
+        for (int round = 0 ; round < 20 ; round++) {
+            final StringBuilder text = new StringBuilder("M0 0 ");
+            for (int i = 0 ; i < 200 ; i++) { text.append(randomSegment(random)); }
+            final ObservableList<PathElement> elements  = FXCollections.observableArrayList();
+            final IncrementalPathConverter    converter = new IncrementalPathConverter(elements);
+            converter.setText(text.toString());
+
+            for (int edit = 0 ; edit < 100 ; edit++) {
+                final String oldText     = converter.getText();
+                final int    start       = random.nextInt(oldText.length() + 1);
+                final int    end         = Math.min(oldText.length(), start + random.nextInt(4));
+                final String replacement = switch (random.nextInt(4)) {
+                    case 0  -> "";
+                    case 1  -> randomNumber(random);
+                    case 2  -> randomSegment(random);
+                    default -> " " + randomNumber(random) + " ";
+                };
+                final String newText = oldText.substring(0, start) + replacement + oldText.substring(end);
+                final String message = "round " + round + ", edit " + edit + ": " + newText;
+
+                List<PathElement> expected;
+                try {
+                    expected = SVGPathConverter.INSTANCE.convert(newText);
+                } catch (IllegalArgumentException e) {
+                    expected = null;
+                }
+                if (null == expected) {
+                    // A failed edit must not change the text or the elements
+                    final List<String> before = describe(elements);
+                    assertThrows(IllegalArgumentException.class, () -> converter.replace(start, end, replacement), message);
+                    assertEquals(oldText, converter.getText(), message);
+                    assertEquals(before, describe(elements), message);
+                } else {
+                    converter.replace(start, end, replacement);
+                    assertEquals(newText, converter.getText(), message);
+                    assertEquals(describe(expected), describe(elements), message);
+                }
+            }
+        }
+    }
+
+    private static List<String> describe(final List<PathElement> elements) { return elements.stream().map(IncrementalPathConverterTest::describe).toList(); }
+
+    private static String describe(final PathElement element) {
+        if (element instanceof MoveTo moveTo) {
+            return "M" + moveTo.getX() + "," + moveTo.getY();
+        } else if (element instanceof LineTo lineTo) {
+            return "L" + lineTo.getX() + "," + lineTo.getY();
+        } else if (element instanceof QuadCurveTo quad) {
+            return "Q" + quad.getControlX() + "," + quad.getControlY() + " " + quad.getX() + "," + quad.getY();
+        } else if (element instanceof CubicCurveTo cubic) {
+            return "C" + cubic.getControlX1() + "," + cubic.getControlY1() + " " + cubic.getControlX2() + "," + cubic.getControlY2() + " " + cubic.getX() + "," + cubic.getY();
+        } else if (element instanceof ArcTo arc) {
+            return "A" + arc.getRadiusX() + "," + arc.getRadiusY() + " " + arc.getXAxisRotation() + " " + arc.isLargeArcFlag() + " " + arc.isSweepFlag() + " " + arc.getX() + "," + arc.getY();
+        }
+        return "Z";
+    }
+
+    private static String randomNumber(final Random random) {
+        return (random.nextInt(3) == 0 ? "-" : "") + random.nextInt(100) + (random.nextBoolean() ? "." + random.nextInt(10) : "");
+    }
+
+    private static String randomSegment(final Random random) {
+        final char command = COMMANDS.charAt(random.nextInt(COMMANDS.length()));
+        final int  count   = switch (Character.toUpperCase(command)) {
+            case 'M', 'L', 'T' -> 2;
+            case 'H', 'V', 'B' -> 1;
+            case 'C'           -> 6;
+            case 'S', 'Q'      -> 4;
+            case 'A'           -> 7;
+            default            -> 0;
+        };
+        final StringBuilder segment = new StringBuilder().append(command);
+        for (int i = 0 ; i < count ; i++) {
+            segment.append((command == 'A' || command == 'a') && (i == 3 || i == 4) ? Integer.toString(random.nextInt(2)) : randomNumber(random)).append(' ');
+        }
+        return segment.toString();
+    }
+}
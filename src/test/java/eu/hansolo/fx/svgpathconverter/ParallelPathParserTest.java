@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Compares the ParallelPathParser with the sequential PathParser on random paths
+ */
+class ParallelPathParserTest {
+    private static final String COMMANDS  = "MmLlHhVvCcSsQqTtAaZz";
+    private static final double TOLERANCE = 1e-9;
+
+    @Test void sameSegmentsAsSequentialParser() {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (long seed = 0 ; seed < 10 ; seed++) {
+                final String svgPathData = randomPath(new Random(seed), 300_000);
+                assertTrue(ParallelPathParser.split(svgPathData, pool.getParallelism()).length > 1, "path is not split");
+
+                final PathData.Builder sequential = new PathData.Builder();
+                final PathData.Builder parallel   = new PathData.Builder();
+                PathParser.parse(svgPathData, sequential);
+                ParallelPathParser.parse(svgPathData, parallel, pool);
+                assertSimilar(sequential.build(), parallel.build(), "seed " + seed);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test void bearingsAreParsedSequentially() {
+        final String svgPathData = randomPath(new Random(42), 100_000) + "B45l10 0";
+        assertEquals(0, ParallelPathParser.split(svgPathData, 4).length);
+
+        final PathData.Builder sequential = new PathData.Builder();
+        final PathData.Builder parallel   = new PathData.Builder();
+        PathParser.parse(svgPathData, sequential);
+        ParallelPathParser.parse(svgPathData, parallel, new ForkJoinPool(4));
+        assertEquals(sequential.build(), parallel.build());
+    }
+
+    @Test void errorsReportTheChunk() {
+        final String svgPathData = randomPath(new Random(7), 100_000) + "M1 2 X";
+        final IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> ParallelPathParser.parse(svgPathData, new PathData.Builder(), new ForkJoinPool(4)));
+        assertTrue(e.getMessage().contains("of the subpaths starting at index"), e.getMessage());
+    }
+
+    private static void assertSimilar(final PathData expected, final PathData actual, final String message) {
+        assertEquals(expected.size(), actual.size(), message);
+        for (int i = 0 ; i < expected.size() ; i++) { assertEquals(expected.getOpcode(i), actual.getOpcode(i), message + ", opcode " + i); }
+        // The coordinates are summed up in a different order, so they may differ in the last bits
+        for (int i = 0 ; i < expected.getCoordinateCount() ; i++) {
+            final double value = expected.getCoordinate(i);
+            assertEquals(value, actual.getCoordinate(i), TOLERANCE * Math.max(1, Math.abs(value)), message + ", coordinate " + i);
+        }
+    }
+
+    /**
+     * @return random path data with all commands (except bearings), implicit repetitions and both flag values
+     */
+    static String randomPath(final Random random, final int length) {
+        final StringBuilder path = new StringBuilder("M5 5");
+        while (path.length() < length) {
+            final char command = COMMANDS.charAt(random.nextInt(COMMANDS.length()));
+            final int  count   = switch (Character.toUpperCase(command)) {
+                case 'M', 'L', 'T' -> 2;
+                case 'H', 'V'      -> 1;
+                case 'C'           -> 6;
+                case 'S', 'Q'      -> 4;
+                case 'A'           -> 7;
+                default            -> 0;
+            };
+            path.append(command);
+            final int repetitions = count > 0 && random.nextInt(3) == 0 ? 2 : 1;
+            for (int r = 0 ; r < repetitions ; r++) {
+                for (int i = 0 ; i < count ; i++) {
+                    if (command == 'A' || command == 'a') {
+                        path.append(i == 3 || i == 4 ? Integer.toString(random.nextInt(2)) : Double.toString(random.nextInt(2000) / 10.0 - (i < 2 ? 0 : 100)));
+                    } else {
+                        path.append(random.nextInt(2000) / 10.0 - 100);
+                    }
+                    path.append(' ');
+                }
+            }
+        }
+        return path.toString();
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package eu.hansolo.fx.svgpathconverter;
+
+import javafx.scene.shape.ArcTo;
+import javafx.scene.shape.PathElement;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class PathBundleTest {
+    private static final String HOME  = "M10 20 l20 20 h5 v-5 A5 5 0 1 0 45 50 q1 1 2 2 T60 60 c1 1 2 2 3 3 s4 4 5 5 z";
+    private static final String ARROW = "M0.1 0.2 L1e-3 3 a50 30 45 0 1 68.5 69.25 Z";
+
+    @Test void roundTripWithDoublePrecision() throws IOException {
+        final PathBundleWriter writer = new PathBundleWriter().add("home", HOME).add("arrow", ARROW).add("empty", "").add("p\u00e4th-\u221a", "M1 1");
+        final PathBundle       bundle = PathBundle.of(ByteBuffer.wrap(write(writer)));
+        assertEquals(PathData.Precision.DOUBLE, bundle.getPrecision());
+        assertEquals(List.of("home", "arrow", "empty", "p\u00e4th-\u221a"), List.copyOf(bundle.names()));
+        assertEquals(4, bundle.size());
+        assertTrue(bundle.contains("arrow"));
+        assertFalse(bundle.contains("Arrow"));
+        assertEquals(SVGPathConverter.INSTANCE.convertToPathData(HOME), bundle.getPathData("home"));
+        assertEquals(SVGPathConverter.INSTANCE.convertToPathData(ARROW), bundle.getPathData("arrow"));
+        assertEquals(0, bundle.getPathData("empty").size());
+        assertEquals("M1,1", bundle.getPathData("p\u00e4th-\u221a").toSVGString());
+    }
+
+    @Test void roundTripWithFloatPrecision() throws IOException {
+        // double paths are stored with float precision
+        final PathBundleWriter writer = new PathBundleWriter(PathData.Precision.FLOAT).add("home", HOME).add("arrow", SVGPathConverter.INSTANCE.convertToPathData(ARROW));
+        final PathBundle       bundle = PathBundle.of(ByteBuffer.wrap(write(writer)));
+        assertEquals(PathData.Precision.FLOAT, bundle.getPrecision());
+        assertEquals(SVGPathConverter.INSTANCE.convertToPathData(HOME, PathData.Precision.FLOAT), bundle.getPathData("home"));
+        assertEquals(SVGPathConverter.INSTANCE.convertToPathData(ARROW, PathData.Precision.FLOAT), bundle.getPathData("arrow"));
+    }
+
+    @Test void replayAndPathElements() throws IOException {
+        final PathBundle       bundle  = PathBundle.of(ByteBuffer.wrap(write(new PathBundleWriter().add("arrow", ARROW))));
+        final SVGStringHandler handler = new SVGStringHandler();
+        bundle.replay("arrow", handler);
+        assertEquals(SVGPathConverter.INSTANCE.convertToSVGString(ARROW), handler.toString());
+
+        final List<PathElement> elements = bundle.getPathElements("arrow");
+        assertEquals(4, elements.size());
+        final ArcTo arcTo = (ArcTo) elements.get(2);
+        assertEquals(45, arcTo.getXAxisRotation());
+        assertFalse(arcTo.isLargeArcFlag());
+        assertTrue(arcTo.isSweepFlag());
+        assertEquals(72.25, arcTo.getY());
+        assertEquals(4, bundle.getPath("arrow").getElements().size());
+    }
+
+    @Test void writeAndOpenFile() throws IOException {
+        final Path file = Files.createTempFile("paths", ".bundle");
+        try {
+            new PathBundleWriter().add("home", HOME).add("home", ARROW).write(file);
+            final PathBundle bundle = PathBundle.open(file);
+            // the second entry with the same name replaces the first one
+            assertEquals(1, bundle.size());
+            assertEquals(SVGPathConverter.INSTANCE.convertToPathData(ARROW), bundle.getPathData("home"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test void rejectsInvalidBundles() throws IOException {
+        final byte[] bytes = write(new PathBundleWriter().add("home", HOME));
+        assertEquals("Not a path bundle", assertThrows(IllegalArgumentException.class, () -> PathBundle.of(ByteBuffer.wrap(new byte[4]))).getMessage());
+
+        final byte[] otherVersion = bytes.clone();
+        otherVersion[5] = 2;
+        assertEquals("Unsupported path bundle version 2", assertThrows(IllegalArgumentException.class, () -> PathBundle.of(ByteBuffer.wrap(otherVersion))).getMessage());
+
+        final byte[] truncated = Arrays.copyOf(bytes, bytes.length - 1);
+        assertEquals("Path bundle is truncated", assertThrows(IllegalArgumentException.class, () -> PathBundle.of(ByteBuffer.wrap(truncated))).getMessage());
+
+        final PathBundle bundle = PathBundle.of(ByteBuffer.wrap(bytes));
+        assertEquals("No path with name arrow", assertThrows(IllegalArgumentException.class, () -> bundle.getPathData("arrow")).getMessage());
+        assertThrows(IllegalArgumentException.class, () -> bundle.replay("arrow", new SVGStringHandler()));
+        assertThrows(IllegalArgumentException.class, () -> new PathBundleWriter().add("x".repeat(0x10000), HOME));
+    }
+
+    @Test void rejectsCorruptIndexAndData() throws IOException {
+        // index of the first entry: name length at 12, name at 14, offset at 18, opcode count at 22, coordinate count at 26
+        final byte[] bytes = write(new PathBundleWriter().add("home", HOME).add("homf", ARROW));
+
+        assertEquals("Path bundle is truncated", assertThrows(IllegalArgumentException.class, () -> PathBundle.of(corrupt(bytes, 8, 1000))).getMessage());
+        assertThrows(IllegalArgumentException.class, () -> PathBundle.of(corrupt(bytes, 8, -1)));
+        assertThrows(IllegalArgumentException.class, () -> PathBundle.of(corrupt(bytes, 18, -1)));
+        assertThrows(IllegalArgumentException.class, () -> PathBundle.of(corrupt(bytes, 22, -5)));
+        assertThrows(IllegalArgumentException.class, () -> PathBundle.of(corrupt(bytes, 26, -10)));
+        // data offset inside the index
+        assertThrows(IllegalArgumentException.class, () -> PathBundle.of(corrupt(bytes, 18, 12)));
+
+        // fewer coordinates than the opcodes require, the path would read the data of the next entry
+        final PathBundle bundle = PathBundle.of(corrupt(bytes, 26, ByteBuffer.wrap(bytes).getInt(26) - 2));
+        assertThrows(IllegalArgumentException.class, () -> bundle.getPathData("home"));
+        final SVGStringHandler handler = new SVGStringHandler();
+        assertThrows(IllegalArgumentException.class, () -> bundle.replay("home", handler));
+        assertEquals("", handler.toString());
+        assertEquals(SVGPathConverter.INSTANCE.convertToPathData(ARROW), bundle.getPathData("homf"));
+
+        final byte[] duplicate = bytes.clone();
+        duplicate[14 + 4 + 12 + 2 + 3] = 'e';
+        assertEquals("Path bundle is corrupt, duplicate entry home", assertThrows(IllegalArgumentException.class, () -> PathBundle.of(ByteBuffer.wrap(duplicate))).getMessage());
+    }
+
+    private static ByteBuffer corrupt(final byte[] bytes, final int index, final int value) {
+        return ByteBuffer.wrap(bytes.clone()).putInt(index, value);
+    }
+
+    private static byte[] write(final PathBundleWriter writer) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writer.write(outputStream);
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+import org.junit.jupiter.api.Test;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Generates classes with the PathCodeGenerator and compiles them with the system java compiler
+ */
+class PathCodeGeneratorTest {
+
+    @Test void compilesPathsAtTheSizeLimit() throws IOException {
+        // 3000 segments with 6000 coordinates and 6000 segments without coordinates
+        final StringBuilder polyline = new StringBuilder("M0 0");
+        for (int i = 1 ; i < 3000 ; i++) { polyline.append(" L").append(i + 0.5).append(' ').append(i * 0.25); }
+        final Map<String, PathData> paths = new TreeMap<>();
+        paths.put("polyline", SVGPathConverter.INSTANCE.convertToPathData(polyline.toString()));
+        paths.put("closed", SVGPathConverter.INSTANCE.convertToPathData("M1 1" + "Z".repeat(5999)));
+        assertEquals(6000, paths.get("polyline").getCoordinateCount());
+        assertEquals(6000, paths.get("closed").size());
+
+        compile(new PathCodeGenerator("com.example.Large", PathData.Precision.DOUBLE), paths);
+        compile(new PathCodeGenerator("com.example.LargeFloat", PathData.Precision.FLOAT), paths);
+    }
+
+    @Test void rejectsPathsAboveTheSizeLimit() {
+        final Map<String, PathData> paths = Map.of("closed", SVGPathConverter.INSTANCE.convertToPathData("M1 1" + "Z".repeat(6000)));
+        assertThrows(IllegalArgumentException.class, () -> new PathCodeGenerator("com.example.TooLarge", PathData.Precision.DOUBLE).generate(paths));
+    }
+
+    @Test void rejectsNonFiniteCoordinates() throws IOException {
+        final Map<String, PathData> infinite = Map.of("infinite", PathData.of(new byte[] { PathData.MOVE_TO }, new double[] { Double.POSITIVE_INFINITY, 0 }));
+        assertThrows(IllegalArgumentException.class, () -> new PathCodeGenerator("com.example.Infinite", PathData.Precision.DOUBLE).generate(infinite));
+
+        // finite doubles beyond the float range can only be written with double precision
+        final Map<String, PathData> large = Map.of("large", PathData.of(new byte[] { PathData.MOVE_TO }, new double[] { 1e39, -1e39 }));
+        assertThrows(IllegalArgumentException.class, () -> new PathCodeGenerator("com.example.LargeFloat", PathData.Precision.FLOAT).generate(large));
+        compile(new PathCodeGenerator("com.example.LargeDouble", PathData.Precision.DOUBLE), large);
+    }
+
+    @Test void compilesReservedAndClashingNames() throws IOException {
+        final Map<String, PathData> paths = new TreeMap<>();
+        for (String name : new String[] { "home", "wait", "notify", "getClass", "hashCode", "toString", "clone", "equals", "finalize", "class", "createPath", "home-opcodes" }) {
+            paths.put(name, SVGPathConverter.INSTANCE.convertToPathData("M0 0 L4 4"));
+        }
+        compile(new PathCodeGenerator("com.example.HomeOpcodes", PathData.Precision.DOUBLE), paths);
+    }
+
+    @Test void rejectsClassNamesOfImportedClasses() throws IOException {
+        for (String className : new String[] { "com.example.Path", "MoveTo", "com.example.List", "com.example.PathElement" }) {
+            assertThrows(IllegalArgumentException.class, () -> new PathCodeGenerator(className, PathData.Precision.DOUBLE), className);
+        }
+        // names that only contain an imported name are fine
+        compile(new PathCodeGenerator("com.example.Paths", PathData.Precision.DOUBLE), Map.of("home", SVGPathConverter.INSTANCE.convertToPathData("M0 0 L4 4")));
+    }
+
+    @Test void compilesWithoutPaths() throws IOException {
+        compile(new PathCodeGenerator("com.example.Empty", PathData.Precision.DOUBLE), Map.of());
+    }
+
+    @Test void convertsNamesToIdentifiers() {
+        assertEquals("iconHome24", PathCodeGenerator.toIdentifier("icon-home_24"));
+        assertEquals("arrowLeftSvg", PathCodeGenerator.toIdentifier("arrow/left.svg"));
+        assertEquals("path24px", PathCodeGenerator.toIdentifier("24px"));
+        assertEquals("classPath", PathCodeGenerator.toIdentifier("class"));
+        assertEquals("waitPath", PathCodeGenerator.toIdentifier("wait"));
+        assertEquals("createPathPath", PathCodeGenerator.toIdentifier("createPath"));
+    }
+
+    @Test void readsSvgFilesWithTheirNames() throws IOException {
+        final Path directory = Files.createTempDirectory("paths");
+        Files.writeString(directory.resolve("ICON.SVG"), "<svg><path id=\"a\" d=\"M0 0L1 1\"/></svg>");
+        Files.writeString(directory.resolve("icon.xml"), "<svg><path id=\"a\" d=\"M0 0L1 1\"/></svg>");
+        assertEquals("[ICON-a]", PathCodeGenerator.readPaths(directory.resolve("ICON.SVG")).keySet().toString());
+        assertEquals("[icon.xml-a]", PathCodeGenerator.readPaths(directory.resolve("icon.xml")).keySet().toString());
+    }
+
+    @Test void rejectsDuplicateNamesFromDifferentDirectories() throws IOException {
+        final Path directory = Files.createTempDirectory("paths");
+        for (String size : new String[] { "24", "48" }) {
+            Files.createDirectories(directory.resolve(size));
+            Files.writeString(directory.resolve(size).resolve("home.svg"), "<svg><path id=\"a\" d=\"M0 0L1 1\"/></svg>");
+        }
+        final IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> PathCodeGenerator.readPaths(directory));
+        assertTrue(e.getMessage().startsWith("Duplicate path name home-a"), e.getMessage());
+    }
+
+    private static void compile(final PathCodeGenerator generator, final Map<String, PathData> paths) throws IOException {
+        final Path   directory = Files.createTempDirectory("generated");
+        final Path   file      = generator.write(paths, directory);
+        // JavaFX is on the class path or, in a modular test run, on the module path
+        final String classPath = System.getProperty("java.class.path") + File.pathSeparator + System.getProperty("jdk.module.path", "");
+
+        final JavaCompiler          compiler = ToolProvider.getSystemJavaCompiler();
+        final ByteArrayOutputStream errors   = new ByteArrayOutputStream();
+        final int result = compiler.run(null, null, errors, "-d", directory.resolve("classes").toString(), "-classpath", classPath, file.toString());
+        assertEquals(0, result, errors.toString(StandardCharsets.UTF_8));
+    }
+}
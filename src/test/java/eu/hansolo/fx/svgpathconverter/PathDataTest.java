@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package eu.hansolo.fx.svgpathconverter;
+
+import javafx.scene.shape.ArcTo;
+import javafx.scene.shape.ClosePath;
+import javafx.scene.shape.CubicCurveTo;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.PathElement;
+import javafx.scene.shape.QuadCurveTo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class PathDataTest {
+    private static final String PATH = "M10 20 l20 20 h5 v-5 A5 5 0 1 0 45 50 q1 1 2 2 T60 60 c1 1 2 2 3 3 s4 4 5 5 z m1 1 a50 30 45 0 1 68.5 69.25 Z";
+
+    @Test void roundTripThroughSVGString() {
+        final PathData pathData = SVGPathConverter.INSTANCE.convertToPathData(PATH);
+        assertEquals(pathData, SVGPathConverter.INSTANCE.convertToPathData(pathData.toSVGString()));
+
+        // random coordinates need all digits of the shortest representation
+        final Random random = new Random(1);
+        for (int i = 0 ; i < 100 ; i++) {
+            final PathData.Builder builder = new PathData.Builder();
+            builder.moveTo(random.nextDouble() * 1e3, -random.nextDouble());
+            builder.cubicTo(random.nextDouble() * 1e-7, random.nextGaussian() * 1e20, random.nextGaussian(), random.nextGaussian(), random.nextGaussian(), random.nextGaussian());
+            builder.arcTo(random.nextDouble(), random.nextDouble(), random.nextDouble() * 360, random.nextBoolean(), random.nextBoolean(), random.nextGaussian(), random.nextGaussian());
+            builder.closePath();
+            final PathData expected = builder.build();
+            assertEquals(expected, SVGPathConverter.INSTANCE.convertToPathData(expected.toSVGString()), expected.toSVGString());
+        }
+    }
+
+    @Test void storesAbsoluteCoordinates() {
+        final PathData pathData = SVGPathConverter.INSTANCE.convertToPathData("M10 20 l20 20 h5 v-5 q1 1 2 2 T60 60 a5 5 0 1 0 5 5 z");
+        assertEquals("M10,20L30,40L35,40L35,35Q36,36 37,37Q38,38 60,60A5,5 0 1 0 65,65Z", pathData.toSVGString());
+        assertEquals(8, pathData.size());
+        assertEquals(PathData.ARC_TO | PathData.LARGE_ARC_FLAG, pathData.getOpcode(6));
+        assertEquals(PathData.CLOSE_PATH, pathData.getOpcode(7));
+        assertEquals(21, pathData.getCoordinateCount());
+    }
+
+    @Test void createsPathElements() {
+        final List<PathElement> elements = SVGPathConverter.INSTANCE.convertToPathData("M1 2 L3 4 Q5 6 7 8 C9 10 11 12 13 14 A15 16 17 0 1 18 19 Z").toPathElements();
+        assertEquals(6, elements.size());
+        assertEquals(1, ((MoveTo) elements.get(0)).getX());
+        assertEquals(4, ((LineTo) elements.get(1)).getY());
+        assertEquals(8, ((QuadCurveTo) elements.get(2)).getY());
+        assertEquals(13, ((CubicCurveTo) elements.get(3)).getX());
+        final ArcTo arcTo = (ArcTo) elements.get(4);
+        assertEquals(15, arcTo.getRadiusX());
+        assertEquals(17, arcTo.getXAxisRotation());
+        assertTrue(arcTo.isSweepFlag());
+        assertTrue(elements.get(5) instanceof ClosePath);
+
+        // every call returns new instances
+        assertNotSame(elements.get(0), SVGPathConverter.INSTANCE.convertToPathData("M1 2").toPathElements().get(0));
+    }
+
+    @Test void equalsAndHashCode() {
+        final PathData pathData = SVGPathConverter.INSTANCE.convertToPathData(PATH);
+        final PathData copy     = PathData.of(pathData.getOpcodes(), pathData.getCoordinates());
+        assertEquals(pathData, copy);
+        assertEquals(pathData.hashCode(), copy.hashCode());
+        assertNotEquals(pathData, SVGPathConverter.INSTANCE.convertToPathData(PATH + "L1 1"));
+        assertNotEquals(pathData, pathData.withPrecision(PathData.Precision.FLOAT));
+    }
+
+    @Test void copiesArrays() {
+        final byte[]   opcodes     = { PathData.MOVE_TO, PathData.LINE_TO };
+        final double[] coordinates = { 1, 2, 3, 4 };
+        final PathData pathData    = PathData.of(opcodes, coordinates);
+        opcodes[1]     = PathData.MOVE_TO;
+        coordinates[0] = 5;
+        pathData.getCoordinates()[1] = 6;
+        pathData.getOpcodes()[0]     = PathData.CLOSE_PATH;
+        assertEquals("M1,2L3,4", pathData.toSVGString());
+    }
+
+    @Test void floatPrecision() {
+        final PathData doublePath = SVGPathConverter.INSTANCE.convertToPathData("M0.1 0.2 L1e-3 3");
+        final PathData floatPath  = SVGPathConverter.INSTANCE.convertToPathData("M0.1 0.2 L1e-3 3", PathData.Precision.FLOAT);
+        assertEquals(PathData.Precision.FLOAT, floatPath.getPrecision());
+        assertEquals((double) 0.1f, floatPath.getCoordinate(0));
+        assertEquals(floatPath, doublePath.withPrecision(PathData.Precision.FLOAT));
+        assertSame(floatPath, floatPath.withPrecision(PathData.Precision.FLOAT));
+        assertEquals(PathData.Precision.DOUBLE, floatPath.withPrecision(PathData.Precision.DOUBLE).getPrecision());
+        assertEquals((double) 3f, floatPath.withPrecision(PathData.Precision.DOUBLE).getCoordinate(3));
+    }
+
+    @Test void rejectsWrongNumberOfCoordinates() {
+        assertThrows(IllegalArgumentException.class, () -> PathData.of(new byte[] { PathData.MOVE_TO, PathData.CUBIC_TO }, new double[4]));
+        assertThrows(IllegalArgumentException.class, () -> PathData.of(new byte[] { PathData.CLOSE_PATH }, new float[1]));
+        assertThrows(IllegalArgumentException.class, () -> PathData.of(new byte[] { 9 }, new double[0]));
+    }
+
+    @Test void transform() {
+        final PathData pathData = SVGPathConverter.INSTANCE.convertToPathData("M1 2 L3 4 Q5 6 7 8 Z");
+        assertEquals("M12,-2L16,-4Q20,-6 24,-8Z", pathData.transform(2, 0, 10, 0, -1, 0).toSVGString());
+
+        // arcs are transformed with a TransformHandler, a mirrored arc changes the sweep direction
+        final PathData arc = SVGPathConverter.INSTANCE.convertToPathData("M0 0 A5 5 0 0 1 10 0", PathData.Precision.FLOAT);
+        final PathData mirrored = arc.transform(1, 0, 0, 0, -1, 0);
+        assertEquals(PathData.Precision.FLOAT, mirrored.getPrecision());
+        assertEquals("M0,0A5,5 0 0 0 10,0", mirrored.toSVGString());
+    }
+}
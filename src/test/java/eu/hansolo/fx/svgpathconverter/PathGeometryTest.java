@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package eu.hansolo.fx.svgpathconverter;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Compares the PathGeometry with analytic bounds, java.awt.geom.Path2D and brute force searches
+ */
+class PathGeometryTest {
+    private static final double EPSILON = 1e-9;
+
+    @Test void analyticBoundsOfCurves() {
+        assertBounds(0, 0, 20, 10, bounds("M0 0 Q10 20 20 0"));
+        assertBounds(0, 0, 10, 7.5, bounds("M0 0 C0 10 10 10 10 0"));
+        // extrema in x and y
+        assertBounds(-2.8, 0, 12.8, 10, bounds("M0 0 C-10 0 10 10 10 10"));
+        assertBounds(0, 0, 20, 20, bounds("M0 10 A10 10 0 0 1 20 10 A10 10 0 0 1 0 10 Z"));
+        // half circles, the sweep flag selects the side
+        assertBounds(0, 0, 20, 10, bounds("M0 10 A10 10 0 0 1 20 10"));
+        assertBounds(0, 10, 20, 10, bounds("M0 10 A10 10 0 0 0 20 10"));
+        // radii that are too small are scaled up
+        assertBounds(0, 0, 20, 10, bounds("M0 10 A1 1 0 0 1 20 10"));
+
+        // ellipse with radii 20 and 10 rotated by 45 degree
+        final double           d       = 20 * Math.sqrt(0.5);
+        final PathData.Builder builder = new PathData.Builder();
+        builder.moveTo(d, d);
+        builder.arcTo(20, 10, 45, false, true, -d, -d);
+        builder.arcTo(20, 10, 45, false, true, d, d);
+        final double extent = Math.sqrt(250);
+        assertBounds(-extent, -extent, 2 * extent, 2 * extent, builder.build().toGeometry().getBounds());
+    }
+
+    @Test void boundsContainTheOutline() {
+        final Random random = new Random(11);
+        for (int n = 0 ; n < 50 ; n++) {
+            final PathData     pathData = randomPath(random, 6);
+            final PathGeometry geometry = pathData.toGeometry();
+            final Rectangle2D  bounds   = geometry.getBounds();
+            final Rectangle2D  sampled  = sampledBounds(pathData.toPath2D());
+            // arcs are approximated by cubic curves in Path2D
+            final double tolerance = 1e-3 * Math.max(bounds.getWidth(), bounds.getHeight());
+            assertEquals(sampled.getMinX(), bounds.getMinX(), tolerance, pathData.toString());
+            assertEquals(sampled.getMinY(), bounds.getMinY(), tolerance, pathData.toString());
+            assertEquals(sampled.getMaxX(), bounds.getMaxX(), tolerance, pathData.toString());
+            assertEquals(sampled.getMaxY(), bounds.getMaxY(), tolerance, pathData.toString());
+        }
+    }
+
+    @Test void subpathAndElementBounds() {
+        final PathGeometry geometry = SVGPathConverter.INSTANCE.convertToPathData("M0 0 L10 0 L10 5 Z M20 20 Q30 40 40 20 L20 20 Z L-5 0").toGeometry();
+        assertEquals(3, geometry.getSubpathCount());
+        assertBounds(0, 0, 10, 5, geometry.getSubpathBounds(0));
+        assertBounds(20, 20, 20, 10, geometry.getSubpathBounds(1));
+        // a segment after closepath starts a new subpath at the start of the closed one
+        assertBounds(-5, 0, 25, 20, geometry.getSubpathBounds(2));
+        assertBounds(-5, 0, 45, 30, geometry.getBounds());
+        assertNull(geometry.getElementBounds(0));
+        assertBounds(10, 0, 0, 5, geometry.getElementBounds(2));
+        assertBounds(0, 0, 10, 5, geometry.getElementBounds(3));
+        assertBounds(20, 20, 20, 10, geometry.getElementBounds(5));
+    }
+
+    @Test void containsMatchesPath2D() {
+        final Random random = new Random(13);
+        for (int n = 0 ; n < 30 ; n++) {
+            final PathData      pathData = randomPath(random, 8);
+            final PathGeometry  geometry = PathGeometry.of(pathData, 1e-4);
+            final Path2D.Double nonZero  = pathData.toPath2D();
+            final Path2D.Double evenOdd  = pathData.toPath2D();
+            evenOdd.setWindingRule(Path2D.WIND_EVEN_ODD);
+            for (int i = 0 ; i < 500 ; i++) {
+                final double x = random.nextDouble() * 120 - 10;
+                final double y = random.nextDouble() * 120 - 10;
+                // Skip points on the outline, where the flattening and the arc approximation may decide differently
+                final PathGeometry.NearestSegment nearest = geometry.nearestSegment(x, y);
+                if (null == nearest || nearest.distance() < 0.05 || distanceToClosingEdges(pathData, x, y) < 0.05) { continue; }
+                assertEquals(nonZero.contains(x, y), geometry.contains(x, y), pathData + " at " + x + "," + y);
+                assertEquals(nonZero.contains(x, y), geometry.contains(x, y, PathGeometry.WindingRule.NON_ZERO));
+                assertEquals(evenOdd.contains(x, y), geometry.contains(x, y, PathGeometry.WindingRule.EVEN_ODD), pathData + " at " + x + "," + y);
+            }
+        }
+    }
+
+    @Test void intersectsMatchesPath2D() {
+        final Random random = new Random(17);
+        for (int n = 0 ; n < 30 ; n++) {
+            final PathData      pathData = randomPath(random, 8);
+            final PathGeometry  geometry = PathGeometry.of(pathData, 1e-4);
+            final Path2D.Double path     = pathData.toPath2D();
+            for (int i = 0 ; i < 300 ; i++) {
+                final double x      = random.nextDouble() * 120 - 10;
+                final double y      = random.nextDouble() * 120 - 10;
+                final double width  = random.nextDouble() * 15;
+                final double height = random.nextDouble() * 15;
+                final boolean intersects = geometry.intersects(x, y, width, height);
+                // Decide only if the result doesn't change when the rectangle is slightly smaller or larger
+                final double e = 0.05;
+                if (path.intersects(x + e, y + e, width - 2 * e, height - 2 * e)) { assertTrue(intersects, pathData + " " + x + "," + y + " " + width + "x" + height); }
+                if (!path.intersects(x - e, y - e, width + 2 * e, height + 2 * e)) { assertFalse(intersects, pathData + " " + x + "," + y + " " + width + "x" + height); }
+            }
+        }
+        assertFalse(SVGPathConverter.INSTANCE.convertToPathData("M0 0 L10 0 L10 10 Z").toGeometry().intersects(0, 0, -1, 5));
+    }
+
+    @Test void nearestSegmentMatchesBruteForce() {
+        final Random random = new Random(19);
+        for (int n = 0 ; n < 30 ; n++) {
+            // polylines are not flattened, so the brute force search over the lines is exact
+            final PathData.Builder builder = new PathData.Builder();
+            for (int i = 0 ; i < 200 ; i++) {
+                if (i % 50 == 0) { builder.moveTo(random.nextDouble() * 100, random.nextDouble() * 100); } else { builder.lineTo(random.nextDouble() * 100, random.nextDouble() * 100); }
+            }
+            final PathData     pathData = builder.build();
+            final PathGeometry geometry = pathData.toGeometry();
+            for (int i = 0 ; i < 100 ; i++) {
+                final double x = random.nextDouble() * 140 - 20;
+                final double y = random.nextDouble() * 140 - 20;
+                double bestDistance = Double.POSITIVE_INFINITY;
+                for (int e = 1 ; e < pathData.size() ; e++) {
+                    if (pathData.getOpcode(e) != PathData.LINE_TO) { continue; }
+                    final double distance = distanceToSegment(x, y, pathData.getCoordinate(2 * e - 2), pathData.getCoordinate(2 * e - 1), pathData.getCoordinate(2 * e), pathData.getCoordinate(2 * e + 1));
+                    bestDistance = Math.min(bestDistance, distance);
+                }
+                final PathGeometry.NearestSegment nearest = geometry.nearestSegment(x, y);
+                final int                         e       = nearest.elementIndex();
+                assertEquals(bestDistance, nearest.distance(), EPSILON);
+                // neighbouring lines have the same distance if their common point is the nearest point
+                assertEquals(PathData.LINE_TO, pathData.getOpcode(e));
+                assertEquals(bestDistance, distanceToSegment(x, y, pathData.getCoordinate(2 * e - 2), pathData.getCoordinate(2 * e - 1), pathData.getCoordinate(2 * e), pathData.getCoordinate(2 * e + 1)), EPSILON);
+                assertEquals(bestDistance, Math.hypot(nearest.x() - x, nearest.y() - y), EPSILON);
+            }
+        }
+    }
+
+    @Test void nearestSegmentOfCurves() {
+        final PathGeometry geometry = SVGPathConverter.INSTANCE.convertToPathData("M0 10 A10 10 0 0 1 20 10 L30 10").toGeometry();
+        final PathGeometry.NearestSegment top = geometry.nearestSegment(10, -5);
+        assertEquals(1, top.elementIndex());
+        assertEquals(5, top.distance(), geometry.getFlatness());
+        assertEquals(2, geometry.nearestSegment(28, 12).elementIndex());
+        assertEquals(2, geometry.nearestSegment(28, 12).distance(), EPSILON);
+    }
+
+    @Test void emptyPath() {
+        final PathGeometry geometry = SVGPathConverter.INSTANCE.convertToPathData("").toGeometry();
+        assertBounds(0, 0, 0, 0, geometry.getBounds());
+        assertEquals(0, geometry.getSubpathCount());
+        assertFalse(geometry.contains(0, 0));
+        assertFalse(geometry.intersects(-1, -1, 2, 2));
+        assertNull(geometry.nearestSegment(0, 0));
+        assertNull(SVGPathConverter.INSTANCE.convertToPathData("M1 1").toGeometry().nearestSegment(0, 0));
+    }
+
+    @Test void flatness() {
+        assertEquals(0.1, SVGPathConverter.INSTANCE.convertToPathData("M0 0 L100 50").toGeometry().getFlatness(), EPSILON);
+        assertEquals(0.5, PathGeometry.of(SVGPathConverter.INSTANCE.convertToPathData("M0 0 L100 50"), 0.5).getFlatness());
+        assertThrows(IllegalArgumentException.class, () -> PathGeometry.of(SVGPathConverter.INSTANCE.convertToPathData("M0 0"), 0));
+        assertThrows(IllegalArgumentException.class, () -> PathGeometry.of(SVGPathConverter.INSTANCE.convertToPathData("M0 0"), Double.NaN));
+    }
+
+    private static Rectangle2D bounds(final String svgPathData) { return SVGPathConverter.INSTANCE.convertToPathData(svgPathData).toGeometry().getBounds(); }
+
+    private static void assertBounds(final double x, final double y, final double width, final double height, final Rectangle2D bounds) {
+        final String message = "Bounds " + bounds;
+        assertEquals(x, bounds.getX(), EPSILON, message);
+        assertEquals(y, bounds.getY(), EPSILON, message);
+        assertEquals(width, bounds.getWidth(), EPSILON, message);
+        assertEquals(height, bounds.getHeight(), EPSILON, message);
+    }
+
+    /**
+     * @return random closed and open subpaths with lines, curves and arcs inside of 0,0 - 100,100
+     */
+    private static PathData randomPath(final Random random, final int noOfElements) {
+        final PathData.Builder builder = new PathData.Builder();
+        for (int subpath = 0 ; subpath < 2 ; subpath++) {
+            builder.moveTo(coordinate(random), coordinate(random));
+            for (int i = 0 ; i < noOfElements ; i++) {
+                switch (random.nextInt(4)) {
+                    case 0  -> builder.lineTo(coordinate(random), coordinate(random));
+                    case 1  -> builder.quadTo(coordinate(random), coordinate(random), coordinate(random), coordinate(random));
+                    case 2  -> builder.cubicTo(coordinate(random), coordinate(random), coordinate(random), coordinate(random), coordinate(random), coordinate(random));
+                    default -> builder.arcTo(5 + random.nextDouble() * 20, 5 + random.nextDouble() * 20, random.nextDouble() * 180, random.nextBoolean(), random.nextBoolean(), coordinate(random), coordinate(random));
+                }
+            }
+            if (random.nextBoolean()) { builder.closePath(); }
+        }
+        return builder.build();
+    }
+
+    private static double coordinate(final Random random) { return 20 + random.nextDouble() * 60; }
+
+    private static Rectangle2D sampledBounds(final Path2D path) {
+        final Rectangle2D.Double bounds = new Rectangle2D.Double();
+        final double[]           coords = new double[6];
+        boolean first = true;
+        for (PathIterator iterator = path.getPathIterator(null, 1e-6) ; !iterator.isDone() ; iterator.next()) {
+            if (iterator.currentSegment(coords) == PathIterator.SEG_CLOSE) { continue; }
+            if (first) {
+                bounds.setRect(coords[0], coords[1], 0, 0);
+                first = false;
+            } else {
+                bounds.add(coords[0], coords[1]);
+            }
+        }
+        return bounds;
+    }
+
+    /**
+     * @return distance to the implicit closing lines of the subpaths (from the last point back to the moveto)
+     */
+    private static double distanceToClosingEdges(final PathData pathData, final double x, final double y) {
+        double distance = Double.POSITIVE_INFINITY;
+        double startX   = 0;
+        double startY   = 0;
+        double currentX = 0;
+        double currentY = 0;
+        int c = 0;
+        for (int i = 0 ; i <= pathData.size() ; i++) {
+            final int type = i == pathData.size() ? PathData.MOVE_TO : pathData.getOpcode(i) & PathData.OPCODE_MASK;
+            if (type == PathData.MOVE_TO) {
+                distance = Math.min(distance, distanceToSegment(x, y, currentX, currentY, startX, startY));
+                if (i == pathData.size()) { break; }
+                startX   = pathData.getCoordinate(c);
+                startY   = pathData.getCoordinate(c + 1);
+            }
+            if (type == PathData.CLOSE_PATH) {
+                currentX = startX;
+                currentY = startY;
+            } else {
+                final int count = PathData.coordinateCount(pathData.getOpcode(i));
+                currentX = pathData.getCoordinate(c + count - 2);
+                currentY = pathData.getCoordinate(c + count - 1);
+            }
+            c += PathData.coordinateCount(pathData.getOpcode(i));
+        }
+        return distance;
+    }
+
+    private static double distanceToSegment(final double px, final double py, final double ax, final double ay, final double bx, final double by) {
+        final double dx            = bx - ax;
+        final double dy            = by - ay;
+        final double lengthSquared = dx * dx + dy * dy;
+        final double t             = lengthSquared == 0 ? 0 : Math.max(0, Math.min(1, ((px - ax) * dx + (py - ay) * dy) / lengthSquared));
+        return Math.hypot(px - (ax + t * dx), py - (ay + t * dy));
+    }
+}
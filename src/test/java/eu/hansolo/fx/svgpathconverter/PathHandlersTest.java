@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Checks the outputs of the handlers that don't need JavaFX
+ */
+class PathHandlersTest {
+    private static final String PATH = "M10 20 L30 40 h5 a5 5 0 1 0 10 10 q1 1 2 2 c1 1 2 2 3 3 z m1 1 A50 30 45 0 1 80 90";
+
+    @Test void svgStringHandlerWritesAbsoluteCommands() {
+        assertEquals("M10,20L30,40L35,40A5,5 0 1 0 45,50Q46,51 47,52C48,53 49,54 50,55ZM11,21A50,30 45 0 1 80,90", SVGPathConverter.INSTANCE.convertToSVGString(PATH));
+    }
+
+    @Test void path2DHandlerWritesSegments() {
+        final Path2D.Double path = SVGPathConverter.INSTANCE.convertToPath2D("M10 20 L30 40 Q1 2 3 4 C5 6 7 8 9 10 Z l5 5");
+        assertEquals(List.of("0 10.0 20.0", "1 30.0 40.0", "2 1.0 2.0 3.0 4.0", "3 5.0 6.0 7.0 8.0 9.0 10.0", "4", "1 15.0 25.0"), segments(path));
+    }
+
+    @Test void path2DHandlerApproximatesArcs() {
+        final Path2D.Double path = SVGPathConverter.INSTANCE.convertToPath2D("M0 0 A5 5 0 0 1 10 0");
+        assertEquals(new Point2D.Double(10, 0), path.getCurrentPoint());
+        // The half circle is split into two cubic curves with the middle point on the circle
+        final List<String> segments = segments(path);
+        assertEquals(3, segments.size());
+        final String[] middle = segments.get(1).split(" ");
+        assertEquals(5, Double.parseDouble(middle[5]), 1e-9);
+        assertEquals(5, Math.abs(Double.parseDouble(middle[6])), 1e-9);
+    }
+
+    @Test void path2DHandlerStartsWithImplicitMoveto() {
+        final PathData pathData = PathData.of(new byte[] { PathData.LINE_TO, PathData.CLOSE_PATH }, new double[] { 1, 2 });
+        assertEquals(List.of("0 0.0 0.0", "1 1.0 2.0", "4"), segments(pathData.toPath2D()));
+
+        final Path2DHandler handler = new Path2DHandler();
+        handler.closePath();
+        assertEquals(List.of("0 0.0 0.0", "4"), segments(handler.getPath()));
+    }
+
+    @Test void path2DHandlerAppendsToCurrentPointOfExistingPath() {
+        final Path2D.Double path = new Path2D.Double();
+        path.moveTo(10, 20);
+        path.lineTo(30, 20);
+        // arc from the current point (30,20) back to (10,20), then close to the subpath start (10,20)
+        final PathData pathData = PathData.of(new byte[] { (byte) (PathData.ARC_TO | PathData.SWEEP_FLAG), PathData.CLOSE_PATH, PathData.LINE_TO },
+                                              new double[] { 10, 10, 0, 10, 20, 15, 25 });
+        final Path2DHandler handler = new Path2DHandler(path);
+        pathData.replay(handler);
+
+        final List<String> segments = segments(handler.getPath());
+        assertEquals(List.of("0 10.0 20.0", "1 30.0 20.0"), segments.subList(0, 2));
+        // the half circle around (20,20) starts at (30,20), not at (0,0)
+        final String[] firstCurve = segments.get(2).split(" ");
+        assertEquals("3", firstCurve[0]);
+        assertEquals(30, Double.parseDouble(firstCurve[1]), 1e-9);
+        assertEquals(20 + 10 * 4.0 / 3.0 * Math.tan(Math.PI / 8), Double.parseDouble(firstCurve[2]), 1e-9);
+        assertEquals(20, Double.parseDouble(firstCurve[5]), 1e-9);
+        assertEquals(30, Double.parseDouble(firstCurve[6]), 1e-9);
+        assertEquals("4", segments.get(4));
+        assertEquals("1 15.0 25.0", segments.get(5));
+        assertEquals(new Point2D.Double(15, 25), handler.getPath().getCurrentPoint());
+
+        // the closepath returns to the start of the existing subpath
+        final Path2D.Double closed = new Path2D.Double();
+        closed.moveTo(5, 5);
+        closed.lineTo(8, 9);
+        final Path2DHandler closeHandler = new Path2DHandler(closed);
+        closeHandler.closePath();
+        closeHandler.lineTo(1, 0);
+        assertEquals(List.of("0 5.0 5.0", "1 8.0 9.0", "4", "1 1.0 0.0"), segments(closeHandler.getPath()));
+    }
+
+    @Test void path2DConversionRejectsMissingMoveto() {
+        assertThrows(IllegalArgumentException.class, () -> SVGPathConverter.INSTANCE.convertToPath2D("L1,2"));
+        assertThrows(IllegalArgumentException.class, () -> SVGPathConverter.INSTANCE.convertToPath2D("Z"));
+    }
+
+    @Test void pathBufferHandlerReportsOverflow() {
+        final PathBufferHandler handler = new PathBufferHandler(new byte[3], new double[100]);
+        PathParser.parse(PATH, handler);
+        assertTrue(handler.isOverflow());
+        assertEquals(9, handler.getSize());
+        assertThrows(IllegalStateException.class, handler::toPathData);
+
+        handler.setBuffers(new byte[handler.getSize()], new double[handler.getCoordinateCount()]);
+        PathParser.parse(PATH, handler);
+        assertFalse(handler.isOverflow());
+        assertEquals(SVGPathConverter.INSTANCE.convertToPathData(PATH), handler.toPathData());
+    }
+
+    @Test void compositePathHandlerForwardsToAllHandlers() {
+        final PathElementHandler elementHandler = new PathElementHandler();
+        final SVGStringHandler   stringHandler  = new SVGStringHandler();
+        PathParser.parse(PATH, new CompositePathHandler(elementHandler, stringHandler));
+        assertEquals(9, elementHandler.getElements().size());
+        assertEquals(SVGPathConverter.INSTANCE.convertToSVGString(PATH), stringHandler.toString());
+    }
+
+    /**
+     * @return each segment as type followed by its coordinates
+     */
+    static List<String> segments(final Path2D path) {
+        final List<String> segments = new ArrayList<>();
+        final double[]     values   = new double[6];
+        for (PathIterator iterator = path.getPathIterator(null) ; !iterator.isDone() ; iterator.next()) {
+            final int type = iterator.currentSegment(values);
+            final int count = switch (type) {
+                case PathIterator.SEG_MOVETO, PathIterator.SEG_LINETO -> 2;
+                case PathIterator.SEG_QUADTO                          -> 4;
+                case PathIterator.SEG_CUBICTO                         -> 6;
+                default                                               -> 0;
+            };
+            final StringBuilder segment = new StringBuilder().append(type);
+            for (int i = 0 ; i < count ; i++) { segment.append(' ').append(values[i]); }
+            segments.add(segment.toString());
+        }
+        return segments;
+    }
+}
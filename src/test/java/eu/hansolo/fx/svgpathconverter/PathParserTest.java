@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+/**
+ * Parses path data with the PathParser and compares the normalized absolute output
+ */
+class PathParserTest {
+
+    @Test void packedNumbers() {
+        assertEquals("M1.5,0.5", parse("M1.5.5"));
+        assertEquals("M-1,-2", parse("M-1-2"));
+        assertEquals("M0.5,0.5L0.5,0.5", parse("M.5.5.5.5"));
+        assertEquals("M1,2", parse("M 1 , 2"));
+    }
+
+    @Test void exponents() {
+        assertEquals("M100,0.01", parse("M1e2 1E-2"));
+        assertEquals("M15,-20", parse("M1.5e+1-2e1"));
+        assertEquals("M0,0", parse("M1e-400 0"));
+    }
+
+    @Test void arcFlagsWithoutSeparators() {
+        assertEquals("M0,0A10,10 0 1 1 20,20", parse("M0 0A10 10 0 1120 20"));
+        assertEquals("M0,0A10,10 0 0 1 5,5", parse("M0 0a10,10,0,0,1,5,5"));
+    }
+
+    @Test void implicitLinetoAfterMoveto() {
+        assertEquals("M1,2L3,4L5,6", parse("M1 2 3 4 5 6"));
+        assertEquals("M1,2L4,6", parse("m1 2 3 4"));
+    }
+
+    @Test void horizontalAndVerticalLines() {
+        assertEquals("M0,0L10,0L10,10L0,10L0,0Z", parse("M0 0h10v10H0V0z"));
+    }
+
+    @Test void closepathResetsCurrentPoint() {
+        assertEquals("M10,10L20,10ZL15,10", parse("M10 10L20 10zl5 0"));
+        assertEquals("M10,10L20,10ZM12,10", parse("M10 10L20 10zm2 0"));
+    }
+
+    @Test void smoothCubicReflectsOnlyAfterCubic() {
+        assertEquals("M0,0C10,0 20,10 30,30C40,50 50,50 60,60", parse("M0 0C10 0 20 10 30 30S50 50 60 60"));
+        assertEquals("M0,0C10,0 20,10 30,30C40,50 50,50 60,60C70,70 80,80 90,90", parse("M0 0C10 0 20 10 30 30S50 50 60 60S80 80 90 90"));
+        assertEquals("M0,0L30,30C30,30 50,50 60,60", parse("M0 0L30 30S50 50 60 60"));
+        assertEquals("M0,0Q10,20 30,30C30,30 50,50 60,60", parse("M0 0Q10 20 30 30S50 50 60 60"));
+    }
+
+    @Test void smoothQuadReflectsOnlyAfterQuad() {
+        assertEquals("M0,0Q10,20 30,30Q50,40 60,60Q70,80 90,90", parse("M0 0Q10 20 30 30T60 60T90 90"));
+        assertEquals("M0,0L30,30Q30,30 60,60", parse("M0 0L30 30T60 60"));
+        assertEquals("M0,0C1,1 2,2 3,3Q3,3 9,9", parse("M0 0C1 1 2 2 3 3T9 9"));
+    }
+
+    @Test void formatKeepsCommands() {
+        assertEquals("m1,2l3,4", SVGPathConverter.INSTANCE.format("m1 2 3 4"));
+        assertEquals("M0,0C10,0 20,10 30,30S50,50 60,60", SVGPathConverter.INSTANCE.format("M0 0C10 0 20 10 30 30S50 50 60 60"));
+    }
+
+    @Test void pathDataMustStartWithMoveto() {
+        assertEquals("", parse(""));
+        assertEquals("M1,2", parse("  m1 2"));
+        assertError("Path data must start with a moveto at index 0", "L1,2");
+        assertError("Path data must start with a moveto at index 0", "Z");
+        assertError("Path data must start with a moveto at index 2", "  h5");
+        assertError("Path data must start with a command at index 0", "1 2");
+        final IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> SVGPathConverter.INSTANCE.format("L1,2"));
+        assertEquals("Path data must start with a moveto at index 0", e.getMessage());
+    }
+
+    @Test void errorMessagesWithIndex() {
+        assertError("Expected number at index 5", "M1 2L");
+        assertError("Unexpected number after closepath at index 5", "M1 2Z3");
+        assertError("Unexpected character 'X' at index 5", "M1 2 X");
+        assertError("Expected arc flag (0 or 1) at index 11", "M0 0A1 1 0 2 0 5 5");
+        assertError("Expected exponent at index 3", "M1e");
+        assertError("Number out of range at index 6", "M1e400 0");
+    }
+
+    @Test void overflowIsNotFormatted() {
+        final IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> SVGPathConverter.INSTANCE.format("M1e400 0L1 1"));
+        assertEquals("Number out of range at index 6", e.getMessage());
+    }
+
+    @Test void readerGivesSameResultAsCharSequence() throws IOException {
+        // Longer than the 8192 chars buffer, numbers and commands are split at the buffer boundaries
+        final Random        random      = new Random(3);
+        final StringBuilder svgPathData = new StringBuilder("M0 0");
+        while (svgPathData.length() < 50_000) {
+            switch (random.nextInt(3)) {
+                case 0  -> svgPathData.append(" l").append(random.nextInt(1000) / 7.0).append(',').append(-random.nextDouble());
+                case 1  -> svgPathData.append(" C").append(random.nextInt(100)).append(' ').append(random.nextInt(100)).append("e-1 .5.5 ").append(random.nextGaussian()).append('-').append(random.nextInt(100));
+                default -> svgPathData.append("a10 20 30 1").append(random.nextInt(2)).append(random.nextInt(100)).append(' ').append(random.nextInt(100));
+            }
+        }
+        final String expected = parse(svgPathData.toString());
+
+        final SVGStringHandler handler = new SVGStringHandler();
+        PathParser.parse(new StringReader(svgPathData.toString()), handler);
+        assertEquals(expected, handler.toString());
+
+        // Readers may return less chars than requested
+        final SVGStringHandler trickleHandler = new SVGStringHandler();
+        PathParser.parse(new TrickleReader(svgPathData.toString()), trickleHandler);
+        assertEquals(expected, trickleHandler.toString());
+    }
+
+    @Test void readerErrorsWithIndex() {
+        final String svgPathData = "M0 0" + " L1 1".repeat(3000) + " X";
+        final IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> PathParser.parse(new StringReader(svgPathData), new SVGStringHandler()));
+        assertEquals("Unexpected character 'X' at index " + (svgPathData.length() - 1), e.getMessage());
+    }
+
+    @Test void readerExceptionsArePassedOn() throws IOException {
+        final IOException failure = new IOException("Disk on fire");
+        final Reader reader = new Reader() {
+            private boolean first = true;
+            @Override public int read(final char[] chars, final int offset, final int length) throws IOException {
+                if (!first) { throw failure; }
+                first = false;
+                "M1 2 L3 4".getChars(0, 9, chars, offset);
+                return 9;
+            }
+            @Override public void close() { throw new UncheckedIOException(new IOException("Must not be closed")); }
+        };
+        final IOException e = assertThrows(IOException.class, () -> PathParser.parse(reader, new SVGStringHandler()));
+        assertSame(failure, e);
+
+        final TrickleReader trickleReader = new TrickleReader("M1 2");
+        PathParser.parse(trickleReader, new SVGStringHandler());
+        assertFalse(trickleReader.closed);
+    }
+
+    private static String parse(final String svgPathData) {
+        final SVGStringHandler handler = new SVGStringHandler();
+        PathParser.parse(svgPathData, handler);
+        return handler.toString();
+    }
+
+    private static void assertError(final String message, final String svgPathData) {
+        final IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> parse(svgPathData));
+        assertEquals(message, e.getMessage());
+    }
+
+
+    private static final class TrickleReader extends Reader {
+        private final String  source;
+        private       int     index;
+        private       boolean closed;
+
+        TrickleReader(final String source) { this.source = source; }
+
+        @Override public int read(final char[] chars, final int offset, final int length) {
+            if (index == source.length()) { return -1; }
+            final int count = Math.min(Math.min(length, 1 + index % 3), source.length() - index);
+            source.getChars(index, index + count, chars, offset);
+            index += count;
+            return count;
+        }
+
+        @Override public void close() { closed = true; }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class PathSimplifierTest {
+
+    @Test void removedPointsStayWithinTolerance() {
+        final Random random = new Random(5);
+        for (double tolerance : new double[] { 0.1, 0.5, 2 }) {
+            final PathSimplifier simplifier = new PathSimplifier(PathSimplifier.NO_ROUNDING, tolerance);
+            for (int n = 0 ; n < 20 ; n++) {
+                // noisy polyline with some corners
+                final PathData.Builder builder = new PathData.Builder();
+                double x     = 0;
+                double y     = 0;
+                double angle = 0;
+                builder.moveTo(x, y);
+                for (int i = 0 ; i < 500 ; i++) {
+                    if (random.nextInt(50) == 0) { angle = random.nextDouble() * 2 * Math.PI; }
+                    x += Math.cos(angle) + random.nextGaussian() * 0.2;
+                    y += Math.sin(angle) + random.nextGaussian() * 0.2;
+                    builder.lineTo(x, y);
+                }
+                final PathData              original = builder.build();
+                final PathSimplifier.Result result   = simplifier.simplify(original);
+                final PathData              simple   = result.pathData();
+                assertEquals(original.size() - simple.size(), result.removedElements());
+                assertEquals(501, result.originalElements());
+                assertTrue(result.removedElements() > 0);
+
+                // The simplified polyline keeps the first and last point and only contains original points in their order
+                assertEquals(original.getCoordinate(0), simple.getCoordinate(0));
+                assertEquals(x, simple.getCoordinate(simple.getCoordinateCount() - 2));
+                assertEquals(y, simple.getCoordinate(simple.getCoordinateCount() - 1));
+                int k = 0;
+                for (int i = 0 ; i < original.size() ; i++) {
+                    final double px = original.getCoordinate(2 * i);
+                    final double py = original.getCoordinate(2 * i + 1);
+                    if (px == simple.getCoordinate(2 * k) && py == simple.getCoordinate(2 * k + 1)) {
+                        k++;
+                    } else {
+                        // removed points lie within the tolerance of the segment that replaced them
+                        final double distance = distanceToSegment(px, py, simple.getCoordinate(2 * k - 2), simple.getCoordinate(2 * k - 1), simple.getCoordinate(2 * k), simple.getCoordinate(2 * k + 1));
+                        assertTrue(distance <= tolerance, "Distance " + distance + " > " + tolerance);
+                    }
+                }
+                assertEquals(simple.size(), k);
+            }
+        }
+    }
+
+    @Test void flatCurvesAndLinesStayWithinTolerance() {
+        final Random random = new Random(10);
+        for (double tolerance : new double[] { 0.1, 0.5, 2 }) {
+            final PathSimplifier simplifier = new PathSimplifier(PathSimplifier.NO_ROUNDING, tolerance);
+            for (int n = 0 ; n < 20 ; n++) {
+                // polyline with points on both sides of the x axis next to curves that bulge up to the tolerance
+                final PathData.Builder builder = new PathData.Builder();
+                double x = 0;
+                double y = 0;
+                builder.moveTo(x, y);
+                for (int i = 0 ; i < 200 ; i++) {
+                    final double nextX = x + 1 + random.nextDouble() * tolerance;
+                    final double nextY = (random.nextDouble() - 0.5) * tolerance;
+                    switch (random.nextInt(3)) {
+                        case 0  -> builder.lineTo(nextX, nextY);
+                        case 1  -> builder.quadTo((x + nextX) / 2, (y + nextY) / 2 + (random.nextDouble() * 2 - 1) * tolerance, nextX, nextY);
+                        default -> builder.cubicTo(x + (nextX - x) / 3, y + (random.nextDouble() * 2 - 1) * tolerance,
+                                                   x + 2 * (nextX - x) / 3, y + (random.nextDouble() * 2 - 1) * tolerance, nextX, nextY);
+                    }
+                    x = nextX;
+                    y = nextY;
+                }
+                final PathData original = builder.build();
+                final PathData simple   = simplifier.simplify(original).pathData();
+                assertTrue(simple.size() < original.size());
+
+                // Hausdorff distance between the original and the simplified path (curves are sampled)
+                final List<double[]> originalPoints = sample(original);
+                final List<double[]> simplePoints   = sample(simple);
+                final double         maxDistance    = Math.max(distance(originalPoints, simplePoints), distance(simplePoints, originalPoints));
+                assertTrue(maxDistance <= tolerance * 1.001, "Hausdorff distance " + maxDistance + " > " + tolerance);
+            }
+        }
+    }
+
+    @Test void mergesCollinearLines() {
+        assertEquals("M0,0L30,0L30,10", simplify(PathSimplifier.NO_ROUNDING, 0, "M0 0 L10 0 L20 0 L30 0 L30 5 L30 10"));
+        assertEquals("M0,0L30,0L30,10", simplify(PathSimplifier.NO_ROUNDING, 0, "M0 0 h10 h0 h20 v10"));
+        // points that are just outside of the tolerance are kept
+        assertEquals("M0,0L10,0.2L20,0", simplify(PathSimplifier.NO_ROUNDING, 0.1, "M0 0 L10 0.2 L20 0"));
+        assertEquals("M0,0L20,0", simplify(PathSimplifier.NO_ROUNDING, 0.2, "M0 0 L10 0.2 L20 0"));
+    }
+
+    @Test void roundsCoordinates() {
+        assertEquals("M1.23,-4.57L10,0", simplify(2, 0, "M1.2345 -4.5678 L10.001 0"));
+        assertEquals("M1,-5L10,0", simplify(0, 0, "M1.2345 -4.5678 L10.001 0"));
+        // lines that collapse to a point after rounding are dropped
+        assertEquals("M1,1L5,5", simplify(0, 0, "M1 1 L1.2 1.2 L5 5"));
+        assertEquals("M1.2345,-4.5678L10.001,0", simplify(PathSimplifier.NO_ROUNDING, 0, "M1.2345 -4.5678 L10.001 0"));
+    }
+
+    @Test void replacesFlatCurvesByLines() {
+        assertEquals("M0,0L20,0", simplify(PathSimplifier.NO_ROUNDING, 0.5, "M0 0 Q10 0.4 20 0"));
+        assertEquals("M0,0Q10,1 20,0", simplify(PathSimplifier.NO_ROUNDING, 0.5, "M0 0 Q10 1 20 0"));
+        assertEquals("M0,0L30,0", simplify(PathSimplifier.NO_ROUNDING, 0.5, "M0 0 C10 0.3 20 -0.3 30 0"));
+        assertEquals("M0,0C10,0.3 20,-1 30,0", simplify(PathSimplifier.NO_ROUNDING, 0.5, "M0 0 C10 0.3 20 -1 30 0"));
+        // flat curves are merged with the neighbouring lines
+        assertEquals("M0,0L40,0", simplify(PathSimplifier.NO_ROUNDING, 0.5, "M0 0 L10 0 Q20 0.1 30 0 L40 0"));
+    }
+
+    @Test void dropsElementsWithoutEffect() {
+        assertEquals("M5,5L6,6", simplify(PathSimplifier.NO_ROUNDING, 0, "M1 1 M5 5 L6 6 M7 7"));
+        assertEquals("M0,0L6,6", simplify(PathSimplifier.NO_ROUNDING, 0, "M0 0 Q0 0 0 0 C0 0 0 0 0 0 A5 5 0 0 1 0 0 L6 6"));
+        assertEquals("M0,0L10,0A5,5 0 0 1 20,0Z", simplify(PathSimplifier.NO_ROUNDING, 0, "M0 0 A0 5 0 0 1 10 0 A5 5 0 0 1 20 0 Z"));
+    }
+
+    @Test void keepsPrecision() {
+        final PathData pathData = SVGPathConverter.INSTANCE.convertToPathData("M0 0 L1 0 L2 0", PathData.Precision.FLOAT);
+        assertEquals(PathData.Precision.FLOAT, new PathSimplifier(2, 0).simplify(pathData).pathData().getPrecision());
+    }
+
+    @Test void validatesArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new PathSimplifier(-2, 0));
+        assertThrows(IllegalArgumentException.class, () -> new PathSimplifier(16, 0));
+        assertThrows(IllegalArgumentException.class, () -> new PathSimplifier(2, -1));
+        assertThrows(IllegalArgumentException.class, () -> new PathSimplifier(2, Double.NaN));
+    }
+
+    private static String simplify(final int decimals, final double tolerance, final String svgPathString) {
+        return new PathSimplifier(decimals, tolerance).simplify(SVGPathConverter.INSTANCE.convertToPathData(svgPathString)).pathData().toSVGString();
+    }
+
+    /**
+     * @return the points of the path with each curve sampled at 64 points (single subpath without arcs)
+     */
+    private static List<double[]> sample(final PathData pathData) {
+        final List<double[]> points = new ArrayList<>();
+        int c = 0;
+        for (int i = 0 ; i < pathData.size() ; i++) {
+            final byte     opcode = pathData.getOpcode(i);
+            final double[] last   = points.isEmpty() ? null : points.get(points.size() - 1);
+            switch (opcode & PathData.OPCODE_MASK) {
+                case PathData.MOVE_TO, PathData.LINE_TO -> points.add(new double[] { pathData.getCoordinate(c), pathData.getCoordinate(c + 1) });
+                case PathData.QUAD_TO                   -> {
+                    for (int s = 1 ; s <= 64 ; s++) {
+                        final double t = s / 64.0;
+                        final double u = 1 - t;
+                        points.add(new double[] { u * u * last[0] + 2 * u * t * pathData.getCoordinate(c) + t * t * pathData.getCoordinate(c + 2),
+                                                  u * u * last[1] + 2 * u * t * pathData.getCoordinate(c + 1) + t * t * pathData.getCoordinate(c + 3) });
+                    }
+                }
+                case PathData.CUBIC_TO                  -> {
+                    for (int s = 1 ; s <= 64 ; s++) {
+                        final double t = s / 64.0;
+                        final double u = 1 - t;
+                        points.add(new double[] { u * u * u * last[0] + 3 * u * u * t * pathData.getCoordinate(c) + 3 * u * t * t * pathData.getCoordinate(c + 2) + t * t * t * pathData.getCoordinate(c + 4),
+                                                  u * u * u * last[1] + 3 * u * u * t * pathData.getCoordinate(c + 1) + 3 * u * t * t * pathData.getCoordinate(c + 3) + t * t * t * pathData.getCoordinate(c + 5) });
+                    }
+                }
+                default                                 -> throw new IllegalArgumentException("Unexpected opcode " + opcode);
+            }
+            c += PathData.coordinateCount(opcode);
+        }
+        return points;
+    }
+
+    /**
+     * @return max. distance of the given points to the polyline through the other points
+     */
+    private static double distance(final List<double[]> points, final List<double[]> polyline) {
+        double maxDistance = 0;
+        for (double[] point : points) {
+            double distance = Double.MAX_VALUE;
+            for (int i = 1 ; i < polyline.size() ; i++) {
+                final double[] a = polyline.get(i - 1);
+                final double[] b = polyline.get(i);
+                distance = Math.min(distance, a[0] == b[0] && a[1] == b[1] ? Math.hypot(point[0] - a[0], point[1] - a[1]) : distanceToSegment(point[0], point[1], a[0], a[1], b[0], b[1]));
+            }
+            maxDistance = Math.max(maxDistance, distance);
+        }
+        return maxDistance;
+    }
+
+    private static double distanceToSegment(final double px, final double py, final double ax, final double ay, final double bx, final double by) {
+        final double dx = bx - ax;
+        final double dy = by - ay;
+        final double t  = Math.max(0, Math.min(1, ((px - ax) * dx + (py - ay) * dy) / (dx * dx + dy * dy)));
+        return Math.hypot(px - (ax + t * dx), py - (ay + t * dy));
+    }
+}
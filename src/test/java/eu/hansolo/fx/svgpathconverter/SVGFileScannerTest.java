@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package eu.hansolo.fx.svgpathconverter;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class SVGFileScannerTest {
+
+    @Test void keysUseIdOrIndex() {
+        final SVGFileScanner.Result result = scan("""
+            <svg xmlns="http://www.w3.org/2000/svg">
+              <path id="a" d="M1 2L3 4"/>
+              <path fill="red" d='M5 6'></path>
+              <path d="M7 8" id = 'b' />
+              <pathology d="M0 0"/>
+              <g><path
+                  d="M9 10z"/></g>
+            </svg>
+            """);
+        assertEquals(List.of("test.svg#a", "test.svg#1", "test.svg#b", "test.svg#3"), List.copyOf(result.paths().keySet()));
+        assertEquals("M1,2L3,4", result.paths().get("test.svg#a").toSVGString());
+        assertEquals("M5,6", result.paths().get("test.svg#1").toSVGString());
+        assertEquals("M7,8", result.paths().get("test.svg#b").toSVGString());
+        assertEquals("M9,10Z", result.paths().get("test.svg#3").toSVGString());
+        assertFalse(result.hasErrors());
+    }
+
+    @Test void duplicateIdsGetSuffix() {
+        final SVGFileScanner.Result result = scan("<path id='a' d='M1 1'/><path id='a' d='M2 2'/><path id='a' d='L3 3'/>");
+        assertEquals(List.of("test.svg#a", "test.svg#a-2"), List.copyOf(result.paths().keySet()));
+        assertEquals(List.of("test.svg#a-3"), List.copyOf(result.errors().keySet()));
+    }
+
+    @Test void decodesEntities() {
+        final SVGFileScanner.Result result = scan("<path id='a&amp;b' d='M1&#32;2&#x20;L3&#44;4'/><path id='&unknown;' d='M5 6'/>");
+        assertEquals("M1,2L3,4", result.paths().get("test.svg#a&b").toSVGString());
+        assertTrue(result.paths().containsKey("test.svg#&unknown;"));
+    }
+
+    @Test void decodesIdsAsUtf8() {
+        final String svg = "<path id='h\u00e4user-\u221a-\ud83c\udfe0&amp;x' d='M1 2'/>";
+        final SVGFileScanner.Result result = SVGFileScanner.scan(ByteBuffer.wrap(svg.getBytes(StandardCharsets.UTF_8)), "test.svg");
+        assertEquals(List.of("test.svg#h\u00e4user-\u221a-\ud83c\udfe0&x"), List.copyOf(result.paths().keySet()));
+        assertEquals("M1,2", result.paths().get("test.svg#h\u00e4user-\u221a-\ud83c\udfe0&x").toSVGString());
+    }
+
+    @Test void skipsComments() {
+        final SVGFileScanner.Result result = scan("<!-- <path d='M1 1'/> --><path d='M2 2'/><!-- unterminated <path d='M3 3'/>");
+        assertEquals(List.of("test.svg#0"), List.copyOf(result.paths().keySet()));
+        assertEquals("M2,2", result.paths().get("test.svg#0").toSVGString());
+    }
+
+    @Test void collectsErrors() {
+        final SVGFileScanner.Result result = scan("<path id='bad' d='M1 2 X'/><path id='good' d='M1 2'/>");
+        assertTrue(result.hasErrors());
+        assertEquals("Unexpected character 'X' at index 5", result.errors().get("test.svg#bad").getMessage());
+        assertEquals(List.of("test.svg#good"), List.copyOf(result.paths().keySet()));
+    }
+
+    @Test void collectsErrorsOfMalformedEntities() {
+        final SVGFileScanner.Result result = scan("<path id='a' d='M1 2&#xZZ;3 4'/><path id='b' d='M1&#99999999;2'/><path id='c&#x;' d='M5 6'/><path id='d' d='M7 8&#");
+        assertEquals(List.of("test.svg#a", "test.svg#b", "test.svg#d"), List.copyOf(result.errors().keySet()));
+        assertTrue(result.errors().values().stream().allMatch(IllegalArgumentException.class::isInstance));
+        // the malformed reference in the id is kept, the path next to the malformed ones is converted
+        assertEquals(List.of("test.svg#c&#x;"), List.copyOf(result.paths().keySet()));
+        assertEquals("M5,6", result.paths().get("test.svg#c&#x;").toSVGString());
+    }
+
+    @Test void scansFilesAndDirectories() throws IOException {
+        final Path directory = Files.createTempDirectory("svgfilescanner");
+        try {
+            final Path icons = Files.createDirectories(directory.resolve("icons"));
+            Files.writeString(icons.resolve("b.svg"), "<path id='b' d='M1 1'/>");
+            Files.writeString(icons.resolve("a.SVG"), "<path id='a' d='M2 2'/>");
+            Files.writeString(icons.resolve("notes.txt"), "<path id='n' d='M3 3'/>");
+            // large files are memory mapped
+            final Path large = Files.writeString(directory.resolve("large.svg"), "<path id='large' d='M0 0" + " L1 1".repeat(20_000) + "'/>");
+            final Path missing = directory.resolve("missing.svg");
+
+            final SVGFileScanner.Result result = SVGFileScanner.scan(icons, large, missing);
+            assertEquals(List.of(icons.resolve("a.SVG") + "#a", icons.resolve("b.svg") + "#b", large + "#large"), List.copyOf(result.paths().keySet()));
+            assertEquals(20_001, result.paths().get(large + "#large").size());
+            assertEquals(List.of(missing.toString()), List.copyOf(result.errors().keySet()));
+            assertTrue(result.errors().get(missing.toString()) instanceof IOException);
+
+            // same result in the same order on a given pool
+            final ForkJoinPool pool = new ForkJoinPool(2);
+            try {
+                final SVGFileScanner.Result poolResult = SVGFileScanner.scan(List.of(icons, large, missing), pool);
+                assertEquals(List.copyOf(result.paths().keySet()), List.copyOf(poolResult.paths().keySet()));
+                assertEquals(result.paths().get(large + "#large"), poolResult.paths().get(large + "#large"));
+                assertEquals(List.copyOf(result.errors().keySet()), List.copyOf(poolResult.errors().keySet()));
+            } finally {
+                pool.shutdown();
+            }
+        } finally {
+            try (Stream<Path> stream = Files.walk(directory)) {
+                for (Path path : stream.sorted(Comparator.reverseOrder()).toList()) { Files.delete(path); }
+            }
+        }
+    }
+
+    private static SVGFileScanner.Result scan(final String svg) {
+        return SVGFileScanner.scan(ByteBuffer.wrap(svg.getBytes(StandardCharsets.US_ASCII)), "test.svg");
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package eu.hansolo.fx.svgpathconverter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class SVGPathCacheTest {
+    private static final String A = "M1 1";
+    private static final String B = "M2 2";
+    private static final String C = "M3 3";
+
+    @Test void evictsLeastRecentlyUsed() {
+        final SVGPathCache cache = new SVGPathCache(2);
+        final PathData     a     = cache.getPathData(A);
+        cache.getPathData(B);
+        assertSame(a, cache.getPathData(A));  // A is now more recently used than B
+        cache.getPathData(C);                 // evicts B
+        assertEquals(2, cache.size());
+        assertEquals(new SVGPathCache.Statistics(1, 3, 1, 2, 2), cache.getStatistics());
+
+        assertSame(a, cache.getPathData(A));
+        cache.getPathData(B);                 // miss, evicts C
+        cache.getPathData(A);
+        assertEquals(new SVGPathCache.Statistics(3, 4, 2, 2, 2), cache.getStatistics());
+        cache.getPathData(C);                 // miss, evicts B
+        assertEquals(3, cache.getHitCount());
+        assertEquals(5, cache.getMissCount());
+        assertEquals(3, cache.getEvictionCount());
+    }
+
+    @Test void invalidateClearAndReset() {
+        final SVGPathCache cache = new SVGPathCache(10);
+        final PathData     a     = cache.getPathData(A);
+        cache.getPathData(B);
+        cache.invalidate(A);
+        assertEquals(1, cache.size());
+        assertNotSame(a, cache.getPathData(A));
+        assertEquals(a, cache.getPathData(A));
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(new SVGPathCache.Statistics(1, 3, 0, 0, 10), cache.getStatistics());
+        assertEquals(0.25, cache.getStatistics().hitRate());
+
+        cache.resetStatistics();
+        assertEquals(new SVGPathCache.Statistics(0, 0, 0, 0, 10), cache.getStatistics());
+        assertEquals(1.0, cache.getStatistics().hitRate());
+    }
+
+    @Test void returnsNewElements() {
+        final SVGPathCache cache = new SVGPathCache();
+        assertEquals(SVGPathCache.DEFAULT_CAPACITY, cache.getCapacity());
+        assertNotSame(cache.getPathElements(A).get(0), cache.getPathElements(A).get(0));
+        assertNotSame(cache.getPath(A), cache.getPath(A));
+        assertEquals(3, cache.getHitCount());
+    }
+
+    @Test void malformedPathsAreNotCached() {
+        final SVGPathCache cache = new SVGPathCache(2);
+        assertThrows(IllegalArgumentException.class, () -> cache.getPathData("M1 X"));
+        assertThrows(IllegalArgumentException.class, () -> cache.getPathData("M1 X"));
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test void rejectsInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new SVGPathCache(0));
+    }
+
+    @Test void concurrentAccess() throws Exception {
+        final SVGPathCache    cache    = new SVGPathCache(8);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0 ; t < 4 ; t++) {
+                final int seed = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0 ; i < 10_000 ; i++) {
+                        final int key = (i * 7 + seed) % 12;
+                        assertEquals("M" + key + "," + key, cache.getPathData("M" + key + " " + key).toSVGString());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) { future.get(); }
+        } finally {
+            executor.shutdown();
+        }
+        final SVGPathCache.Statistics statistics = cache.getStatistics();
+        assertEquals(40_000, statistics.hitCount() + statistics.missCount());
+        assertTrue(statistics.size() <= 8);
+        assertTrue(statistics.evictionCount() <= statistics.missCount());
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+import javafx.scene.shape.ArcTo;
+import javafx.scene.shape.CubicCurveTo;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.PathElement;
+import javafx.scene.shape.QuadCurveTo;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Compares concurrent and batch conversions with sequential calls of convert()
+ */
+class SVGPathConverterTest {
+    private static final String MAIN_PATH = "M 54.1,12.5 12.9,54.7 C -2.7,70.3 23,69 32.3,74.9 36.6,77.7 18.5,81.3 22.2,85 c 3.6,3.7 21.7,7.1 25.3,10.7 3.6,3.7 -7.3,7.6 -3.7,11.3 3.5,3.7 11.9,0.2 13.4,8.6 1.1,6.2 15.4,3.1 21.8,-2.2 4,-3.4 -6.9,-3.4 -3.3,-7.1 9,-9.1 17,-4.1 20.3,-12.5 1.8,-4.5 -13.6,-7.7 -9.5,-10.6 9.8,-6.9 45.8,-10.4 29.2,-27 L 73,12.5 c -5.3,-5 -14,-5 -18.9,0 z m -9.9,64.7 c 0.9,0 30.8,4 19.3,7.1 -4.4,1.2 -24.6,-7.1 -19.3,-7.1 z m 57.2,16.6 c 0,2.1 16.3,3.3 15.4,-0.5 -1.3,-6.4 -13.6,-5.9 -15.4,0.5 z m -69.5,11.1 c 3.7,3.2 9.3,-0.7 11.1,-5.2 -3.6,-4.7 -16.9,0.3 -11.1,5.2 z m 67.5,-6.7 c -4.6,4.2 0.8,8.6 5.3,5.7 1.2,-0.8 -0.1,-4.7 -5.3,-5.7 z";
+    private static final Path   CORPUS    = Path.of("src", "jmh", "resources", "corpus");
+
+    @Test void concurrentConvertCallsMatchSequentialCalls() throws Exception {
+        final List<String>       paths    = corpus();
+        final List<List<String>> expected = sequential(paths);
+        final ExecutorService    executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Callable<List<List<String>>>> tasks = new ArrayList<>();
+            for (int i = 0 ; i < 32 ; i++) { tasks.add(() -> paths.stream().map(path -> describe(SVGPathConverter.INSTANCE.convert(path))).toList()); }
+            for (Future<List<List<String>>> future : executor.invokeAll(tasks)) { assertEquals(expected, future.get()); }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test void convertAllMatchesSequentialConversionInOrder() throws IOException {
+        final List<String>       paths    = corpus();
+        final List<List<String>> expected = sequential(paths);
+        assertEquals(expected, SVGPathConverter.INSTANCE.convertAll(paths).stream().map(SVGPathConverterTest::describe).toList());
+
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(expected, SVGPathConverter.INSTANCE.convertAll(paths, pool).stream().map(SVGPathConverterTest::describe).toList());
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(List.of(), SVGPathConverter.INSTANCE.convertAll(List.of()));
+    }
+
+    @Test void convertAllRejectsMalformedPaths() throws IOException {
+        final List<String> paths = new ArrayList<>(corpus());
+        paths.add(paths.size() / 2, "M1 2 X3 4");
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> SVGPathConverter.INSTANCE.convertAll(paths, pool));
+            assertTrue(String.valueOf(e.getMessage()).contains("X"), String.valueOf(e.getMessage()));
+        } finally {
+            pool.shutdown();
+        }
+        assertThrows(IllegalArgumentException.class, () -> SVGPathConverter.INSTANCE.convertAll(paths));
+    }
+
+    /**
+     * @return the path of Main and all paths of the benchmark corpus
+     */
+    private static List<String> corpus() throws IOException {
+        final List<String> paths = new ArrayList<>(List.of(MAIN_PATH));
+        try (var files = Files.list(CORPUS)) {
+            for (Path file : files.sorted().toList()) {
+                Files.readAllLines(file).stream().filter(line -> !line.isBlank()).forEach(paths::add);
+            }
+        }
+        return paths;
+    }
+
+    private static List<List<String>> sequential(final List<String> paths) {
+        return paths.stream().map(path -> describe(SVGPathConverter.INSTANCE.convert(path))).toList();
+    }
+
+    private static List<String> describe(final List<PathElement> elements) { return elements.stream().map(SVGPathConverterTest::describe).toList(); }
+
+    private static String describe(final PathElement element) {
+        if (element instanceof MoveTo moveTo) {
+            return "M" + moveTo.getX() + "," + moveTo.getY();
+        } else if (element instanceof LineTo lineTo) {
+            return "L" + lineTo.getX() + "," + lineTo.getY();
+        } else if (element instanceof QuadCurveTo quad) {
+            return "Q" + quad.getControlX() + "," + quad.getControlY() + " " + quad.getX() + "," + quad.getY();
+        } else if (element instanceof CubicCurveTo cubic) {
+            return "C" + cubic.getControlX1() + "," + cubic.getControlY1() + " " + cubic.getControlX2() + "," + cubic.getControlY2() + " " + cubic.getX() + "," + cubic.getY();
+        } else if (element instanceof ArcTo arc) {
+            return "A" + arc.getRadiusX() + "," + arc.getRadiusY() + " " + arc.getXAxisRotation() + " " + arc.isLargeArcFlag() + " " + arc.isSweepFlag() + " " + arc.getX() + "," + arc.getY();
+        }
+        return "Z";
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package eu.hansolo.fx.svgpathconverter;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Compares transformed arcs with the arcs of the original path transformed by java.awt.geom.AffineTransform
+ */
+class TransformHandlerTest {
+    private static final double[][] TRANSFORMS = {
+        { -1, 0, 100, 0, 1, 0 },        // mirrored at x = 50
+        { 1, 0, 0, 0, -1, 0 },          // mirrored at the x axis
+        { 0, 1, 0, 1, 0, 0 },           // swaps x and y
+        { 2, 0, 5, 0, 0.5, -5 },        // non uniform scale
+        { 1.5, 0.7, 0, -0.3, 0.8, 10 }, // rotation, scale and shear
+        { 0.5, 1.2, 0, 0.9, -0.4, 10 }  // mirrored shear
+    };
+    private static final String[]   ARCS       = {
+        "M10 10 A30 20 0 0 1 50 30",
+        "M10 10 A30 20 0 1 1 50 30",
+        "M10 10 A30 20 0 0 0 50 30",
+        "M10 10 A30 20 0 1 0 50 30",
+        "M10 10 A30 20 35 1 0 50 30 a10 40 -60 0 1 -20 5",
+        "M10 10 A2 1 0 0 1 50 30" // radii are scaled up to reach the end point
+    };
+
+    @Test void arcsMatchTransformedOriginal() {
+        for (double[] m : TRANSFORMS) {
+            final AffineTransform affineTransform = new AffineTransform(m[0], m[3], m[1], m[4], m[2], m[5]);
+            for (String arc : ARCS) {
+                final Shape            expected = affineTransform.createTransformedShape(SVGPathConverter.INSTANCE.convertToPath2D(arc));
+                final Path2DHandler    actual   = new Path2DHandler();
+                PathParser.parse(arc, new TransformHandler(actual, m[0], m[1], m[2], m[3], m[4], m[5]));
+                final String message = arc + " with " + affineTransform;
+                assertTrue(hausdorffDistance(expected, actual.getPath()) < 1e-3, message);
+                assertEquals(expected.getBounds2D().getMinX(), actual.getPath().getBounds2D().getMinX(), 1e-3, message);
+            }
+        }
+    }
+
+    @Test void mirroringFlipsSweepFlag() {
+        assertEquals(PathData.ARC_TO, arcOpcode("M10 10 A30 20 0 0 1 50 30", -1, 0, 100, 0, 1, 0));
+        assertEquals(PathData.ARC_TO | PathData.LARGE_ARC_FLAG | PathData.SWEEP_FLAG, arcOpcode("M10 10 A30 20 0 1 0 50 30", 1, 0, 0, 0, -1, 0));
+        assertEquals(PathData.ARC_TO | PathData.SWEEP_FLAG, arcOpcode("M10 10 A30 20 0 0 0 50 30", 0.5, 1.2, 0, 0.9, -0.4, 10));
+        // a rotation by 180 degree keeps the direction
+        assertEquals(PathData.ARC_TO | PathData.SWEEP_FLAG, arcOpcode("M10 10 A30 20 0 0 1 50 30", -1, 0, 0, 0, -1, 0));
+    }
+
+    @Test void transformsRadiiAndRotation() {
+        assertEquals("M20,5A60,10 0 0 1 100,15", transform("M10 10 A30 20 0 0 1 50 30", 2, 0, 0, 0, 0.5, 0));
+        // swapping the axes mirrors and rotates the ellipse by 90 degree
+        final PathData.Builder builder = new PathData.Builder();
+        PathParser.parse("M10 10 A30 20 0 0 1 50 30", new TransformHandler(builder, 0, 1, 0, 1, 0, 0));
+        final PathData pathData = builder.build();
+        assertEquals(30, pathData.getCoordinate(2), 1e-9);
+        assertEquals(20, pathData.getCoordinate(3), 1e-9);
+        assertEquals(90, Math.abs(pathData.getCoordinate(4)), 1e-9);
+        assertEquals(PathData.ARC_TO, pathData.getOpcode(1));
+    }
+
+    @Test void zeroRadiusArcsStayLines() {
+        assertEquals("M20,20A0,20 0 0 1 100,60", transform("M10 10 A0 20 0 0 1 50 30", 2, 0, 0, 0, 2, 0));
+    }
+
+    @Test void transformsAllSegments() {
+        assertEquals("M11,22L13,24Q15,26 17,28C19,30 21,32 23,34Z", transform("M1 2 L3 4 Q5 6 7 8 C9 10 11 12 13 14 Z", 1, 0, 10, 0, 1, 20));
+
+        final SVGStringHandler translated = new SVGStringHandler();
+        PathParser.parse("M1 2L3 4", TransformHandler.translate(translated, 10, -10));
+        assertEquals("M11,-8L13,-6", translated.toString());
+
+        final SVGStringHandler scaled = new SVGStringHandler();
+        PathParser.parse("M1 2L3 4", TransformHandler.scale(scaled, 2, -1));
+        assertEquals("M2,-2L6,-4", scaled.toString());
+
+        // clockwise on screen like JavaFX
+        final PathData.Builder rotated = new PathData.Builder();
+        PathParser.parse("M20 10", TransformHandler.rotate(rotated, 90, 10, 10));
+        assertEquals(10, rotated.build().getCoordinate(0), 1e-9);
+        assertEquals(20, rotated.build().getCoordinate(1), 1e-9);
+    }
+
+    private static String transform(final String svgPathData, final double mxx, final double mxy, final double tx, final double myx, final double myy, final double ty) {
+        final SVGStringHandler handler = new SVGStringHandler();
+        PathParser.parse(svgPathData, new TransformHandler(handler, mxx, mxy, tx, myx, myy, ty));
+        return handler.toString();
+    }
+
+    private static byte arcOpcode(final String svgPathData, final double mxx, final double mxy, final double tx, final double myx, final double myy, final double ty) {
+        final PathData.Builder builder = new PathData.Builder();
+        PathParser.parse(svgPathData, new TransformHandler(builder, mxx, mxy, tx, myx, myy, ty));
+        return builder.build().getOpcode(1);
+    }
+
+    private static double hausdorffDistance(final Shape a, final Shape b) {
+        final List<double[]> pointsA = points(a);
+        final List<double[]> pointsB = points(b);
+        return Math.max(maxDistance(pointsA, pointsB), maxDistance(pointsB, pointsA));
+    }
+
+    /**
+     * @return max distance of the given points to the polyline through the other points
+     */
+    private static double maxDistance(final List<double[]> points, final List<double[]> polyline) {
+        double max = 0;
+        for (double[] p : points) {
+            double min = Double.MAX_VALUE;
+            for (int i = 1 ; i < polyline.size() ; i++) {
+                final double[] s  = polyline.get(i - 1);
+                final double[] e  = polyline.get(i);
+                final double   dx = e[0] - s[0];
+                final double   dy = e[1] - s[1];
+                final double   l  = dx * dx + dy * dy;
+                final double   t  = l == 0 ? 0 : Math.max(0, Math.min(1, ((p[0] - s[0]) * dx + (p[1] - s[1]) * dy) / l));
+                min = Math.min(min, Math.hypot(p[0] - s[0] - t * dx, p[1] - s[1] - t * dy));
+            }
+            max = Math.max(max, min);
+        }
+        return max;
+    }
+
+    private static List<double[]> points(final Shape shape) {
+        final List<double[]> points = new ArrayList<>();
+        final double[]       coords = new double[6];
+        for (PathIterator iterator = shape.getPathIterator(null, 1e-5) ; !iterator.isDone() ; iterator.next()) {
+            if (iterator.currentSegment(coords) != PathIterator.SEG_CLOSE) { points.add(new double[] { coords[0], coords[1] }); }
+        }
+        return points;
+    }
+}
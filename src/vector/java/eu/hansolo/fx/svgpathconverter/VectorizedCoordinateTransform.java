@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.svgpathconverter;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+
+/**
+ * Vector API implementation of CoordinateTransform, only compiled with -PvectorApi (src/vector/java) and
+ * only loaded if the jdk.incubator.vector module is present at runtime.
+ * Works on the packed layout directly: with v = (x0, y0, x1, y1, ...) and s = (y0, x0, y1, x1, ...)
+ * the result is (mxx, myy, ...) * v + (mxy, myx, ...) * s + (tx, ty, ...).
+ */
+final class VectorizedCoordinateTransform implements CoordinateTransform.Kernel {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+
+    // ******************** Constructors **************************************
+    VectorizedCoordinateTransform() {}
+
+
+    // ******************** Methods *******************************************
+    @Override public boolean isSupported() { return SPECIES.length() >= 2; }
+
+    @Override public int transform(final double[] src, final int srcOffset, final double[] dst, final int dstOffset, final int noOfPoints,
+                                   final double mxx, final double mxy, final double tx, final double myx, final double myy, final double ty) {
+        final int      lanes = SPECIES.length();
+        final double[] scale = new double[lanes];
+        final double[] shear = new double[lanes];
+        final double[] shift = new double[lanes];
+        for (int i = 0 ; i < lanes ; i += 2) {
+            scale[i] = mxx;  scale[i + 1] = myy;
+            shear[i] = mxy;  shear[i + 1] = myx;
+            shift[i] = tx;   shift[i + 1] = ty;
+        }
+        final DoubleVector          scaleVector = DoubleVector.fromArray(SPECIES, scale, 0);
+        final DoubleVector          shearVector = DoubleVector.fromArray(SPECIES, shear, 0);
+        final DoubleVector          shiftVector = DoubleVector.fromArray(SPECIES, shift, 0);
+        final VectorShuffle<Double> swap        = VectorShuffle.fromOp(SPECIES, i -> i ^ 1);
+        final int                   bound       = SPECIES.loopBound(noOfPoints * 2);
+        int i = 0;
+        for ( ; i < bound ; i += lanes) {
+            final DoubleVector v = DoubleVector.fromArray(SPECIES, src, srcOffset + i);
+            // Same evaluation order as the scalar loop: (mxx * x + mxy * y) + tx
+            v.mul(scaleVector).add(v.rearrange(swap).mul(shearVector)).add(shiftVector).intoArray(dst, dstOffset + i);
+        }
+        return i / 2;
+    }
+}